@@ -0,0 +1,71 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Legt die Sequenz für die IDs gefangener Pokémon an ({@code owned_pokemon_seq}).
+ * <p>
+ * Bisher wurden die IDs per IDENTITY (auto_increment) vergeben. Die Sequenz muss deshalb hinter
+ * der höchsten vorhandenen ID beginnen. Da der Startwert von den Daten abhängt, ist die Migration in Java geschrieben.
+ * </p>
+ *
+ * <b>Hinweis zum Startwert:</b>
+ * Hibernate ("pooled"-Optimierer) interpretiert einen gelesenen Sequenzwert als obere Grenze eines Blocks.
+ * Bei vorhandenen Daten startet die Sequenz daher bei {@code max(id) + Blockgröße}, die erste vergebene ID ist {@code max(id) + 1}.
+ * Das Inkrement kommt aus dem Flyway-Platzhalter {@code ownedPokemonAllocationSize}.
+ *
+ * @author grubi
+ */
+public class V1__CreateOwnedPokemonSequence extends BaseJavaMigration {
+
+    /** Name der Tabelle mit den gefangenen Pokémon. */
+    private static final String TABLE = "owned_pokemon";
+
+    /**
+     * Führt die Migration aus.
+     *
+     * @param context Flyway-Kontext mit Verbindung und Konfiguration
+     * @throws SQLException Bei Datenbankfehlern
+     */
+    @Override
+    public void migrate(Context context) throws SQLException {
+        int allocationSize = Integer.parseInt(context.getConfiguration().getPlaceholders()
+                .getOrDefault("ownedPokemonAllocationSize", "50"));
+
+        Connection connection = context.getConnection();
+        long maxId = tableExists(connection) ? maxId(connection) : 0;
+        long start = maxId == 0 ? 1 : maxId + allocationSize;
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create sequence if not exists owned_pokemon_seq start with " + start
+                    + " increment by " + allocationSize);
+        }
+    }
+
+    /**
+     * Prüft, ob die Tabelle bereits existiert (bei einer neuen Datenbank legt Hibernate sie erst später an).
+     */
+    private static boolean tableExists(Connection connection) throws SQLException {
+        try (ResultSet tables = connection.getMetaData()
+                .getTables(connection.getCatalog(), connection.getSchema(), TABLE, new String[]{"TABLE"})) {
+            return tables.next();
+        }
+    }
+
+    /**
+     * Liest die höchste vergebene ID.
+     */
+    private static long maxId(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("select coalesce(max(id), 0) from " + TABLE)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Ergänzt gefangene Pokémon um die Versionsspalte für optimistisches Sperren ({@code version}).
+ * <p>
+ * Bestehende Zeilen starten mit Version 0. Bei einer neuen Datenbank legt Hibernate Tabelle und Spalte selbst an;
+ * die Migration tut dann nichts.
+ * </p>
+ *
+ * @author grubi
+ */
+public class V3__AddOwnedPokemonVersion extends BaseJavaMigration {
+
+    /** Name der Tabelle mit den gefangenen Pokémon. */
+    private static final String TABLE = "owned_pokemon";
+
+    /** Name der neuen Spalte. */
+    private static final String COLUMN = "version";
+
+    /**
+     * Führt die Migration aus.
+     *
+     * @param context Flyway-Kontext mit Verbindung und Konfiguration
+     * @throws SQLException Bei Datenbankfehlern
+     */
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        if (!tableExists(connection) || columnExists(connection)) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table " + TABLE + " add column " + COLUMN + " bigint not null default 0");
+        }
+    }
+
+    /**
+     * Prüft, ob die Tabelle bereits existiert.
+     */
+    private static boolean tableExists(Connection connection) throws SQLException {
+        try (ResultSet tables = connection.getMetaData()
+                .getTables(connection.getCatalog(), connection.getSchema(), TABLE, new String[]{"TABLE"})) {
+            return tables.next();
+        }
+    }
+
+    /**
+     * Prüft, ob die Spalte bereits existiert.
+     */
+    private static boolean columnExists(Connection connection) throws SQLException {
+        try (ResultSet columns = connection.getMetaData()
+                .getColumns(connection.getCatalog(), connection.getSchema(), TABLE, COLUMN)) {
+            return columns.next();
+        }
+    }
+}
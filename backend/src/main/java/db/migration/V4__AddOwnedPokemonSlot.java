@@ -0,0 +1,92 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Ergänzt gefangene Pokémon um ihren Platz in der Box ({@code slot}) samt Unique-Constraint auf {@code (box_id, slot)}.
+ * <p>
+ * Bestehende Pokémon erhalten je Box die Plätze 0, 1, 2, ... in der Reihenfolge ihrer IDs, also in der bisherigen
+ * Anzeigereihenfolge. Bei einer neuen Datenbank legt Hibernate Tabelle, Spalte und Constraint selbst an;
+ * die Migration tut dann nichts.
+ * </p>
+ *
+ * @author grubi
+ */
+public class V4__AddOwnedPokemonSlot extends BaseJavaMigration {
+
+    /** Name der Tabelle mit den gefangenen Pokémon. */
+    private static final String TABLE = "owned_pokemon";
+
+    /** Name der neuen Spalte. */
+    private static final String COLUMN = "slot";
+
+    /**
+     * Führt die Migration aus.
+     *
+     * @param context Flyway-Kontext mit Verbindung und Konfiguration
+     * @throws SQLException Bei Datenbankfehlern
+     */
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        if (!tableExists(connection) || columnExists(connection)) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table " + TABLE + " add column " + COLUMN + " integer");
+            backfill(connection, statement);
+            statement.execute("alter table " + TABLE + " modify " + COLUMN + " integer not null");
+            statement.execute("alter table " + TABLE + " add constraint uk_owned_pokemon_box_slot unique (box_id, " + COLUMN + ")");
+        }
+    }
+
+    /**
+     * Vergibt je Box fortlaufende Plätze in der Reihenfolge der IDs (per JDBC-Batch).
+     */
+    private static void backfill(Connection connection, Statement statement) throws SQLException {
+        try (ResultSet rows = statement.executeQuery("select id, box_id from " + TABLE + " order by box_id, id");
+             PreparedStatement update = connection.prepareStatement(
+                     "update " + TABLE + " set " + COLUMN + " = ? where id = ?")) {
+            long currentBox = -1;
+            int slot = 0;
+            while (rows.next()) {
+                long boxId = rows.getLong("box_id");
+                if (boxId != currentBox) {
+                    currentBox = boxId;
+                    slot = 0;
+                }
+                update.setInt(1, slot++);
+                update.setLong(2, rows.getLong("id"));
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+    }
+
+    /**
+     * Prüft, ob die Tabelle bereits existiert.
+     */
+    private static boolean tableExists(Connection connection) throws SQLException {
+        try (ResultSet tables = connection.getMetaData()
+                .getTables(connection.getCatalog(), connection.getSchema(), TABLE, new String[]{"TABLE"})) {
+            return tables.next();
+        }
+    }
+
+    /**
+     * Prüft, ob die Spalte bereits existiert.
+     */
+    private static boolean columnExists(Connection connection) throws SQLException {
+        try (ResultSet columns = connection.getMetaData()
+                .getColumns(connection.getCatalog(), connection.getSchema(), TABLE, COLUMN)) {
+            return columns.next();
+        }
+    }
+}
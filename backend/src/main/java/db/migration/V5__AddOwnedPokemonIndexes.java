@@ -0,0 +1,89 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Legt die Indizes für die häufigsten Zugriffspfade auf gefangene Pokémon an.
+ * <ul>
+ *   <li>{@code idx_owned_pokemon_edition_box (edition, box_id)}: Filter nach Edition (und Box)</li>
+ *   <li>{@code idx_owned_pokemon_species (species_id)}: Suche nach Art</li>
+ * </ul>
+ * Einen eigenen Index auf {@code box_id} gibt es bewusst nicht: Der Unique-Index {@code (box_id, slot)} aus
+ * {@code V4} beginnt mit {@code box_id} und deckt Zählen und Auflisten der Pokémon einer Box bereits ab.
+ * Bereits vorhandene Indizes werden übersprungen. Bei einer neuen Datenbank legt Hibernate Tabelle und Indizes
+ * selbst an (siehe {@code OwnedPokemon}); die Migration tut dann nichts.
+ *
+ * @author grubi
+ */
+public class V5__AddOwnedPokemonIndexes extends BaseJavaMigration {
+
+    /** Name der Tabelle mit den gefangenen Pokémon. */
+    private static final String TABLE = "owned_pokemon";
+
+    /** Anzulegende Indizes (Name und Spalten). */
+    private static final Map<String, String> INDEXES = new LinkedHashMap<>();
+
+    static {
+        INDEXES.put("idx_owned_pokemon_edition_box", "edition, box_id");
+        INDEXES.put("idx_owned_pokemon_species", "species_id");
+    }
+
+    /**
+     * Führt die Migration aus.
+     *
+     * @param context Flyway-Kontext mit Verbindung und Konfiguration
+     * @throws SQLException Bei Datenbankfehlern
+     */
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        if (!tableExists(connection)) {
+            return;
+        }
+        Set<String> existing = existingIndexes(connection);
+        try (Statement statement = connection.createStatement()) {
+            for (Map.Entry<String, String> index : INDEXES.entrySet()) {
+                if (!existing.contains(index.getKey())) {
+                    statement.execute("create index " + index.getKey() + " on " + TABLE + " (" + index.getValue() + ")");
+                }
+            }
+        }
+    }
+
+    /**
+     * Prüft, ob die Tabelle bereits existiert.
+     */
+    private static boolean tableExists(Connection connection) throws SQLException {
+        try (ResultSet tables = connection.getMetaData()
+                .getTables(connection.getCatalog(), connection.getSchema(), TABLE, new String[]{"TABLE"})) {
+            return tables.next();
+        }
+    }
+
+    /**
+     * Liest die Namen aller Indizes der Tabelle (ohne Beachtung der Groß-/Kleinschreibung).
+     */
+    private static Set<String> existingIndexes(Connection connection) throws SQLException {
+        Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        try (ResultSet indexes = connection.getMetaData()
+                .getIndexInfo(connection.getCatalog(), connection.getSchema(), TABLE, false, true)) {
+            while (indexes.next()) {
+                String name = indexes.getString("INDEX_NAME");
+                if (name != null) {
+                    names.add(name);
+                }
+            }
+        }
+        return names;
+    }
+}
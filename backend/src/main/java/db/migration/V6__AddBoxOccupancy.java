@@ -0,0 +1,72 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Ergänzt Boxen um den Belegungszähler ({@code occupancy}) und füllt ihn mit der tatsächlichen Anzahl Pokémon.
+ * <p>
+ * So stimmen die Zähler bereits beim ersten Start nach dem Update und nicht erst nach dem Abgleich durch
+ * {@code BoxOccupancyReconciler}. Bei einer neuen Datenbank legt Hibernate Tabelle und Spalte selbst an;
+ * die Migration tut dann nichts.
+ * </p>
+ *
+ * @author grubi
+ */
+public class V6__AddBoxOccupancy extends BaseJavaMigration {
+
+    /** Name der Tabelle mit den Boxen. */
+    private static final String TABLE = "box";
+
+    /** Name der neuen Spalte. */
+    private static final String COLUMN = "occupancy";
+
+    /** Name der Tabelle mit den gefangenen Pokémon (Quelle der Zählung). */
+    private static final String OWNED_TABLE = "owned_pokemon";
+
+    /**
+     * Führt die Migration aus.
+     *
+     * @param context Flyway-Kontext mit Verbindung und Konfiguration
+     * @throws SQLException Bei Datenbankfehlern
+     */
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        if (!tableExists(connection, TABLE) || columnExists(connection)) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table " + TABLE + " add column " + COLUMN + " integer not null default 0");
+            if (tableExists(connection, OWNED_TABLE)) {
+                statement.executeUpdate("update " + TABLE + " b set " + COLUMN + " = (select count(*) from "
+                        + OWNED_TABLE + " p where p.box_id = b.id)");
+            }
+        }
+    }
+
+    /**
+     * Prüft, ob die Tabelle bereits existiert.
+     */
+    private static boolean tableExists(Connection connection, String table) throws SQLException {
+        try (ResultSet tables = connection.getMetaData()
+                .getTables(connection.getCatalog(), connection.getSchema(), table, new String[]{"TABLE"})) {
+            return tables.next();
+        }
+    }
+
+    /**
+     * Prüft, ob die Spalte bereits existiert.
+     */
+    private static boolean columnExists(Connection connection) throws SQLException {
+        try (ResultSet columns = connection.getMetaData()
+                .getColumns(connection.getCatalog(), connection.getSchema(), TABLE, COLUMN)) {
+            return columns.next();
+        }
+    }
+}
@@ -37,7 +37,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:5173")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS")
                 .allowedHeaders("*")
-                .exposedHeaders("Content-Type", "Authorization")
+                .exposedHeaders("Content-Type", "Authorization", "ETag")
                 .allowCredentials(false)
                 .maxAge(3600);
     }
@@ -0,0 +1,45 @@
+package pokedex.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Konfiguration der Anwendungsmetriken (Micrometer).
+ * <p>
+ * Aktiviert {@code @Timed} auf Service-Methoden. Jeder Aufruf über den Spring-Proxy wird als Timer erfasst
+ * (Anzahl, Gesamtdauer, Maximum sowie ein Histogramm für Perzentile), getaggt mit {@code class}, {@code method}
+ * und {@code exception} ({@code none} bei Erfolg).
+ * </p>
+ *
+ * <b>Übersicht der Metriken</b> (Abruf im Prometheus-Format unter {@code /actuator/prometheus}):
+ * <ul>
+ *   <li>{@code pokedex.pokemon.add|update|delete}: Bearbeitungen gefangener Pokémon</li>
+ *   <li>{@code pokedex.box.move}, {@code pokedex.box.move.batch}, {@code pokedex.box.full.check}: Box-Operationen</li>
+ *   <li>{@code pokedex.species.lookup}: Abfragen von Pokémon-Arten (Tag {@code by}: id, name, type)</li>
+ *   <li>{@code pokedex.exceptions}: Von {@link pokedex.exception.GlobalExceptionHandler} beantwortete Fehler
+ *   nach {@code exception} und {@code status}</li>
+ *   <li>{@code pokedex.box.occupancy}, {@code pokedex.pokemon.owned}: Belegung je Box und Gesamtzahl
+ *   (siehe {@link pokedex.service.BoxOccupancyMetrics})</li>
+ * </ul>
+ *
+ * <b>Hinweis:</b>
+ * Aufrufe innerhalb derselben Klasse laufen nicht über den Proxy und werden daher nicht gemessen.
+ *
+ * @author grubi
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Aspekt, der mit {@code @Timed} annotierte Methoden misst.
+     *
+     * @param registry Registry, in der die Timer angelegt werden
+     * @return Der Aspekt
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,18 @@
+package pokedex.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Aktiviert die Ausführung geplanter Hintergrundaufgaben ({@code @Scheduled}).
+ * <p>
+ * Wird u.a. vom {@link pokedex.service.BoxOccupancyReconciler} genutzt, der die Belegungszähler
+ * der Boxen regelmäßig mit dem tatsächlichen Datenbestand abgleicht.
+ * </p>
+ *
+ * @author grubi
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -3,10 +3,14 @@ package pokedex.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.validation.Valid;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import pokedex.dto.BatchMoveDTO;
+import pokedex.dto.BatchMoveResultDTO;
 import pokedex.dto.BoxDTO;
+import pokedex.dto.OwnedPokemonDTO;
 import pokedex.model.BoxName;
 import pokedex.model.Edition;
 import pokedex.service.BoxService;
@@ -24,6 +28,8 @@ import java.util.List;
  *     <li>Laden einer Box inklusive aller enthaltenen Pokémon</li>
  *     <li>Prüfung, ob eine Box voll ist (z.B. für Drag & Drop im UI)</li>
  *     <li>Verschieben eines Pokémon von einer Box/Edition in eine andere</li>
+ *     <li>Sammel-Verschiebung mehrerer Pokémon (Mehrfachauswahl im UI)</li>
+ *     <li>Umsortieren innerhalb einer Box: Pokémon auf einen Platz legen oder zwei Plätze tauschen</li>
  *     <li>Listen aller gültigen Box- bzw. Editionsnamen</li>
  * </ul>
  *
@@ -58,7 +64,7 @@ public class BoxController {
     @ApiResponse(responseCode = "200", description = "Box wurde gefunden")
     @GetMapping(value = "/{edition}/{name}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<BoxDTO> getBoxByNameAndEdition(@PathVariable BoxName name, @PathVariable Edition edition) {
-        return ResponseEntity.ok(BoxDTO.from(boxService.getBoxByNameAndEdition(name, edition)));
+        return ResponseEntity.ok(boxService.getBoxContents(name, edition));
     }
 
     /**
@@ -108,6 +114,61 @@ public class BoxController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Verschiebt mehrere Pokémon in einem Aufruf, z.B. beim Umsortieren einer ganzen Box.
+     * <p>
+     * Im atomaren Modus (Standard) werden entweder alle Verschiebungen ausgeführt oder keine,
+     * Fehler liefern dieselben Statuscodes wie die Einzelverschiebung.
+     * Im nicht-atomaren Modus werden gültige Verschiebungen ausgeführt und Fehler je Eintrag gemeldet.
+     *
+     * @param request Die Verschiebungen inkl. Modus
+     * @return Ergebnis je Verschiebung in Anfragereihenfolge
+     */
+    @Operation(summary = "Verschiebt mehrere Pokémon auf einmal",
+            description = "Für Mehrfachauswahl im UI. Atomar oder mit Einzelergebnissen je Pokémon.")
+    @ApiResponse(responseCode = "200", description = "Verschiebungen wurden ausgeführt (Ergebnis je Pokémon)")
+    @ApiResponse(responseCode = "400", description = "Ungültige Anfrage", content = @Content)
+    @ApiResponse(responseCode = "404", description = "Box oder Pokémon nicht gefunden (nur atomar)", content = @Content)
+    @ApiResponse(responseCode = "409", description = "Zielbox ist voll oder Quelle/Ziel identisch (nur atomar)", content = @Content)
+    @PostMapping(value = "/move-batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchMoveResultDTO> moveBatch(@Valid @RequestBody BatchMoveDTO request) {
+        return ResponseEntity.ok(boxService.moveBatch(request));
+    }
+
+    /**
+     * Legt ein Pokémon innerhalb seiner Box auf einen anderen Platz. Ist der Platz belegt, werden die Plätze getauscht.
+     *
+     * @param pokemonId Die ID des Pokémon
+     * @param slot      Der neue Platz (0 bis Kapazität - 1)
+     * @return Die geänderten Pokémon (höchstens zwei, leer wenn der Platz unverändert ist)
+     */
+    @Operation(summary = "Legt ein Pokémon auf einen anderen Platz seiner Box",
+            description = "Für das Umsortieren per Drag & Drop. Ändert höchstens zwei Pokémon.")
+    @ApiResponse(responseCode = "200", description = "Pokémon wurde umsortiert (geänderte Pokémon)")
+    @ApiResponse(responseCode = "400", description = "Platz existiert in der Box nicht", content = @Content)
+    @ApiResponse(responseCode = "404", description = "Pokémon nicht gefunden", content = @Content)
+    @PutMapping("/pokemon/{pokemonId}/slot/{slot}")
+    public ResponseEntity<List<OwnedPokemonDTO>> moveToSlot(@PathVariable Long pokemonId, @PathVariable int slot) {
+        return ResponseEntity.ok(boxService.moveToSlot(pokemonId, slot).stream().map(OwnedPokemonDTO::from).toList());
+    }
+
+    /**
+     * Tauscht die Plätze zweier Pokémon derselben Box.
+     *
+     * @param pokemonId Die ID des ersten Pokémon
+     * @param otherId   Die ID des zweiten Pokémon
+     * @return Die beiden geänderten Pokémon
+     */
+    @Operation(summary = "Tauscht die Plätze zweier Pokémon einer Box",
+            description = "Für das Umsortieren per Drag & Drop auf ein anderes Pokémon derselben Box.")
+    @ApiResponse(responseCode = "200", description = "Plätze wurden getauscht (geänderte Pokémon)")
+    @ApiResponse(responseCode = "400", description = "Gleiches Pokémon oder verschiedene Boxen", content = @Content)
+    @ApiResponse(responseCode = "404", description = "Pokémon nicht gefunden", content = @Content)
+    @PutMapping("/pokemon/{pokemonId}/swap/{otherId}")
+    public ResponseEntity<List<OwnedPokemonDTO>> swapSlots(@PathVariable Long pokemonId, @PathVariable Long otherId) {
+        return ResponseEntity.ok(boxService.swapSlots(pokemonId, otherId).stream().map(OwnedPokemonDTO::from).toList());
+    }
+
     /**
      * Liefert alle gültigen Box-Namen zurück.
      *
@@ -1,16 +1,21 @@
 package pokedex.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import pokedex.model.BoxName;
 import pokedex.model.Edition;
+import pokedex.service.ReferenceDataCache;
+import pokedex.service.ReferenceDataCache.ReferenceData;
 
-import java.util.Arrays;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.io.IOException;
 
 /**
  * REST-Controller zum Bereitstellen der verfügbaren Enum-Werte (BoxName, Edition) für das Frontend.
@@ -27,6 +32,8 @@ import java.util.stream.Collectors;
  * </ul>
  *
  * Pfade beginnen mit <code>/api</code>.
+ * Alle Antworten werden vorab serialisiert aus dem {@link ReferenceDataCache} geliefert
+ * (inkl. ETag, {@code If-None-Match} → 304).
  *
  * @author grubi
  */
@@ -34,18 +41,32 @@ import java.util.stream.Collectors;
 @RequestMapping("/api")
 public class EnumController {
 
+    /** Cache der vorab serialisierten Antworten. */
+    private final ReferenceDataCache referenceDataCache;
+
+    /**
+     * Konstruktor für Dependency Injection.
+     * @param referenceDataCache Cache der vorab serialisierten Referenzdaten
+     */
+    public EnumController(ReferenceDataCache referenceDataCache) {
+        this.referenceDataCache = referenceDataCache;
+    }
+
     /**
      * Gibt alle Werte des Enums {@link BoxName} als Array zurück.
      *
-     * @return Array aller BoxName-Werte (z.B. für Auswahl im UI)
+     * @param request  Aktuelle Anfrage (für {@code If-None-Match} und {@code Accept-Encoding})
+     * @param response Antwort mit Array aller BoxName-Werte (z.B. für Auswahl im UI); 304, falls unverändert
      */
     @Operation(summary = "Listet alle verfügbaren Boxnamen auf",
             description = "Gibt ein Array aller zulässigen Boxnamen (Enum-Werte) zurück, z.B. für die Anzeige in einem Dropdown-Menü."
     )
-    @ApiResponse(responseCode = "200", description = "Array aller Boxnamen wurde erfolgreich geladen")
+    @ApiResponse(responseCode = "200", description = "Array aller Boxnamen wurde erfolgreich geladen",
+            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = BoxName.class))))
+    @ApiResponse(responseCode = "304", description = "Unverändert (If-None-Match)", content = @Content)
     @GetMapping("/boxnames")
-    public BoxName[] getBoxNames() {
-        return BoxName.values();
+    public void getBoxNames(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        referenceDataCache.write(ReferenceData.BOX_NAMES, request, response);
     }
 
     /**
@@ -55,33 +76,35 @@ public class EnumController {
      * <br>Beispiel: <code>{"Team": "TEAM", "Box 1": "BOX1", ...}</code>
      * <br>Erlaubt es dem Frontend, sowohl eine sprechende Anzeige als auch den technischen Key zu verwenden.
      *
-     * @return Map (DisplayName → Enum-Name)
+     * @param request  Aktuelle Anfrage (für {@code If-None-Match} und {@code Accept-Encoding})
+     * @param response Antwort mit Map (DisplayName → Enum-Name); 304, falls unverändert
      */
     @Operation(summary = "Liefert ein Mapping aus DisplayName zu Enum-Name für Boxen",
             description = "Gibt eine Map zurück, in der der Key der sprechende Name (DisplayName) und der Value die Enum-Konstante für alle Boxnamen ist. Beispiel: {'Team': 'TEAM', ...}."
     )
-    @ApiResponse(responseCode = "200", description = "Mapping aller Boxnamen wurde erfolgreich geladen")
+    @ApiResponse(responseCode = "200", description = "Mapping aller Boxnamen wurde erfolgreich geladen",
+            content = @Content(mediaType = "application/json", schema = @Schema(type = "object", additionalPropertiesSchema = String.class)))
+    @ApiResponse(responseCode = "304", description = "Unverändert (If-None-Match)", content = @Content)
     @GetMapping("/boxnames/mapping")
-    public Map<String, String> getBoxNameMapping() {
-        return Arrays.stream(BoxName.values())
-                .collect(Collectors.toMap(
-                        BoxName::getDisplayName,
-                        Enum::name
-                ));
+    public void getBoxNameMapping(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        referenceDataCache.write(ReferenceData.BOX_NAME_MAPPING, request, response);
     }
 
     /**
      * Gibt alle Werte des Enums {@link Edition} als Array zurück.
      *
-     * @return Array aller Edition-Werte (z. B. für Auswahl im UI)
+     * @param request  Aktuelle Anfrage (für {@code If-None-Match} und {@code Accept-Encoding})
+     * @param response Antwort mit Array aller Edition-Werte (z. B. für Auswahl im UI); 304, falls unverändert
      */
     @Operation(summary = "Listet alle verfügbaren Editionen auf",
             description = "Gibt ein Array aller unterstützten Editionen (Enum-Werte) zurück, z.B. für die Anzeige in einem Dropdown-Menü."
     )
-    @ApiResponse(responseCode = "200", description = "Array aller Editionen wurde erfolgreich geladen")
+    @ApiResponse(responseCode = "200", description = "Array aller Editionen wurde erfolgreich geladen",
+            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Edition.class))))
+    @ApiResponse(responseCode = "304", description = "Unverändert (If-None-Match)", content = @Content)
     @GetMapping("/editions")
-    public Edition[] getEditions() {
-        return Edition.values();
+    public void getEditions(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        referenceDataCache.write(ReferenceData.EDITIONS, request, response);
     }
 
     /**
@@ -90,18 +113,17 @@ public class EnumController {
      * Key = Anzeigename (DisplayName), Value = Enum-Konstante.
      * <br>Beispiel: <code>{"Rot": "ROT", "Blau": "BLAU", ...}</code>
      *
-     * @return Map (DisplayName → Enum-Name)
+     * @param request  Aktuelle Anfrage (für {@code If-None-Match} und {@code Accept-Encoding})
+     * @param response Antwort mit Map (DisplayName → Enum-Name); 304, falls unverändert
      */
     @Operation(summary = "Liefert ein Mapping aus DisplayName zu Enum-Name für Editionen",
             description = "Gibt eine Map zurück, in der der Key der sprechende Name (DisplayName) und der Value die Enum-Konstante für alle Editionen ist. Beispiel: {'Rot': 'ROT', ...}."
     )
-    @ApiResponse(responseCode = "200", description = "Mapping aller Editionen wurde erfolgreich geladen")
+    @ApiResponse(responseCode = "200", description = "Mapping aller Editionen wurde erfolgreich geladen",
+            content = @Content(mediaType = "application/json", schema = @Schema(type = "object", additionalPropertiesSchema = String.class)))
+    @ApiResponse(responseCode = "304", description = "Unverändert (If-None-Match)", content = @Content)
     @GetMapping("/editions/mapping")
-    public Map<String, String> getEditionMapping() {
-        return Arrays.stream(Edition.values())
-                .collect(Collectors.toMap(
-                        Edition::getDisplayName,
-                        Enum::name
-                ));
+    public void getEditionMapping(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        referenceDataCache.write(ReferenceData.EDITION_MAPPING, request, response);
     }
 }
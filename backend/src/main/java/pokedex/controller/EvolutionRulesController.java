@@ -1,12 +1,18 @@
 package pokedex.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import pokedex.service.EvolutionService;
+import pokedex.service.ReferenceDataCache;
+import pokedex.service.ReferenceDataCache.ReferenceData;
+import java.io.IOException;
 import java.util.List;
-import java.util.Map;
 
 /**
  * REST-Controller zum Bereitstellen der Entwicklungsregeln aller Pokémon.
@@ -35,13 +41,18 @@ public class EvolutionRulesController {
     /** Service zum Abrufen der Entwicklungsregeln. */
     private final EvolutionService evolutionService;
 
+    /** Cache der vorab serialisierten Antworten. */
+    private final ReferenceDataCache referenceDataCache;
+
     /**
      * Konstruktor für Dependency Injection.
-     * @param evolutionService Der Service, der die Entwicklungsregeln bereitstellt
+     * @param evolutionService   Der Service, der die Entwicklungsregeln bereitstellt
+     * @param referenceDataCache Cache der vorab serialisierten Referenzdaten
      */
     @Autowired
-    public EvolutionRulesController(EvolutionService evolutionService) {
+    public EvolutionRulesController(EvolutionService evolutionService, ReferenceDataCache referenceDataCache) {
         this.evolutionService = evolutionService;
+        this.referenceDataCache = referenceDataCache;
     }
 
     /**
@@ -51,14 +62,75 @@ public class EvolutionRulesController {
      * zu denen sich das jeweilige Pokémon entwickeln kann.
      * <br>Pokémon ohne Entwicklung sind in der Map nicht enthalten oder haben eine leere Liste.
      *
-     * @return Map&lt;Pokedex-Id, Liste möglicher Ziel-Pokedex-Ids&gt;
+     * Die Antwort wird vorab serialisiert aus dem {@link ReferenceDataCache} geliefert (inkl. ETag).
+     *
+     * @param request  Aktuelle Anfrage (für {@code If-None-Match} und {@code Accept-Encoding})
+     * @param response Antwort mit Map&lt;Pokedex-Id, Liste möglicher Ziel-Pokedex-Ids&gt;; 304, falls unverändert
      */
     @Operation(summary = "Liefert alle Entwicklungsregeln der Pokémon",
             description = "Gibt eine Map zurück, die für jede Pokedex-Id eine Liste aller Ziel-Pokedex-Ids enthält, zu denen sich das Pokémon entwickeln kann."
     )
-    @ApiResponse(responseCode = "200", description = "Entwicklungsregeln wurden erfolgreich geladen")
+    @ApiResponse(responseCode = "200", description = "Entwicklungsregeln wurden erfolgreich geladen",
+            content = @Content(mediaType = "application/json", schema = @Schema(type = "object", example = "{\"1\": [2], \"133\": [134, 135, 136]}"),
+                    additionalPropertiesSchema = @Schema(type = "array", implementation = Integer.class)))
+    @ApiResponse(responseCode = "304", description = "Unverändert (If-None-Match)", content = @Content)
     @GetMapping("/evolution-rules")
-    public Map<Integer, List<Integer>> getEvolutionRules() {
-        return evolutionService.getEvolutionRules();
+    public void getEvolutionRules(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        referenceDataCache.write(ReferenceData.EVOLUTION_RULES, request, response);
+    }
+
+    /**
+     * Liefert für jede Pokedex-Id, die Teil einer Entwicklung ist, die vollständige Entwicklungsreihe.
+     * <p>
+     * Die Reihe enthält Vorstufen, die Art selbst und alle (auch mehrstufigen) Entwicklungen, aufsteigend sortiert.
+     * <br>Beispiel: 2 → [1, 2, 3], 134 → [133, 134, 135, 136].
+     * <br>Pokémon ohne Entwicklung sind in der Map nicht enthalten.
+     *
+     * Die Antwort wird vorab serialisiert aus dem {@link ReferenceDataCache} geliefert (inkl. ETag).
+     *
+     * @param request  Aktuelle Anfrage (für {@code If-None-Match} und {@code Accept-Encoding})
+     * @param response Antwort mit Map&lt;Pokedex-Id, Pokedex-Ids der gesamten Entwicklungsreihe&gt;; 304, falls unverändert
+     */
+    @Operation(summary = "Liefert alle Entwicklungsreihen der Pokémon",
+            description = "Gibt eine Map zurück, die für jede Pokedex-Id die vollständige Entwicklungsreihe (Vorstufen und Entwicklungen) enthält."
+    )
+    @ApiResponse(responseCode = "200", description = "Entwicklungsreihen wurden erfolgreich geladen",
+            content = @Content(mediaType = "application/json", schema = @Schema(type = "object", example = "{\"2\": [1, 2, 3], \"134\": [133, 134, 135, 136]}"),
+                    additionalPropertiesSchema = @Schema(type = "array", implementation = Integer.class)))
+    @ApiResponse(responseCode = "304", description = "Unverändert (If-None-Match)", content = @Content)
+    @GetMapping("/evolution-chains")
+    public void getEvolutionChains(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        referenceDataCache.write(ReferenceData.EVOLUTION_CHAINS, request, response);
+    }
+
+    /**
+     * Liefert die vollständige Entwicklungsreihe einer einzelnen Art.
+     *
+     * @param pokedexId Pokedex-Id der Art
+     * @return Pokedex-Ids der Entwicklungsreihe; ohne Entwicklung nur die Art selbst
+     */
+    @Operation(summary = "Liefert die Entwicklungsreihe einer Pokémon-Art")
+    @ApiResponse(responseCode = "200", description = "Entwicklungsreihe wurde erfolgreich geladen")
+    @GetMapping("/evolution-chains/{pokedexId}")
+    public List<Integer> getEvolutionChain(@PathVariable int pokedexId) {
+        return evolutionService.getEvolutionChain(pokedexId);
+    }
+
+    /**
+     * Prüft, ob sich eine Art direkt oder über Zwischenstufen zu einer anderen Art entwickeln kann.
+     * <p>
+     * Wird aus der vorberechneten transitiven Hülle in konstanter Zeit beantwortet.
+     * <br>Beispiel: 1 → 3 ergibt true (Bisasam → Bisaknosp → Bisaflor), 3 → 1 ergibt false.
+     * </p>
+     *
+     * @param pokedexId       Pokedex-Id der aktuellen Art
+     * @param targetPokedexId Pokedex-Id der gewünschten Ziel-Art
+     * @return true, wenn die Ziel-Art irgendwann erreicht werden kann; unbekannte Ids ergeben false
+     */
+    @Operation(summary = "Prüft, ob sich eine Pokémon-Art (auch über Zwischenstufen) zu einer anderen entwickeln kann")
+    @ApiResponse(responseCode = "200", description = "true, wenn die Ziel-Art erreichbar ist, sonst false")
+    @GetMapping("/evolution-rules/{pokedexId}/reachable/{targetPokedexId}")
+    public boolean canEventuallyEvolve(@PathVariable int pokedexId, @PathVariable int targetPokedexId) {
+        return evolutionService.canEventuallyEvolve(pokedexId, targetPokedexId);
     }
 }
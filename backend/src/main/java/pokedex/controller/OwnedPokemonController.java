@@ -1,19 +1,41 @@
 package pokedex.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import pokedex.dto.CreateOwnedDTO;
+import pokedex.dto.ImportResultDTO;
+import pokedex.dto.OwnedPokemonChangesDTO;
 import pokedex.dto.OwnedPokemonDTO;
+import pokedex.dto.OwnedPokemonPageDTO;
 import pokedex.dto.UpdateOwnedDTO;
 import pokedex.exception.NotFoundException;
-import pokedex.model.OwnedPokemon;
+import pokedex.exception.PreconditionFailedException;
+import pokedex.model.BoxName;
+import pokedex.model.Edition;
+import pokedex.service.OwnedPokemonChangeFeed;
+import pokedex.service.OwnedPokemonImportService;
 import pokedex.service.OwnedPokemonService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * REST-Controller zur Verwaltung aller gefangenen Pokémon (Owned).
@@ -25,26 +47,51 @@ import java.util.List;
  * <b>Typische Nutzung:</b>
  * <ul>
  *     <li>Laden der eigenen Pokémon-Liste (z. B. für Übersicht/Inventar)</li>
+ *     <li>Seitenweises Laden (Keyset-Paginierung) oder Streaming (NDJSON) sehr großer Sammlungen</li>
  *     <li>Hinzufügen eines neu gefangenen Pokémon</li>
+ *     <li>Sammel-Import vieler Pokémon (z.B. ganzer Spielstände) als JSON-Body oder Datei-Upload</li>
  *     <li>Aktualisieren von Eigenschaften (Nickname, Level, Box, Edition, ...)</li>
  *     <li>Löschen eines Pokémon</li>
+ *     <li>Abonnieren aller Änderungen per Server-Sent Events, statt Listen nach jeder Aktion neu zu laden</li>
  * </ul>
  *
  * @author grubi
  */
 @RestController
+@Validated
 @RequestMapping("/api/pokemon")
 public class OwnedPokemonController {
 
+    /** Maximale Seitengröße bei der Keyset-Paginierung. */
+    private static final int MAX_PAGE_SIZE = 500;
+
     /** Service zur Verwaltung aller eigenen Pokémon. */
     private final OwnedPokemonService ownedService;
 
+    /** Service für den Sammel-Import von Pokémon. */
+    private final OwnedPokemonImportService importService;
+
+    /** Feed, der Änderungen per Server-Sent Events an die Clients verteilt. */
+    private final OwnedPokemonChangeFeed changeFeed;
+
+    /** ObjectMapper zum zeilenweisen Serialisieren beim Streaming. */
+    private final ObjectMapper objectMapper;
+
     /**
      * Konstruktor für Dependency Injection.
-     * @param ownedService Der zu verwendende Service für Owned-Pokémon
+     * @param ownedService  Der zu verwendende Service für Owned-Pokémon
+     * @param importService Service für den Sammel-Import
+     * @param changeFeed    Feed für Änderungen (Server-Sent Events)
+     * @param objectMapper  ObjectMapper für das NDJSON-Streaming
      */
-    public OwnedPokemonController(OwnedPokemonService ownedService) {
+    public OwnedPokemonController(OwnedPokemonService ownedService,
+                                  OwnedPokemonImportService importService,
+                                  OwnedPokemonChangeFeed changeFeed,
+                                  ObjectMapper objectMapper) {
         this.ownedService = ownedService;
+        this.importService = importService;
+        this.changeFeed = changeFeed;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -59,11 +106,103 @@ public class OwnedPokemonController {
     @ApiResponse(responseCode = "200", description = "Liste erfolgreich geladen")
     @GetMapping
     public ResponseEntity<List<OwnedPokemonDTO>> getAllPokemon() {
-        var dtos =  ownedService.getAllPokemon()
-                .stream()
-                .map(OwnedPokemonDTO::from)
-                .toList();
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok(ownedService.getAllPokemonDTOs());
+    }
+
+    /**
+     * Lädt eine Seite gefangener Pokémon per Keyset-Paginierung.
+     * <p>
+     * Für die nächste Seite wird der zurückgegebene <code>nextCursor</code> als <code>after</code> übergeben.
+     * Alle Filter sind optional.
+     *
+     * @param after     ID des letzten Eintrags der vorherigen Seite (leer für die erste Seite)
+     * @param limit     Seitengröße (1 - 500, Standard 100)
+     * @param edition   Optionaler Filter auf die Edition
+     * @param box       Optionaler Filter auf den Boxnamen
+     * @param pokedexId Optionaler Filter auf die Pokédex-ID
+     * @return Die Seite als {@link OwnedPokemonPageDTO}
+     */
+    @Operation(summary = "Lädt gefangene Pokémon seitenweise",
+            description = "Keyset-Paginierung über die ID, optional gefiltert nach Edition, Box und Art")
+    @ApiResponse(responseCode = "200", description = "Seite erfolgreich geladen")
+    @ApiResponse(responseCode = "400", description = "Ungültige Parameter", content = @Content)
+    @GetMapping("/page")
+    public ResponseEntity<OwnedPokemonPageDTO> getPokemonPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(MAX_PAGE_SIZE) int limit,
+            @RequestParam(required = false) Edition edition,
+            @RequestParam(required = false) BoxName box,
+            @RequestParam(required = false) Integer pokedexId) {
+        return ResponseEntity.ok(ownedService.getPokemonPage(after, limit, edition, box, pokedexId));
+    }
+
+    /**
+     * Streamt alle (gefilterten) gefangenen Pokémon als NDJSON (ein JSON-Objekt pro Zeile).
+     * <p>
+     * Die Einträge werden direkt vom Datenbank-Cursor in die Antwort geschrieben,
+     * der Speicherbedarf bleibt daher unabhängig von der Größe der Sammlung konstant.
+     *
+     * @param edition   Optionaler Filter auf die Edition
+     * @param box       Optionaler Filter auf den Boxnamen
+     * @param pokedexId Optionaler Filter auf die Pokédex-ID
+     * @return Gestreamte NDJSON-Antwort
+     */
+    @Operation(summary = "Streamt alle gefangenen Pokémon als NDJSON",
+            description = "Ein JSON-Objekt pro Zeile, direkt vom Datenbank-Cursor geschrieben")
+    @ApiResponse(responseCode = "200", description = "Stream gestartet")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPokemon(
+            @RequestParam(required = false) Edition edition,
+            @RequestParam(required = false) BoxName box,
+            @RequestParam(required = false) Integer pokedexId) {
+        StreamingResponseBody body = out -> ownedService.streamPokemon(edition, box, pokedexId, dto -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(dto));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Abonniert alle Änderungen an der eigenen Sammlung als Server-Sent Events.
+     * <p>
+     * Jede Änderung wird nach dem Commit als Event {@code created}, {@code updated}, {@code moved},
+     * {@code deleted} bzw. {@code imported} mit einem {@link pokedex.dto.OwnedPokemonChangeDTO} als Daten gesendet.
+     * Clients wenden die Änderung lokal an, statt Listen oder Boxen neu zu laden.
+     * Der Feed gilt nur für die Instanz, mit der der Client verbunden ist (siehe
+     * {@link pokedex.service.OwnedPokemonChangeFeed}); bei mehreren Instanzen fehlen Änderungen der anderen.
+     *
+     * @return Offener Event-Stream
+     */
+    @Operation(summary = "Abonniert Änderungen an gefangenen Pokémon",
+            description = "Server-Sent Events (created, updated, moved, deleted, imported), jeweils nach dem Commit")
+    @ApiResponse(responseCode = "200", description = "Event-Stream geöffnet")
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToChanges() {
+        return changeFeed.subscribe();
+    }
+
+    /**
+     * Liefert alle Änderungen an der eigenen Sammlung seit der angegebenen Version (Delta-Sync).
+     * <p>
+     * Clients merken sich die zurückgegebene <code>version</code> und übergeben sie beim nächsten Abgleich
+     * als <code>since</code>. Mit <code>since=0</code> wird die gesamte Sammlung geliefert.
+     *
+     * @param since Zuletzt erhaltene Version (Standard 0)
+     * @return Geänderte Pokémon und gelöschte IDs als {@link OwnedPokemonChangesDTO}
+     */
+    @Operation(summary = "Lädt Änderungen an gefangenen Pokémon seit einer Version",
+            description = "Geänderte Pokémon und IDs gelöschter Pokémon seit since, inkl. neuer Version für den nächsten Abgleich")
+    @ApiResponse(responseCode = "200", description = "Änderungen erfolgreich geladen")
+    @ApiResponse(responseCode = "400", description = "Ungültige Version", content = @Content)
+    @GetMapping("/changes")
+    public ResponseEntity<OwnedPokemonChangesDTO> getChanges(@RequestParam(defaultValue = "0") @Min(0) long since) {
+        return ResponseEntity.ok(ownedService.getChangesSince(since));
     }
 
     /**
@@ -71,6 +210,8 @@ public class OwnedPokemonController {
      * <p>
      * Wird verwendet für Detailansicht oder gezielte Aktionen im UI.
      *
+     * Die Antwort enthält die Version als {@code ETag}, die beim Bearbeiten per {@code If-Match} mitgeschickt wird.
+     *
      * @param id Die ID des gesuchten Pokémon
      * @return Das gefundene Pokémon als {@link OwnedPokemonDTO} oder 404, falls nicht vorhanden
      */
@@ -81,8 +222,8 @@ public class OwnedPokemonController {
     @GetMapping("/{id}")
     public ResponseEntity<OwnedPokemonDTO> getPokemonById(@PathVariable Long id) {
         try {
-            OwnedPokemon pokemon = ownedService.getPokemonById(id);
-            return ResponseEntity.ok(OwnedPokemonDTO.from(pokemon));
+            OwnedPokemonDTO pokemon = OwnedPokemonDTO.from(ownedService.getPokemonById(id));
+            return ResponseEntity.ok().eTag(etag(pokemon)).body(pokemon);
         } catch (NotFoundException e) {
             return ResponseEntity.notFound().build();
         }
@@ -104,8 +245,46 @@ public class OwnedPokemonController {
     @ApiResponse(responseCode = "409", description = "Zielbox voll oder ungültige Entwicklung", content = @Content)
     @PostMapping
     public ResponseEntity<OwnedPokemonDTO> addPokemon(@RequestBody @Valid CreateOwnedDTO request) {
-        var pokemon = ownedService.addPokemon(request);
-        return ResponseEntity.status(201).body(OwnedPokemonDTO.from(pokemon));
+        OwnedPokemonDTO pokemon = OwnedPokemonDTO.from(ownedService.addPokemon(request));
+        return ResponseEntity.status(201).eTag(etag(pokemon)).body(pokemon);
+    }
+
+    /**
+     * Importiert viele Pokémon auf einmal aus einem JSON-Array im Request-Body.
+     * <p>
+     * Der Body wird als Strom gelesen und nicht vollständig im Speicher gehalten.
+     * Der Import ist atomar, ein ungültiger Eintrag bricht den gesamten Import ab.
+     *
+     * @param body JSON-Array von {@link CreateOwnedDTO}-Einträgen
+     * @return Anzahl importierter Pokémon, Status 201 (Created) bei Erfolg
+     */
+    @Operation(summary = "Importiert viele eigene Pokémon auf einmal",
+            description = "Erwartet ein JSON-Array im Format von POST /api/pokemon, z.B. für ganze Spielstände")
+    @ApiResponse(responseCode = "201", description = "Alle Pokémon erfolgreich importiert")
+    @ApiResponse(responseCode = "400", description = "Ungültige Eingabedaten (mit Nummer des Eintrags)", content = @Content)
+    @ApiResponse(responseCode = "404", description = "Art oder Box nicht gefunden", content = @Content)
+    @ApiResponse(responseCode = "409", description = "Eine Box würde ihre Kapazität überschreiten", content = @Content)
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportResultDTO> importPokemon(InputStream body) {
+        return ResponseEntity.status(201).body(importService.importPokemon(body));
+    }
+
+    /**
+     * Importiert viele Pokémon auf einmal aus einer hochgeladenen JSON-Datei.
+     *
+     * @param file Hochgeladene Datei mit einem JSON-Array von {@link CreateOwnedDTO}-Einträgen
+     * @return Anzahl importierter Pokémon, Status 201 (Created) bei Erfolg
+     * @throws IOException Wenn die hochgeladene Datei nicht gelesen werden kann
+     */
+    @Operation(summary = "Importiert viele eigene Pokémon aus einer Datei",
+            description = "Wie POST /api/pokemon/import, aber als Datei-Upload (Feld \"file\")")
+    @ApiResponse(responseCode = "201", description = "Alle Pokémon erfolgreich importiert")
+    @ApiResponse(responseCode = "400", description = "Ungültige Eingabedaten (mit Nummer des Eintrags)", content = @Content)
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportResultDTO> importPokemonFile(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.status(201).body(importService.importPokemon(in));
+        }
     }
 
     /**
@@ -113,20 +292,41 @@ public class OwnedPokemonController {
      * <p>
      * Alle Eigenschaften können bearbeitet werden (Nickname, Level, Box, Edition, ...).
      * Validierung erfolgt serverseitig. Bei Fehlern entsprechende Statuscodes.
+     * <p>
+     * Wird der zuletzt erhaltene ETag per {@code If-Match} mitgeschickt, wird die Änderung nur übernommen,
+     * wenn das Pokémon seitdem nicht geändert wurde; sonst 412 (Precondition Failed). Der Header darf eine
+     * Liste von ETags enthalten; verglichen wird stark, schwache ETags ({@code W/"3"}) passen also nie.
+     * Ohne {@code If-Match} (oder mit {@code *}) wird wie bisher ohne Prüfung gespeichert; eine parallele
+     * Änderung führt dann zu 409 (Conflict).
      *
      * @param id      Die ID des zu aktualisierenden Pokémon
      * @param request Die neuen Eigenschaften (siehe {@link UpdateOwnedDTO})
-     * @return Das aktualisierte Pokémon als {@link OwnedPokemonDTO}
+     * @param ifMatch Optionaler ETag des zuletzt geladenen Stands
+     * @return Das aktualisierte Pokémon als {@link OwnedPokemonDTO} inkl. neuem ETag
      */
     @Operation(summary = "Aktualisiert ein gefangenes Pokémon",
-            description = "Bearbeitet alle Eigenschaften eines gefangenen Pokémon")
+            description = "Bearbeitet alle Eigenschaften eines gefangenen Pokémon, optional abgesichert per If-Match")
     @ApiResponse(responseCode = "200", description = "Pokémon wurde aktualisiert")
     @ApiResponse(responseCode = "400", description = "Aktualisierung fehlgeschlagen", content = @Content)
     @ApiResponse(responseCode = "404", description = "Pokémon nicht gefunden", content = @Content)
+    @ApiResponse(responseCode = "409", description = "Parallele Änderung (ohne If-Match)", content = @Content)
+    @ApiResponse(responseCode = "412", description = "Pokémon wurde zwischenzeitlich geändert", content = @Content)
     @PatchMapping("/{id}")
-    public ResponseEntity<OwnedPokemonDTO> updatePokemon(@PathVariable Long id, @RequestBody @Valid UpdateOwnedDTO request) {
-        var updated = ownedService.updatePokemon(id, request);
-        return ResponseEntity.ok(OwnedPokemonDTO.from(updated));
+    public ResponseEntity<OwnedPokemonDTO> updatePokemon(@PathVariable Long id,
+                                                         @RequestBody @Valid UpdateOwnedDTO request,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Set<Long> expectedVersions = parseIfMatch(ifMatch);
+        OwnedPokemonDTO updated;
+        try {
+            updated = OwnedPokemonDTO.from(ownedService.updatePokemon(id, request, expectedVersions));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            if (expectedVersions == null) {
+                throw e;
+            }
+            // Die Vorbedingung galt beim Laden, eine parallele Transaktion war aber schneller
+            throw new PreconditionFailedException("Das Pokemon wurde zwischenzeitlich geändert, bitte neu laden");
+        }
+        return ResponseEntity.ok().eTag(etag(updated)).body(updated);
     }
 
     /**
@@ -146,4 +346,41 @@ public class OwnedPokemonController {
         ownedService.deletePokemonById(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Bildet den ETag eines Pokémon aus seiner Version.
+     */
+    private static String etag(OwnedPokemonDTO pokemon) {
+        return "\"" + pokemon.getVersion() + "\"";
+    }
+
+    /**
+     * Liest die erwarteten Versionen aus dem {@code If-Match}-Header (null, wenn keine Prüfung gewünscht ist).
+     * <p>
+     * Der Header ist eine Komma-Liste von ETags. {@code If-Match} verlangt den starken Vergleich: Schwache ETags
+     * ({@code W/...}) und ETags, die keine Version dieses Endpunkts sind, können nie passen und werden übersprungen.
+     * Bleibt keine Version übrig, ist die Menge leer und die Aktualisierung scheitert mit 412.
+     * </p>
+     */
+    private static Set<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (String entry : ifMatch.split(",")) {
+            String tag = entry.trim();
+            if (tag.equals("*")) {
+                return null;
+            }
+            if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+                continue;
+            }
+            try {
+                versions.add(Long.parseLong(tag.substring(1, tag.length() - 1)));
+            } catch (NumberFormatException e) {
+                // Kein ETag dieses Endpunkts, kann nie passen
+            }
+        }
+        return versions;
+    }
 }
@@ -1,7 +1,12 @@
 package pokedex.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -9,7 +14,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import pokedex.model.PokemonSpecies;
 import pokedex.service.PokemonSpeciesService;
+import pokedex.service.ReferenceDataCache;
+import pokedex.service.ReferenceDataCache.ReferenceData;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -30,26 +38,35 @@ public class PokemonSpeciesController {
     /** Service für alle Arten-bezogenen Operationen. */
     private final PokemonSpeciesService speciesService;
 
+    /** Cache der vorab serialisierten Antworten. */
+    private final ReferenceDataCache referenceDataCache;
+
     /**
      * Konstruktor für Dependency Injection.
-     * @param speciesService Service zum Laden und Suchen von Pokémon-Arten
+     * @param speciesService     Service zum Laden und Suchen von Pokémon-Arten
+     * @param referenceDataCache Cache der vorab serialisierten Referenzdaten
      */
-    public PokemonSpeciesController(PokemonSpeciesService speciesService) {
+    public PokemonSpeciesController(PokemonSpeciesService speciesService, ReferenceDataCache referenceDataCache) {
         this.speciesService = speciesService;
+        this.referenceDataCache = referenceDataCache;
     }
 
     /**
      * Gibt die vollständige Liste aller Pokémon-Arten (Species) zurück.
      * <p>
      * Wird z. B. zum initialen Laden des Pokédex im Frontend verwendet.
+     * Die Antwort wird vorab serialisiert aus dem {@link ReferenceDataCache} geliefert (inkl. ETag).
      *
-     * @return Liste aller Pokémon-Arten als {@link PokemonSpecies}
+     * @param request  Aktuelle Anfrage (für {@code If-None-Match} und {@code Accept-Encoding})
+     * @param response Antwort mit Liste aller Pokémon-Arten als {@link PokemonSpecies}; 304, falls unverändert
      */
     @Operation(summary = "Gibt eine Liste aller 151 Pokémon zurück", description = "Wird für die UI des Pokédex gebraucht")
-    @ApiResponse(responseCode = "200", description = "Liste erfolgreich geladen")
+    @ApiResponse(responseCode = "200", description = "Liste erfolgreich geladen",
+            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = PokemonSpecies.class))))
+    @ApiResponse(responseCode = "304", description = "Unverändert (If-None-Match)", content = @Content)
     @GetMapping
-    public List<PokemonSpecies> getAllSpecies() {
-        return speciesService.getAllSpecies();
+    public void getAllSpecies(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        referenceDataCache.write(ReferenceData.SPECIES, request, response);
     }
 
     /**
@@ -0,0 +1,80 @@
+package pokedex.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import pokedex.model.BoxName;
+import pokedex.model.Edition;
+
+import java.util.List;
+
+/**
+ * Daten-Transfer-Objekt (DTO) für das Verschieben mehrerer Pokémon in einem einzigen Aufruf.
+ * <p>
+ * Wird für die Mehrfachauswahl im Frontend genutzt, z.B. beim Umsortieren einer ganzen Box.
+ * Jede Verschiebung gibt nur das Pokémon und das Ziel an, die Quell-Box ergibt sich aus dem aktuellen Datenbestand.
+ * </p>
+ *
+ * <b>Modi:</b>
+ * <ul>
+ *   <li><b>atomic = true</b> (Standard): Entweder alle Verschiebungen werden ausgeführt oder keine.
+ *   Der erste Fehler bricht die gesamte Anfrage mit dem passenden Fehlercode ab.</li>
+ *   <li><b>atomic = false</b>: Gültige Verschiebungen werden ausgeführt, fehlgeschlagene im Ergebnis gemeldet.</li>
+ * </ul>
+ *
+ * <b>Beispiel:</b>
+ * <pre>
+ * POST /api/boxes/move-batch
+ * {
+ *   "atomic": false,
+ *   "moves": [
+ *     { "pokemonId": 12, "targetBox": "BOX2", "targetEdition": "ROT" },
+ *     { "pokemonId": 15, "targetBox": "TEAM", "targetEdition": "ROT" }
+ *   ]
+ * }
+ * </pre>
+ *
+ * @author grubi
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchMoveDTO {
+
+    /** Maximale Anzahl Verschiebungen pro Anfrage (alle Boxen einer Edition). */
+    public static final int MAX_MOVES = 260;
+
+    /** Die auszuführenden Verschiebungen, in der Reihenfolge ihrer Ausführung. */
+    @Valid
+    @NotEmpty(message = "Es muss mindestens eine Verschiebung angegeben werden")
+    @Size(max = MAX_MOVES, message = "Es dürfen maximal " + MAX_MOVES + " Pokémon auf einmal verschoben werden")
+    private List<Move> moves;
+
+    /** Gibt an, ob alle Verschiebungen gemeinsam ausgeführt werden müssen (Standard: true). */
+    private boolean atomic = true;
+
+    /**
+     * Eine einzelne Verschiebung innerhalb der Sammelanfrage.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Move {
+
+        /** ID des zu verschiebenden Pokémon. */
+        @NotNull(message = "Die Pokemon ID darf nicht NULL sein")
+        private Long pokemonId;
+
+        /** Name der Ziel-Box. */
+        @NotNull(message = "Eine Ziel Box muss angegeben werden")
+        private BoxName targetBox;
+
+        /** Edition der Ziel-Box. */
+        @NotNull(message = "Eine Ziel Edition muss angegeben werden")
+        private Edition targetEdition;
+    }
+}
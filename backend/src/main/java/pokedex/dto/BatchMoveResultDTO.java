@@ -0,0 +1,54 @@
+package pokedex.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Daten-Transfer-Objekt (DTO) für das Ergebnis einer Sammel-Verschiebung.
+ * <p>
+ * Enthält zu jeder angefragten Verschiebung (in Anfragereihenfolge) ein eigenes Ergebnis.
+ * Im atomaren Modus sind bei Erfolg alle Einträge erfolgreich, da ein Fehler die gesamte Anfrage abbricht.
+ * </p>
+ *
+ * <b>Beispiel:</b>
+ * <pre>
+ * {
+ *   "moved": 1,
+ *   "results": [
+ *     { "pokemonId": 12, "moved": true,  "message": null },
+ *     { "pokemonId": 15, "moved": false, "message": "Die Ziel Box TEAM ist schon voll" }
+ *   ]
+ * }
+ * </pre>
+ *
+ * @author grubi
+ */
+@Getter
+@AllArgsConstructor
+public class BatchMoveResultDTO {
+
+    /** Anzahl erfolgreich verschobener Pokémon. */
+    private final int moved;
+
+    /** Ergebnis je Verschiebung, in der Reihenfolge der Anfrage. */
+    private final List<ItemResult> results;
+
+    /**
+     * Ergebnis einer einzelnen Verschiebung.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class ItemResult {
+
+        /** ID des betroffenen Pokémon. */
+        private final Long pokemonId;
+
+        /** true, wenn das Pokémon verschoben wurde. */
+        private final boolean moved;
+
+        /** Fehlermeldung, falls die Verschiebung nicht ausgeführt wurde, sonst null. */
+        private final String message;
+    }
+}
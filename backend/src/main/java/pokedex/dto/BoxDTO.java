@@ -4,10 +4,8 @@ import lombok.Getter;
 import lombok.Setter;
 import pokedex.model.Box;
 import pokedex.model.BoxName;
-import pokedex.model.OwnedPokemon;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Daten-Transfer-Objekt (DTO) zur Repräsentation einer Box mit allen enthaltenen Pokémon für die API.
@@ -38,25 +36,22 @@ public class BoxDTO {
     private List<OwnedPokemonDTO> pokemons;
 
     /**
-     * Erstellt ein neues {@link BoxDTO} aus einer {@link Box}-Entität.
+     * Erstellt ein neues {@link BoxDTO} aus einer {@link Box}-Entität und der bereits projizierten Pokémon-Liste.
      * <p>
-     * Alle enthaltenen {@link OwnedPokemon} werden zu {@link OwnedPokemonDTO} gemappt.
-     * Die wichtigsten Eigenschaften (Name, Kapazität, Pokémon-Liste) werden übernommen.
+     * Die (lazy) Pokémon-Liste der Box wird nicht angefasst. Sie würde außerhalb einer Session eine
+     * {@code LazyInitializationException} auslösen bzw. je Box und Art weitere Abfragen absetzen. Der Inhalt kommt
+     * stattdessen aus einer einzigen Abfrage (siehe {@code OwnedPokemonRepository#findDTOsByBox}).
      * </p>
      *
-     * @param box Die zu konvertierende Box-Entität
+     * @param box      Die Box-Entität (Name und Kapazität)
+     * @param pokemons Die enthaltenen Pokémon als DTO
      * @return Eine für das Frontend geeignete DTO-Repräsentation der Box
      */
-    public static BoxDTO from(Box box) {
+    public static BoxDTO of(Box box, List<OwnedPokemonDTO> pokemons) {
         BoxDTO dto = new BoxDTO();
         dto.setName(box.getName());
         dto.setCapacity(box.getCapacity());
-        dto.setPokemons(
-                box.getPokemons()
-                        .stream()
-                        .map(OwnedPokemonDTO::from)
-                        .collect(Collectors.toList())
-        );
+        dto.setPokemons(pokemons);
         return dto;
     }
 }
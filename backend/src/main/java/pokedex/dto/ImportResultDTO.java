@@ -0,0 +1,22 @@
+package pokedex.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Daten-Transfer-Objekt (DTO) für das Ergebnis eines Sammel-Imports gefangener Pokémon.
+ *
+ * <b>Beispiel:</b>
+ * <pre>
+ * { "imported": 2381 }
+ * </pre>
+ *
+ * @author grubi
+ */
+@Getter
+@AllArgsConstructor
+public class ImportResultDTO {
+
+    /** Anzahl der importierten Pokémon. */
+    private final int imported;
+}
@@ -0,0 +1,107 @@
+package pokedex.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import pokedex.model.BoxName;
+import pokedex.model.Edition;
+
+/**
+ * Daten-Transfer-Objekt (DTO) für eine Änderung an der eigenen Sammlung, die per Server-Sent Events
+ * ({@code /api/pokemon/events}) an alle verbundenen Clients verteilt wird.
+ * <p>
+ * Wird von {@link pokedex.service.OwnedPokemonService}, {@link pokedex.service.BoxService} und
+ * {@link pokedex.service.OwnedPokemonImportService} als Anwendungsereignis veröffentlicht und erst nach
+ * erfolgreichem Commit verschickt. Clients wenden die Änderung lokal an, statt Listen neu zu laden.
+ * </p>
+ *
+ * <b>Beispiel (Event {@code moved}):</b>
+ * <pre>
+ * { "type": "MOVED", "pokemonId": 42, "pokemon": { ... }, "fromBox": "BOX1", "fromEdition": "ROT" }
+ * </pre>
+ *
+ * <b>Felder je Typ:</b>
+ * <ul>
+ *   <li>{@code CREATED}, {@code UPDATED}: {@code pokemon} mit dem neuen Stand</li>
+ *   <li>{@code MOVED}: {@code pokemon} mit dem neuen Stand, {@code fromBox}/{@code fromEdition} mit der Quelle</li>
+ *   <li>{@code DELETED}: {@code fromBox}/{@code fromEdition}, in der das Pokémon lag</li>
+ *   <li>{@code IMPORTED}: keine Details, Clients laden ihre Listen einmalig neu</li>
+ * </ul>
+ *
+ * @author grubi
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OwnedPokemonChangeDTO {
+
+    /**
+     * Art der Änderung.
+     */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        MOVED,
+        DELETED,
+        IMPORTED
+    }
+
+    /** Art der Änderung. */
+    private final Type type;
+
+    /** ID des geänderten Pokémon (null bei {@link Type#IMPORTED}). */
+    private final Long pokemonId;
+
+    /** Neuer Stand des Pokémon (null bei {@link Type#DELETED} und {@link Type#IMPORTED}). */
+    private final OwnedPokemonDTO pokemon;
+
+    /** Bisherige Box (bei {@link Type#MOVED} und {@link Type#DELETED}). */
+    private final BoxName fromBox;
+
+    /** Bisherige Edition (bei {@link Type#MOVED} und {@link Type#DELETED}). */
+    private final Edition fromEdition;
+
+    /**
+     * @param pokemon Neu angelegtes Pokémon
+     * @return Änderung vom Typ {@link Type#CREATED}
+     */
+    public static OwnedPokemonChangeDTO created(OwnedPokemonDTO pokemon) {
+        return new OwnedPokemonChangeDTO(Type.CREATED, (long) pokemon.getId(), pokemon, null, null);
+    }
+
+    /**
+     * @param pokemon Aktualisiertes Pokémon
+     * @return Änderung vom Typ {@link Type#UPDATED}
+     */
+    public static OwnedPokemonChangeDTO updated(OwnedPokemonDTO pokemon) {
+        return new OwnedPokemonChangeDTO(Type.UPDATED, (long) pokemon.getId(), pokemon, null, null);
+    }
+
+    /**
+     * @param pokemon     Verschobenes Pokémon (neuer Stand)
+     * @param fromBox     Quell-Box
+     * @param fromEdition Quell-Edition
+     * @return Änderung vom Typ {@link Type#MOVED}
+     */
+    public static OwnedPokemonChangeDTO moved(OwnedPokemonDTO pokemon, BoxName fromBox, Edition fromEdition) {
+        return new OwnedPokemonChangeDTO(Type.MOVED, (long) pokemon.getId(), pokemon, fromBox, fromEdition);
+    }
+
+    /**
+     * @param pokemonId   ID des gelöschten Pokémon
+     * @param fromBox     Box, in der das Pokémon lag
+     * @param fromEdition Edition, in der das Pokémon lag
+     * @return Änderung vom Typ {@link Type#DELETED}
+     */
+    public static OwnedPokemonChangeDTO deleted(Long pokemonId, BoxName fromBox, Edition fromEdition) {
+        return new OwnedPokemonChangeDTO(Type.DELETED, pokemonId, null, fromBox, fromEdition);
+    }
+
+    /** @return Änderung vom Typ {@link Type#IMPORTED} */
+    public static OwnedPokemonChangeDTO imported() {
+        return new OwnedPokemonChangeDTO(Type.IMPORTED, null, null, null, null);
+    }
+}
@@ -0,0 +1,36 @@
+package pokedex.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Daten-Transfer-Objekt (DTO) für einen Delta-Abgleich der eigenen Sammlung.
+ * <p>
+ * Enthält alle seit der angefragten Version angelegten bzw. geänderten Pokémon (neuer Stand) und die IDs
+ * aller seitdem gelöschten Pokémon. Der Wert von {@link #version} wird beim nächsten Abgleich als
+ * <code>since</code>-Parameter übergeben.
+ * </p>
+ *
+ * <b>Beispiel:</b>
+ * <pre>
+ * GET /api/pokemon/changes?since=0    → { "version": 512, "changed": [...alle...], "deleted": [] }
+ * GET /api/pokemon/changes?since=512  → { "version": 515, "changed": [...], "deleted": [17] }
+ * </pre>
+ *
+ * @author grubi
+ */
+@Getter
+@AllArgsConstructor
+public class OwnedPokemonChangesDTO {
+
+    /** Stand, bis zu dem alle Änderungen enthalten sind. */
+    private final long version;
+
+    /** Geänderte bzw. neue Pokémon, aufsteigend nach Änderungsversion. */
+    private final List<OwnedPokemonDTO> changed;
+
+    /** IDs der gelöschten Pokémon. */
+    private final List<Long> deleted;
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 import pokedex.model.BoxName;
 import pokedex.model.Edition;
 import pokedex.model.OwnedPokemon;
+import pokedex.model.PokemonType;
 
 /**
  * Daten-Transfer-Objekt (DTO) zur Übertragung und Anzeige eines eigenen (gefangenen) Pokémon im Frontend.
@@ -23,6 +24,7 @@ import pokedex.model.OwnedPokemon;
  * <ul>
  *     <li>Als Antwort-Objekt bei Abfragen aller gefangenen Pokémon ("/api/pokemon")</li>
  *     <li>Zur Anzeige der wichtigsten Eigenschaften in UI-Komponenten (z. B. Karten, Listen, Overlay-Details)</li>
+ *     <li>Als flaches Lesemodell, das per JPQL-Konstruktorausdruck direkt aus der Datenbank befüllt wird</li>
  * </ul>
  *
  * @author grubi
@@ -46,6 +48,9 @@ public class OwnedPokemonDTO {
     /** Box, in der sich das Pokémon aktuell befindet. */
     private BoxName boxName;
 
+    /** Platz innerhalb der Box (0 bis Kapazität - 1). */
+    private int slot;
+
     /** Pokédex-ID (Species) dieses Pokémon (z.B. 25 für Pikachu). */
     private int pokedexId;
 
@@ -58,9 +63,46 @@ public class OwnedPokemonDTO {
     /** Sekundärer Typ (kann null sein, z. B. bei Mono-Typen). */
     private String type2;
 
+    /** Version des Pokémon (Wert des ETags, per <code>If-Match</code> beim Bearbeiten mitzuschicken). */
+    private long version;
+
     /** Privater Standard-Konstruktor, damit nur statische Factory verwendet wird. */
     private OwnedPokemonDTO() {}
 
+    /**
+     * Konstruktor für JPQL-Konstruktorausdrücke (<code>select new pokedex.dto.OwnedPokemonDTO(...)</code>).
+     * <p>
+     * Damit werden Lesezugriffe direkt in das DTO projiziert, ohne verwaltete Entitäten zu erzeugen
+     * (kein Persistence-Context, kein Dirty-Checking).
+     * </p>
+     *
+     * @param id          ID des gefangenen Pokémon
+     * @param nickname    Optionaler Nickname
+     * @param level       Level
+     * @param edition     Edition
+     * @param boxName     Name der Box
+     * @param slot        Platz in der Box
+     * @param pokedexId   Pokédex-ID der Art
+     * @param speciesName Name der Art
+     * @param type1       Primärer Typ
+     * @param type2       Sekundärer Typ (kann null sein)
+     * @param version     Version für optimistisches Sperren
+     */
+    public OwnedPokemonDTO(Long id, String nickname, int level, Edition edition, BoxName boxName, int slot,
+                           int pokedexId, String speciesName, PokemonType type1, PokemonType type2, long version) {
+        this.id = id.intValue();
+        this.nickname = nickname;
+        this.level = level;
+        this.edition = edition;
+        this.boxName = boxName;
+        this.slot = slot;
+        this.pokedexId = pokedexId;
+        this.speciesName = speciesName;
+        this.type1 = type1.getDisplayName();
+        this.type2 = type2 != null ? type2.getDisplayName() : null;
+        this.version = version;
+    }
+
     /**
      * Erzeugt ein {@link OwnedPokemonDTO} aus einem {@link OwnedPokemon}-Objekt.
      * <p>
@@ -77,6 +119,7 @@ public class OwnedPokemonDTO {
         dto.setLevel(pokemon.getLevel());
         dto.setEdition(pokemon.getEdition());
         dto.setBoxName(pokemon.getBox().getName());
+        dto.setSlot(pokemon.getSlot());
         dto.setPokedexId(pokemon.getSpecies().getPokedexId());
         dto.setSpeciesName(pokemon.getSpecies().getName());
         dto.setType1(pokemon.getSpecies().getType1().getDisplayName());
@@ -85,6 +128,7 @@ public class OwnedPokemonDTO {
                         ? pokemon.getSpecies().getType2().getDisplayName()
                         : null
         );
+        dto.setVersion(pokemon.getVersion());
         return dto;
     }
 }
@@ -0,0 +1,33 @@
+package pokedex.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Daten-Transfer-Objekt (DTO) für eine Seite gefangener Pokémon bei Keyset-Paginierung.
+ * <p>
+ * Die Seiten werden über die ID fortgesetzt: Der Wert von {@link #nextCursor} wird beim nächsten Aufruf
+ * als <code>after</code>-Parameter übergeben. Dadurch bleibt jede Abfrage gleich teuer,
+ * unabhängig davon, wie weit bereits geblättert wurde.
+ * </p>
+ *
+ * <b>Beispiel:</b>
+ * <pre>
+ * GET /api/pokemon/page?limit=100            → { "items": [...], "nextCursor": 118 }
+ * GET /api/pokemon/page?limit=100&amp;after=118  → { "items": [...], "nextCursor": null }
+ * </pre>
+ *
+ * @author grubi
+ */
+@Getter
+@AllArgsConstructor
+public class OwnedPokemonPageDTO {
+
+    /** Die Pokémon dieser Seite, aufsteigend sortiert nach ID. */
+    private final List<OwnedPokemonDTO> items;
+
+    /** ID des letzten Eintrags dieser Seite oder null, wenn keine weiteren Einträge folgen. */
+    private final Long nextCursor;
+}
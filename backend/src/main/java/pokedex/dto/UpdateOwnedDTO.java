@@ -51,6 +51,7 @@ public class UpdateOwnedDTO {
      * Kann null bleiben, wenn keine Entwicklung erfolgt.
      */
 //    @NotNull(message = "Muss eine Pokedex ID haben")
+    @Min(value = 1, message = "Die Pokedex ID muss mindestens 1 sein")
     private Integer pokedexId;
 
     /**
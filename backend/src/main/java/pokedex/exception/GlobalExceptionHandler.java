@@ -1,11 +1,15 @@
 package pokedex.exception;
 
 import io.micrometer.common.lang.NonNull;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -32,6 +36,7 @@ import java.util.Map;
  *   <li>Gibt zu jedem Fehler einen Zeitstempel und die genaue Fehlermeldung zurück.</li>
  *   <li>Unterteilt die Fehler nach sinnvollen HTTP-Statuscodes (400, 404, 409, 500 ...).</li>
  *   <li>Hilfsmethode <code>errorResponse</code> erzeugt das JSON-Objekt für die Antwort.</li>
+ *   <li>Zählt jeden Fehler in der Metrik {@code pokedex.exceptions} (Tags {@code exception}, {@code status}).</li>
  * </ul>
  *
  * <b>Typische Fehlerarten:</b>
@@ -40,6 +45,7 @@ import java.util.Map;
  *   <li>Constraint-Verletzungen (z.B. URL-Parameter)</li>
  *   <li>Box voll, Entwicklung unzulässig, Zustand ungültig etc.</li>
  *   <li>Objekte nicht gefunden (404)</li>
+ *   <li>Veralteter ETag bei {@code If-Match} (412), gleichzeitige Bearbeitung ohne Vorbedingung (409)</li>
  *   <li>Allgemeiner, unerwarteter Fehler (500)</li>
  * </ul>
  *
@@ -56,6 +62,17 @@ import java.util.Map;
 @ControllerAdvice
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
+    /** Registry für den Fehlerzähler {@code pokedex.exceptions}. */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Konstruktor für Dependency Injection.
+     * @param meterRegistry Registry für Metriken (fehlt z.B. in {@code @WebMvcTest}-Tests; dann wird lokal gezählt)
+     */
+    public GlobalExceptionHandler(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+    }
+
     /**
      * Behandelt Validierungsfehler bei DTOs (z.B. aus {@code @Valid}).
      * Gibt alle betroffenen Felder und deren Fehlermeldung als Map zurück.
@@ -80,9 +97,32 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             errors.put(field, message);
         });
 
+        countException(ex, HttpStatus.BAD_REQUEST);
         return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Zählt alle übrigen von Spring MVC selbst behandelten Fehler (z.B. unlesbarer Request-Body, falsche Methode).
+     *
+     * @param ex         Die geworfene Exception
+     * @param body       Antwort-Body
+     * @param headers    HTTP-Header
+     * @param statusCode HTTP-Statuscode
+     * @param request    WebRequest-Objekt
+     * @return Die unveränderte Antwort der Basisklasse
+     */
+    @Override
+    protected ResponseEntity<Object> handleExceptionInternal(
+            @NonNull Exception ex,
+            Object body,
+            @NonNull HttpHeaders headers,
+            @NonNull HttpStatusCode statusCode,
+            @NonNull WebRequest request) {
+
+        countException(ex, statusCode);
+        return super.handleExceptionInternal(ex, body, headers, statusCode, request);
+    }
+
     /**
      * Fängt {@link ConstraintViolationException}s ab (z.B. fehlerhafte Parameter in der URL).
      * @param ex Die geworfene Exception
@@ -90,7 +130,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
      */
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<Object> handleConstraintViolation(ConstraintViolationException ex) {
-        return errorResponse("Ungültige Eingabe: " + ex.getMessage(), HttpStatus.BAD_REQUEST);
+        return errorResponse(ex, "Ungültige Eingabe: " + ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
     /**
@@ -100,7 +140,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
      */
     @ExceptionHandler(BoxFullException.class)
     public ResponseEntity<Object> handleBoxFull(BoxFullException ex) {
-        return errorResponse(ex.getMessage(), HttpStatus.CONFLICT);
+        return errorResponse(ex, ex.getMessage(), HttpStatus.CONFLICT);
     }
 
     /**
@@ -110,7 +150,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
      */
     @ExceptionHandler(value = NotFoundException.class)
     public ResponseEntity<Object> handleNotFound(NotFoundException ex) {
-        return errorResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
+        return errorResponse(ex, ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
     /**
@@ -120,7 +160,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
      */
     @ExceptionHandler(InvalidUpdateException.class)
     public ResponseEntity<Object> handleInvalidUpdate(InvalidUpdateException ex) {
-        return errorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+        return errorResponse(ex, ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
     /**
@@ -130,7 +170,32 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
      */
     @ExceptionHandler(SameBoxException.class)
     public ResponseEntity<Object> handleSameBox(SameBoxException ex) {
-        return errorResponse(ex.getMessage(), HttpStatus.CONFLICT);
+        return errorResponse(ex, ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Behandelt Änderungen auf Basis eines veralteten Stands (ETag aus {@code If-Match} passt nicht).
+     * @param ex Die geworfene Exception
+     * @return Fehlerantwort mit Status 412 (Precondition Failed)
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Object> handlePreconditionFailed(PreconditionFailedException ex) {
+        return errorResponse(ex, ex.getMessage(), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Behandelt Konflikte beim optimistischen Sperren: Eine parallele Transaktion hat dasselbe Pokémon
+     * zwischen Laden und Speichern geändert.
+     * <p>
+     * Der Client hat hier keine Vorbedingung ({@code If-Match}) gesendet, daher 409 statt 412. Mit
+     * {@code If-Match} übersetzt der Controller den Konflikt in eine {@link PreconditionFailedException}.
+     * </p>
+     * @param ex Die geworfene Exception
+     * @return Fehlerantwort mit Status 409 (Conflict)
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+        return errorResponse(ex, "Das Pokemon wurde zwischenzeitlich geändert, bitte erneut versuchen", HttpStatus.CONFLICT);
     }
 
     /**
@@ -140,7 +205,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
      */
     @ExceptionHandler(IllegalStateException.class)
     public ResponseEntity<Object> handleIllegalState(IllegalStateException ex) {
-        return errorResponse(ex.getMessage(), HttpStatus.CONFLICT);
+        return errorResponse(ex, ex.getMessage(), HttpStatus.CONFLICT);
     }
 
     /**
@@ -150,22 +215,36 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
      */
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Object> handleUnhandled(RuntimeException ex) {
-        return errorResponse("Ein unerwarteter Fehler ist aufgetreten: " + ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        return errorResponse(ex, "Ein unerwarteter Fehler ist aufgetreten: " + ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
     /**
      * Hilfsmethode zur Erzeugung der Fehlerantwort mit Zeitstempel und Meldung.
+     * Der Fehler wird dabei in der Metrik {@code pokedex.exceptions} gezählt.
+     * @param ex      Die behandelte Exception
      * @param message Fehlerbeschreibung
      * @param status HTTP-Statuscode
      * @return ResponseEntity mit Map (timestamp, message)
      */
-    private ResponseEntity<Object> errorResponse(String message, HttpStatus status) {
+    private ResponseEntity<Object> errorResponse(Exception ex, String message, HttpStatus status) {
+        countException(ex, status);
         Map<String, Object> body = new HashMap<>();
         body.put("timestamp", LocalDateTime.now());
         body.put("message", message);
         return new ResponseEntity<>(body, status);
     }
 
+    /**
+     * Zählt einen beantworteten Fehler nach Exception-Typ und Statuscode.
+     * @param ex     Die behandelte Exception
+     * @param status HTTP-Statuscode der Antwort
+     */
+    private void countException(Exception ex, HttpStatusCode status) {
+        meterRegistry.counter("pokedex.exceptions",
+                "exception", ex.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
+    }
+
     /**
      * Behandelt ungültige Entwicklungen (z.B. nicht erlaubte Entwicklung).
      * @param ex Die geworfene Exception
@@ -173,7 +252,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
      */
     @ExceptionHandler(InvalidEvolutionException.class)
     public ResponseEntity<Object> handleInvalidEvolution(InvalidEvolutionException ex) {
-        return errorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+        return errorResponse(ex, ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
     /**
@@ -183,6 +262,6 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
      */
     @ExceptionHandler(InitializationException.class)
     public ResponseEntity<Object> handleInitialization(InitializationException ex) {
-        return errorResponse("Fehler bei der Initialisierung: " + ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        return errorResponse(ex, "Fehler bei der Initialisierung: " + ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 }
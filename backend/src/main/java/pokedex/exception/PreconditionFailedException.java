@@ -0,0 +1,25 @@
+package pokedex.exception;
+
+/**
+ * Exception, die geworfen wird, wenn ein Pokémon bearbeitet werden soll, das sich seit dem Laden geändert hat.
+ * <p>
+ * Clients schicken beim Bearbeiten den zuletzt erhaltenen ETag per {@code If-Match} mit. Passt er nicht mehr
+ * zur aktuellen Version (z.B. weil das Pokémon parallel in einem anderen Fenster bearbeitet wurde),
+ * wird die Änderung abgelehnt, statt die andere stillschweigend zu überschreiben.
+ * </p>
+ *
+ * Die Exception wird vom {@link pokedex.exception.GlobalExceptionHandler} abgefangen
+ * und mit HTTP 412 (Precondition Failed) beantwortet.
+ *
+ * @author grubi
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    /**
+     * Erstellt eine neue PreconditionFailedException mit individueller Fehlermeldung.
+     * @param message Beschreibung des Fehlers
+     */
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
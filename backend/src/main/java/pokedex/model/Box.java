@@ -21,6 +21,7 @@ import java.util.Collections;
  *   <li>Persistente Speicherung in Tabelle "box" mit eindeutiger Kombination aus Name und Edition</li>
  *   <li>Verwaltet eine Liste aller enthaltenen Pokémon (Eintrag in {@link OwnedPokemon})</li>
  *   <li>Kapselt die Kapazitätslogik über die Methode {@link #getCapacity()}</li>
+ *   <li>Führt die aktuelle Belegung als denormalisierten Zähler ({@link #getOccupancy()})</li>
  * </ul>
  *
  * <b>Typische Verwendung:</b>
@@ -54,6 +55,16 @@ public class Box {
     @Column(nullable = false, updatable = false)
     private Edition edition;
 
+    /**
+     * Anzahl der Pokémon, die aktuell in dieser Box liegen (denormalisierter Zähler).
+     * <p>
+     * Wird in derselben Transaktion wie das Hinzufügen, Verschieben und Löschen von Pokémon
+     * per Update-Query angepasst und regelmäßig gegen die tatsächliche Anzahl abgeglichen.
+     * </p>
+     */
+    @Column(nullable = false)
+    private int occupancy;
+
     /** Liste aller Pokémon, die aktuell in dieser Box gespeichert sind. */
     @OneToMany(mappedBy = "box", cascade = CascadeType.ALL, orphanRemoval = true)
     @com.fasterxml.jackson.annotation.JsonIgnore
@@ -73,6 +84,8 @@ public class Box {
      * Gibt die Liste aller enthaltenen Pokémon als unveränderliche Liste zurück.
      * <p>
      * So wird sichergestellt, dass von außen keine Modifikationen an der Liste durchgeführt werden können.
+     * Die Liste wird lazy geladen und ist außerhalb einer Transaktion nicht verfügbar (kein Open-Session-in-View).
+     * Für die Anzeige einer Box {@code BoxService#getBoxContents} verwenden.
      * </p>
      * @return Unveränderliche Liste der enthaltenen Pokémon
      */
@@ -0,0 +1,40 @@
+package pokedex.model;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import pokedex.service.ChangeVersionClock;
+
+/**
+ * JPA-Entity-Listener, der jedem neuen bzw. geänderten {@link OwnedPokemon} die nächste Änderungsversion zuweist.
+ * <p>
+ * Damit erhält jede Änderung (Anlegen, Bearbeiten, Verschieben, Import) ohne weiteren Code in den Services
+ * eine Version, über die Clients per Delta-Sync nur die seit ihrem letzten Abgleich geänderten Pokémon laden.
+ * Hibernate erzeugt den Listener über den Spring-Container, die {@link ChangeVersionClock} wird daher injiziert.
+ * </p>
+ *
+ * @author grubi
+ */
+public class ChangeVersionListener {
+
+    /** Vergibt die Versionen. */
+    private final ChangeVersionClock clock;
+
+    /**
+     * Konstruktor für Dependency Injection.
+     * @param clock Vergibt die Änderungsversionen
+     */
+    public ChangeVersionListener(ChangeVersionClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Setzt vor dem Insert bzw. Update die nächste Version.
+     *
+     * @param pokemon Das zu speichernde Pokémon
+     */
+    @PrePersist
+    @PreUpdate
+    public void assignVersion(OwnedPokemon pokemon) {
+        pokemon.setChangeVersion(clock.next());
+    }
+}
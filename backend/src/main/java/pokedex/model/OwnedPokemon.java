@@ -6,7 +6,11 @@ import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.util.Objects;
 
@@ -22,8 +26,16 @@ import java.util.Objects;
  *   <li><b>level:</b> Aktuelles Level des Pokémon (zwischen 1 und 100, Pflichtfeld)</li>
  *   <li><b>box:</b> Zugehörige Box, in der das Pokémon gespeichert ist, Pflichtfeld</li>
  *   <li><b>edition:</b> Zugehörige Edition (z.B. Rot/Blau/Gelb/Grün), Pflichtfeld</li>
+ *   <li><b>slot:</b> Platz innerhalb der Box (0 bis Kapazität - 1), je Box eindeutig</li>
+ *   <li><b>version:</b> Version für optimistisches Sperren (wird bei jedem Update erhöht)</li>
+ *   <li><b>changeVersion:</b> Version der letzten Änderung für den Delta-Sync (siehe {@link ChangeVersionListener})</li>
  * </ul>
  * Die Klasse bietet Standardimplementierungen für equals/hashCode (nur auf Basis der ID!).
+ * {@code toString()} gibt nur die eigenen Spalten aus, nicht Art und Box, damit Log-Ausgaben keine
+ * verknüpften Entitäten laden oder formatieren.
+ * Indizes bestehen für den Editionsfilter ({@code edition, box_id}) und die Art ({@code species_id}); bestehende
+ * Datenbanken erhalten sie per Migration {@code V5}. Zugriffe über die Box nutzen den Unique-Constraint
+ * {@code (box_id, slot)}.
  * </p>
  *
  * <b>Typische Verwendung:</b>
@@ -38,17 +50,32 @@ import java.util.Objects;
 @Data
 @NoArgsConstructor
 @Entity
+@EntityListeners(ChangeVersionListener.class)
+@Table(name = "owned_pokemon",
+        indexes = {
+                @Index(name = "idx_owned_pokemon_change_version", columnList = "change_version"),
+                @Index(name = "idx_owned_pokemon_edition_box", columnList = "edition, box_id"),
+                @Index(name = "idx_owned_pokemon_species", columnList = "species_id")
+        },
+        uniqueConstraints = @UniqueConstraint(name = "uk_owned_pokemon_box_slot", columnNames = {"box_id", "slot"}))
 public class OwnedPokemon {
 
-    /** Eindeutige Datenbank-ID des gefangenen Pokémon. */
+    /**
+     * Eindeutige Datenbank-ID des gefangenen Pokémon.
+     * Wird blockweise aus der Sequenz {@code owned_pokemon_seq} vergeben ({@link PooledSequenceGenerator}),
+     * damit Hibernate Inserts bündeln kann.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "owned_pokemon_seq")
+    @GenericGenerator(name = "owned_pokemon_seq", type = PooledSequenceGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "owned_pokemon_seq"))
     private Long id;
 
     /** Zugehörige Pokémon-Art (z.B. "Pikachu"), Pflichtfeld. */
     @NotNull
     @ManyToOne(optional = false)
     @JoinColumn(nullable = false)
+    @ToString.Exclude
     private PokemonSpecies species;
 
     /** Optionaler Nickname für dieses Pokémon. */
@@ -64,6 +91,7 @@ public class OwnedPokemon {
     @ManyToOne(optional = false)
     @JoinColumn(name = "box_id", nullable = false)
     @JsonIgnore
+    @ToString.Exclude
     private Box box;
 
     /** Zugehörige Edition, Pflichtfeld. */
@@ -72,7 +100,37 @@ public class OwnedPokemon {
     private Edition edition;
 
     /**
-     * Konstruktor für ein neues gefangenes Pokémon mit allen Pflichtfeldern.
+     * Platz innerhalb der Box (0 bis Kapazität - 1), bestimmt die Reihenfolge in der Anzeige.
+     * <p>
+     * Je Box eindeutig (Unique-Constraint auf {@code box_id, slot}, zugleich Index für die sortierte Abfrage
+     * einer Box). Plätze müssen nicht lückenlos belegt sein. Vergabe und Tausch siehe {@code BoxService}.
+     * </p>
+     */
+    @Column(name = "slot", nullable = false)
+    private int slot;
+
+    /**
+     * Version für optimistisches Sperren.
+     * <p>
+     * Hibernate erhöht sie bei jedem Update und prüft sie in der {@code where}-Klausel. Gleichzeitige Änderungen
+     * überschreiben sich daher nicht stillschweigend, die später committende schlägt fehl. Über die API wird sie
+     * als ETag ausgeliefert und per {@code If-Match} geprüft.
+     * </p>
+     */
+    @Version
+    @JsonIgnore
+    private long version;
+
+    /**
+     * Version der letzten Änderung (monoton steigend über alle Pokémon und Löschungen).
+     * Wird beim Speichern automatisch gesetzt und nicht über die API ausgeliefert.
+     */
+    @Column(name = "change_version", nullable = false)
+    @JsonIgnore
+    private long changeVersion;
+
+    /**
+     * Konstruktor für ein neues gefangenes Pokémon auf dem ersten Platz (0) der Box.
      * @param species  Pokémon-Art (z.B. Pikachu)
      * @param nickname Optionaler Spitzname
      * @param level    Pokémon-Level
@@ -80,11 +138,25 @@ public class OwnedPokemon {
      * @param box      Zugehörige Box
      */
     public OwnedPokemon(PokemonSpecies species, String nickname, int level, Edition edition, Box box) {
+        this(species, nickname, level, edition, box, 0);
+    }
+
+    /**
+     * Konstruktor für ein neues gefangenes Pokémon mit allen Pflichtfeldern.
+     * @param species  Pokémon-Art (z.B. Pikachu)
+     * @param nickname Optionaler Spitzname
+     * @param level    Pokémon-Level
+     * @param edition  Zugehörige Edition
+     * @param box      Zugehörige Box
+     * @param slot     Freier Platz in der Box
+     */
+    public OwnedPokemon(PokemonSpecies species, String nickname, int level, Edition edition, Box box, int slot) {
         this.species = species;
         this.nickname = nickname;
         this.level = level;
         this.edition = edition;
         this.box = box;
+        this.slot = slot;
     }
 
     /**
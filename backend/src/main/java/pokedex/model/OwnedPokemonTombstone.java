@@ -0,0 +1,33 @@
+package pokedex.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity-Klasse für ein gelöschtes gefangenes Pokémon (Tombstone).
+ * <p>
+ * Gelöschte Pokémon verschwinden aus {@code owned_pokemon}. Damit Clients beim Delta-Sync trotzdem erfahren,
+ * welche Pokémon sie lokal entfernen müssen, wird je Löschung die ID mit der Änderungsversion festgehalten.
+ * </p>
+ *
+ * @author grubi
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "owned_pokemon_tombstone",
+        indexes = @Index(name = "idx_owned_pokemon_tombstone_change_version", columnList = "change_version"))
+public class OwnedPokemonTombstone {
+
+    /** ID des gelöschten Pokémon (IDs werden nicht wiederverwendet). */
+    @Id
+    @Column(name = "pokemon_id")
+    private Long pokemonId;
+
+    /** Version der Löschung. */
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+}
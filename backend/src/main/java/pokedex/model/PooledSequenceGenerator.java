@@ -0,0 +1,49 @@
+package pokedex.model;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Sequenz-basierter ID-Generator mit konfigurierbarer Blockgröße ("pooled"-Optimierer).
+ * <p>
+ * Hibernate holt pro Aufruf der Sequenz einen ganzen Block von IDs und vergibt sie im Speicher.
+ * Anders als bei IDENTITY ist die ID damit schon vor dem Insert bekannt, wodurch Hibernate
+ * mehrere Inserts per JDBC-Batch bündeln kann.
+ * </p>
+ *
+ * <b>Konfiguration:</b>
+ * Die Blockgröße wird über die Hibernate-Einstellung {@value #ALLOCATION_SIZE_SETTING} gesetzt
+ * (in {@code application.properties} über {@code pokedex.ids.allocation-size}), Standard ist {@value #DEFAULT_ALLOCATION_SIZE}.
+ * Sie muss dem Inkrement der Datenbank-Sequenz entsprechen, sonst bricht Hibernate den Start ab.
+ *
+ * @author grubi
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    /** Name der Hibernate-Einstellung für die Blockgröße. */
+    public static final String ALLOCATION_SIZE_SETTING = "pokedex.id.allocation_size";
+
+    /** Blockgröße, falls nichts konfiguriert ist. */
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    /**
+     * Übernimmt die konfigurierte Blockgröße als Inkrement der Sequenz.
+     *
+     * @param type            Typ der ID
+     * @param params          Parameter aus dem Mapping
+     * @param serviceRegistry Hibernate Service-Registry (enthält die Einstellungen)
+     */
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) {
+        Object configured = serviceRegistry.requireService(ConfigurationService.class)
+                .getSettings()
+                .get(ALLOCATION_SIZE_SETTING);
+        params.setProperty(INCREMENT_PARAM, configured != null ? configured.toString() : String.valueOf(DEFAULT_ALLOCATION_SIZE));
+        params.setProperty(OPT_PARAM, "pooled");
+        super.configure(type, params, serviceRegistry);
+    }
+}
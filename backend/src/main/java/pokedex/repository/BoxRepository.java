@@ -1,11 +1,18 @@
 package pokedex.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pokedex.model.Box;
 import pokedex.model.BoxName;
 import pokedex.model.Edition;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -19,6 +26,8 @@ import java.util.Optional;
  * <ul>
  *   <li>Speichern, Laden und Löschen von Boxen</li>
  *   <li>Spezielle Suche: Box zu gegebener Edition und Name (z.B. "Team", "Box 1" ...)</li>
+ *   <li>Lesen und atomares Anpassen des Belegungszählers ({@code occupancy})</li>
+ *   <li>Sperren mehrerer Boxen für Sammel-Verschiebungen ({@link #lockOccupancies(Collection)})</li>
  * </ul>
  *
  * <b>Hinweis:</b>
@@ -38,4 +47,90 @@ public interface BoxRepository extends JpaRepository<Box, Long> {
      * @return Optional mit der gefundenen Box oder leer, falls nicht vorhanden
      */
     Optional<Box> findByNameAndEdition(BoxName name, Edition edition);
+
+    /**
+     * Sperrt die angegebenen Boxen bis zum Ende der Transaktion und liest dabei ihren aktuellen Belegungszähler.
+     * <p>
+     * Die Zeilen werden in aufsteigender ID-Reihenfolge gesperrt, wie bei der Einzelverschiebung.
+     * Der Zähler wird direkt aus der Datenbank gelesen und nicht aus bereits geladenen Entitäten.
+     * </p>
+     *
+     * @param ids IDs der zu sperrenden Boxen
+     * @return ID und Belegung je Box, aufsteigend nach ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b.id as id, b.occupancy as occupancy from Box b where b.id in :ids order by b.id")
+    List<BoxOccupancy> lockOccupancies(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Sperrt alle Boxen bis zum Ende der Transaktion (aufsteigende ID-Reihenfolge wie bei {@link #lockOccupancies}).
+     *
+     * @return ID und Belegung je Box, aufsteigend nach ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b.id as id, b.occupancy as occupancy from Box b order by b.id")
+    List<BoxOccupancy> lockAllOccupancies();
+
+    /**
+     * Liest nur den Belegungszähler einer Box.
+     *
+     * @param name    Der Name der Box
+     * @param edition Die zugehörige Edition
+     * @return Optional mit der aktuellen Belegung oder leer, falls die Box nicht existiert
+     */
+    @Query("select b.occupancy from Box b where b.name = :name and b.edition = :edition")
+    Optional<Integer> findOccupancyByNameAndEdition(@Param("name") BoxName name, @Param("edition") Edition edition);
+
+    /**
+     * Passt den Belegungszähler einer Box atomar in der Datenbank an.
+     *
+     * @param id    ID der Box
+     * @param delta Änderung (positiv beim Hinzufügen, negativ beim Entfernen)
+     * @return Anzahl geänderter Zeilen (1, falls die Box existiert)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Box b set b.occupancy = b.occupancy + :delta where b.id = :id")
+    int adjustOccupancy(@Param("id") Long id, @Param("delta") int delta);
+
+    /**
+     * Erhöht den Belegungszähler einer Box atomar, aber nur, solange die Kapazität nicht erreicht ist.
+     * <p>
+     * Prüfung und Erhöhung erfolgen in einem einzigen Statement. Die Datenbank sperrt dabei die Box-Zeile
+     * bis zum Ende der Transaktion, parallele Aufrufe für dieselbe Box werden so serialisiert
+     * und können die Kapazität nie überschreiten.
+     * </p>
+     *
+     * @param id       ID der Box
+     * @param capacity Maximale Kapazität der Box
+     * @return 1, wenn der Platz reserviert wurde; 0, wenn die Box bereits voll ist
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Box b set b.occupancy = b.occupancy + 1 where b.id = :id and b.occupancy < :capacity")
+    int incrementOccupancyIfBelow(@Param("id") Long id, @Param("capacity") int capacity);
+
+    /**
+     * Gleicht alle Belegungszähler mit der tatsächlichen Anzahl Pokémon je Box ab.
+     * <p>
+     * Die Boxen müssen vorher gesperrt sein ({@link #lockAllOccupancies()}), sonst kann eine laufende Änderung
+     * zwischen Zählen und Schreiben committen und der Zähler wird auf einen veralteten Wert gesetzt.
+     * </p>
+     *
+     * @return Anzahl korrigierter Boxen
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Box b set b.occupancy = (select count(p) from OwnedPokemon p where p.box = b) " +
+            "where b.occupancy <> (select count(p) from OwnedPokemon p where p.box = b)")
+    int reconcileOccupancy();
+
+    /**
+     * Projektion auf ID und Belegungszähler einer Box.
+     */
+    interface BoxOccupancy {
+
+        /** @return ID der Box */
+        Long getId();
+
+        /** @return Aktuelle Belegung der Box */
+        int getOccupancy();
+    }
 }
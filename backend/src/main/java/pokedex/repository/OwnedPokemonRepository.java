@@ -1,12 +1,26 @@
 package pokedex.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import pokedex.dto.OwnedPokemonDTO;
 import pokedex.model.Box;
+import pokedex.model.BoxName;
+import pokedex.model.Edition;
 import pokedex.model.OwnedPokemon;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 /**
  * Repository-Interface für den Zugriff auf {@link OwnedPokemon}-Entitäten.
  * <p>
@@ -18,11 +32,17 @@ import pokedex.model.OwnedPokemon;
  * <ul>
  *   <li>Speichern, Laden, Löschen eigener gefangener Pokémon</li>
  *   <li>Prüfung der Belegung einer Box mittels {@link #countByBox(Box)}</li>
+ *   <li>Laden mehrerer Pokémon per ID-Liste in einer einzigen Abfrage (z.B. für Sammel-Verschiebungen)</li>
+ *   <li>Reine Lesezugriffe direkt als {@link OwnedPokemonDTO} ({@link #findAllDTOs()}, {@link #findDTOsByBox(BoxName, Edition)})</li>
+ *   <li>Keyset-Paginierung und Streaming großer Sammlungen mit optionalen Filtern</li>
+ *   <li>Delta-Sync über die Änderungsversion ({@link #findDTOsChangedBetween(long, long)})</li>
+ *   <li>Belegte Plätze mehrerer Boxen ({@link #findSlotsByBoxIds(Collection)}) und Pokémon auf einem Platz</li>
  * </ul>
  *
  * <b>Besonderheiten:</b>
  * <ul>
  *   <li>Die Methode {@code countByBox} nutzt eine JPQL-Query, um effizient die Anzahl der Pokémon in einer Box zu ermitteln.</li>
+ *   <li>Die DTO-Abfragen nutzen Konstruktorausdrücke und erzeugen keine verwalteten Entitäten.</li>
  * </ul>
  *
  * @author grubi
@@ -38,4 +58,163 @@ public interface OwnedPokemonRepository extends JpaRepository<OwnedPokemon, Long
      */
     @Query("select count(p) from OwnedPokemon p where p.box = :box")
     Long countByBox(@Param("box") Box box);
+
+    /**
+     * Lädt die Pokémon mit den angegebenen IDs inkl. Art und Box in einer einzigen Abfrage.
+     * Nicht vorhandene IDs werden ignoriert.
+     *
+     * @param ids IDs der gesuchten Pokémon
+     * @return Liste der gefundenen Pokémon mit initialisierter Art und Box
+     */
+    @Query("select p from OwnedPokemon p join fetch p.species join fetch p.box where p.id in :ids")
+    List<OwnedPokemon> findAllWithSpeciesAndBoxByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Lädt ein einzelnes Pokémon inkl. Art und Box in einer einzigen Abfrage (Grundlage für Bearbeitungen).
+     *
+     * @param id ID des gesuchten Pokémon
+     * @return Das Pokémon mit initialisierter Art und Box, falls vorhanden
+     */
+    @Query("select p from OwnedPokemon p join fetch p.species join fetch p.box where p.id = :id")
+    Optional<OwnedPokemon> findWithSpeciesAndBoxById(@Param("id") Long id);
+
+    /**
+     * Liest die belegten Plätze der angegebenen Boxen (nur die Spalten des Index {@code (box_id, slot)}).
+     * <p>
+     * Grundlage für die Vergabe freier Plätze. Der Aufrufer muss die Boxen vorher über ihren Belegungszähler
+     * gesperrt haben, sonst kann eine parallele Transaktion denselben Platz vergeben.
+     * Als sperrendes Lesen ({@code lock in share mode}) liefert die Abfrage auch unter REPEATABLE READ
+     * (Standard von MariaDB) die zuletzt bestätigten Plätze und nicht den Snapshot vom Beginn der Transaktion.
+     * </p>
+     *
+     * @param boxIds IDs der Boxen
+     * @return Box und Platz je enthaltenem Pokémon
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select p.box.id as boxId, p.slot as slot from OwnedPokemon p where p.box.id in :boxIds")
+    List<BoxSlot> findSlotsByBoxIds(@Param("boxIds") Collection<Long> boxIds);
+
+    /**
+     * Lädt das Pokémon auf einem bestimmten Platz einer Box inkl. Art und Box.
+     * Sperrendes Lesen wie bei {@link #findSlotsByBoxIds(Collection)}, da der Platz nach dem Sperren der Box
+     * geprüft wird.
+     *
+     * @param boxId ID der Box
+     * @param slot  Platz in der Box
+     * @return Das Pokémon auf dem Platz, falls belegt
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select p from OwnedPokemon p join fetch p.species join fetch p.box b where b.id = :boxId and p.slot = :slot")
+    Optional<OwnedPokemon> findWithSpeciesAndBoxByBoxIdAndSlot(@Param("boxId") Long boxId, @Param("slot") int slot);
+
+    /**
+     * Projiziert alle gefangenen Pokémon direkt in {@link OwnedPokemonDTO}s (sortiert nach ID).
+     * <p>
+     * Es werden keine Entitäten hydriert, der Persistence-Context bleibt leer.
+     * </p>
+     *
+     * @return Liste aller gefangenen Pokémon als DTO
+     */
+    @Query("select new pokedex.dto.OwnedPokemonDTO(p.id, p.nickname, p.level, p.edition, b.name, p.slot, " +
+            "s.pokedexId, s.name, s.type1, s.type2, p.version) " +
+            "from OwnedPokemon p join p.species s join p.box b order by p.id")
+    List<OwnedPokemonDTO> findAllDTOs();
+
+    /**
+     * Projiziert alle Pokémon einer Box direkt in {@link OwnedPokemonDTO}s, sortiert nach ihrem Platz in der Box.
+     * <p>
+     * Die Sortierung folgt dem Unique-Index auf {@code (box_id, slot)}.
+     * </p>
+     *
+     * @param name    Name der Box
+     * @param edition Edition der Box
+     * @return Liste aller Pokémon der Box als DTO
+     */
+    @Query("select new pokedex.dto.OwnedPokemonDTO(p.id, p.nickname, p.level, p.edition, b.name, p.slot, " +
+            "s.pokedexId, s.name, s.type1, s.type2, p.version) " +
+            "from OwnedPokemon p join p.species s join p.box b " +
+            "where b.name = :name and b.edition = :edition order by p.slot")
+    List<OwnedPokemonDTO> findDTOsByBox(@Param("name") BoxName name, @Param("edition") Edition edition);
+
+    /**
+     * Lädt die nächste Seite gefangener Pokémon per Keyset-Paginierung über die ID.
+     * <p>
+     * Alle Filter sind optional (null = kein Filter). Die Abfrage nutzt den Primärschlüssel-Index,
+     * die Kosten hängen daher nicht davon ab, wie weit bereits geblättert wurde.
+     * </p>
+     *
+     * @param afterId   Nur Pokémon mit größerer ID liefern (0 für die erste Seite)
+     * @param edition   Optionaler Filter auf die Edition
+     * @param box       Optionaler Filter auf den Boxnamen
+     * @param pokedexId Optionaler Filter auf die Art
+     * @param limit     Maximale Anzahl Einträge
+     * @return Die gefundenen Pokémon als DTO, aufsteigend sortiert nach ID
+     */
+    @Query("select new pokedex.dto.OwnedPokemonDTO(p.id, p.nickname, p.level, p.edition, b.name, p.slot, " +
+            "s.pokedexId, s.name, s.type1, s.type2, p.version) " +
+            "from OwnedPokemon p join p.species s join p.box b " +
+            "where p.id > :afterId " +
+            "and (:edition is null or p.edition = :edition) " +
+            "and (:box is null or b.name = :box) " +
+            "and (:pokedexId is null or s.pokedexId = :pokedexId) " +
+            "order by p.id")
+    List<OwnedPokemonDTO> findPageAfter(@Param("afterId") long afterId,
+                                        @Param("edition") Edition edition,
+                                        @Param("box") BoxName box,
+                                        @Param("pokedexId") Integer pokedexId,
+                                        Limit limit);
+
+    /**
+     * Streamt alle (gefilterten) gefangenen Pokémon als DTO direkt vom JDBC-Cursor.
+     * <p>
+     * Der Fetch-Size-Hint sorgt dafür, dass der Treiber die Zeilen blockweise liefert, statt das gesamte
+     * Resultat im Speicher zu halten. Der Stream muss innerhalb einer Transaktion konsumiert und geschlossen werden.
+     * </p>
+     *
+     * @param edition   Optionaler Filter auf die Edition
+     * @param box       Optionaler Filter auf den Boxnamen
+     * @param pokedexId Optionaler Filter auf die Art
+     * @return Stream aller passenden Pokémon als DTO, aufsteigend sortiert nach ID
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new pokedex.dto.OwnedPokemonDTO(p.id, p.nickname, p.level, p.edition, b.name, p.slot, " +
+            "s.pokedexId, s.name, s.type1, s.type2, p.version) " +
+            "from OwnedPokemon p join p.species s join p.box b " +
+            "where (:edition is null or p.edition = :edition) " +
+            "and (:box is null or b.name = :box) " +
+            "and (:pokedexId is null or s.pokedexId = :pokedexId) " +
+            "order by p.id")
+    Stream<OwnedPokemonDTO> streamDTOs(@Param("edition") Edition edition,
+                                       @Param("box") BoxName box,
+                                       @Param("pokedexId") Integer pokedexId);
+
+    /**
+     * Projiziert alle Pokémon, deren letzte Änderung im angegebenen Versionsbereich liegt, in {@link OwnedPokemonDTO}s.
+     * <p>
+     * Die Abfrage nutzt den Index auf {@code change_version}, die Kosten hängen also nur von der Anzahl der
+     * Änderungen ab, nicht von der Größe der Sammlung.
+     * </p>
+     *
+     * @param since Nur Änderungen mit größerer Version
+     * @param until Nur Änderungen bis einschließlich dieser Version
+     * @return Die geänderten Pokémon als DTO, aufsteigend nach Version
+     */
+    @Query("select new pokedex.dto.OwnedPokemonDTO(p.id, p.nickname, p.level, p.edition, b.name, p.slot, " +
+            "s.pokedexId, s.name, s.type1, s.type2, p.version) " +
+            "from OwnedPokemon p join p.species s join p.box b " +
+            "where p.changeVersion > :since and p.changeVersion <= :until " +
+            "order by p.changeVersion")
+    List<OwnedPokemonDTO> findDTOsChangedBetween(@Param("since") long since, @Param("until") long until);
+
+    /**
+     * Projektion auf Box und Platz eines Pokémon.
+     */
+    interface BoxSlot {
+
+        /** @return ID der Box */
+        Long getBoxId();
+
+        /** @return Platz in der Box */
+        int getSlot();
+    }
 }
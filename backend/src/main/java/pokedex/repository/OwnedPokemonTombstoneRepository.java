@@ -0,0 +1,29 @@
+package pokedex.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import pokedex.model.OwnedPokemonTombstone;
+
+import java.util.List;
+
+/**
+ * Repository-Interface für den Zugriff auf {@link OwnedPokemonTombstone}-Entitäten (gelöschte Pokémon für den Delta-Sync).
+ *
+ * @author grubi
+ */
+@Repository
+public interface OwnedPokemonTombstoneRepository extends JpaRepository<OwnedPokemonTombstone, Long> {
+
+    /**
+     * Liefert die IDs aller Pokémon, die im angegebenen Versionsbereich gelöscht wurden (per Index auf der Version).
+     *
+     * @param since Nur Löschungen mit größerer Version
+     * @param until Nur Löschungen bis einschließlich dieser Version
+     * @return IDs der gelöschten Pokémon, aufsteigend nach Version
+     */
+    @Query("select t.pokemonId from OwnedPokemonTombstone t " +
+            "where t.changeVersion > :since and t.changeVersion <= :until order by t.changeVersion")
+    List<Long> findDeletedIds(@Param("since") long since, @Param("until") long until);
+}
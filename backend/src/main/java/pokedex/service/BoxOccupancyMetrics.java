@@ -0,0 +1,84 @@
+package pokedex.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pokedex.model.Box;
+import pokedex.repository.BoxRepository;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stellt die Belegung der Boxen als Metriken bereit.
+ * <p>
+ * Die Werte werden periodisch mit einer einzigen Abfrage aller Boxen aktualisiert und nicht bei jedem Abruf
+ * der Metriken (Scrape) aus der Datenbank gelesen.
+ * </p>
+ *
+ * <b>Metriken:</b>
+ * <ul>
+ *   <li>{@code pokedex.box.occupancy} (Tags {@code box}, {@code edition}): Belegungszähler je Box</li>
+ *   <li>{@code pokedex.pokemon.owned}: Gesamtzahl gefangener Pokémon (Summe der Belegungszähler,
+ *   erspart ein {@code count(*)} über alle Pokémon)</li>
+ * </ul>
+ *
+ * <b>Aktualisierung:</b>
+ * Nach dem Start der Anwendung und danach im Intervall <code>pokedex.metrics.refresh-interval</code> (Standard: 30 Sekunden).
+ *
+ * @author grubi
+ */
+@Component
+public class BoxOccupancyMetrics {
+
+    /** Repository für Boxen. */
+    private final BoxRepository boxRepo;
+
+    /** Belegung je Box. */
+    private final MultiGauge occupancy;
+
+    /** Gesamtzahl gefangener Pokémon beim letzten Abgleich. */
+    private final AtomicLong owned = new AtomicLong();
+
+    /**
+     * Konstruktor für Dependency Injection.
+     * @param boxRepo       Repository für Boxen
+     * @param meterRegistry Registry, in der die Metriken angelegt werden
+     */
+    public BoxOccupancyMetrics(BoxRepository boxRepo, MeterRegistry meterRegistry) {
+        this.boxRepo = boxRepo;
+        this.occupancy = MultiGauge.builder("pokedex.box.occupancy")
+                .description("Anzahl Pokémon je Box")
+                .register(meterRegistry);
+        Gauge.builder("pokedex.pokemon.owned", owned, AtomicLong::get)
+                .description("Gesamtzahl gefangener Pokémon")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Liest die Belegung einmalig nach dem Anwendungsstart (nach allen Data-Loadern).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshOnStartup() {
+        refresh();
+    }
+
+    /**
+     * Liest die Belegungszähler aller Boxen und aktualisiert die Metriken.
+     */
+    @Scheduled(fixedDelayString = "${pokedex.metrics.refresh-interval:PT30S}",
+            initialDelayString = "${pokedex.metrics.refresh-interval:PT30S}")
+    public void refresh() {
+        List<Box> boxes = boxRepo.findAll();
+        occupancy.register(boxes.stream()
+                .<MultiGauge.Row<?>>map(box -> MultiGauge.Row.of(
+                        Tags.of("box", box.getName().name(), "edition", box.getEdition().name()), box.getOccupancy()))
+                .toList(), true);
+        owned.set(boxes.stream().mapToLong(Box::getOccupancy).sum());
+    }
+}
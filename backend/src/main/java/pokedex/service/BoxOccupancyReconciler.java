@@ -0,0 +1,64 @@
+package pokedex.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hintergrund-Job, der die Belegungszähler aller Boxen mit der tatsächlichen Anzahl Pokémon abgleicht.
+ * <p>
+ * Die Zähler werden im normalen Betrieb transaktional mitgeführt. Der Abgleich korrigiert Abweichungen,
+ * die z.B. durch manuelle Änderungen in der Datenbank entstehen. Bestehende Datenbanken erhalten die Zähler
+ * bereits per Migration {@code V6}, der Abgleich ist dafür nicht nötig.
+ * </p>
+ *
+ * <b>Ausführung:</b>
+ * <ul>
+ *   <li>Einmalig nach dem Start der Anwendung (nach allen Data-Loadern)</li>
+ *   <li>Danach periodisch, Intervall über <code>pokedex.boxes.reconcile-interval</code> (Standard: 15 Minuten)</li>
+ * </ul>
+ *
+ * @author grubi
+ */
+@Component
+public class BoxOccupancyReconciler {
+
+    /** Logger für gefundene Abweichungen. */
+    private static final Logger logger = LoggerFactory.getLogger(BoxOccupancyReconciler.class);
+
+    /** Service, der den eigentlichen Abgleich transaktional ausführt. */
+    private final BoxService boxService;
+
+    /**
+     * Konstruktor für Dependency Injection.
+     * @param boxService Service für Boxen
+     */
+    public BoxOccupancyReconciler(BoxService boxService) {
+        this.boxService = boxService;
+    }
+
+    /**
+     * Gleicht die Zähler einmalig nach dem Anwendungsstart ab.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * Gleicht die Zähler periodisch ab und protokolliert korrigierte Abweichungen.
+     */
+    @Scheduled(fixedDelayString = "${pokedex.boxes.reconcile-interval:PT15M}",
+            initialDelayString = "${pokedex.boxes.reconcile-interval:PT15M}")
+    public void reconcile() {
+        int corrected = boxService.reconcileOccupancy();
+        if (corrected > 0) {
+            logger.warn("Belegungszähler von {} Box(en) korrigiert", corrected);
+        } else {
+            logger.debug("Belegungszähler aller Boxen sind korrekt");
+        }
+    }
+}
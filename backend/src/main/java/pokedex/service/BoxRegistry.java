@@ -0,0 +1,118 @@
+package pokedex.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import pokedex.exception.NotFoundException;
+import pokedex.model.Box;
+import pokedex.model.BoxName;
+import pokedex.model.Edition;
+import pokedex.repository.BoxRepository;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Verzeichnis aller Boxen, aufgelöst über Name und Edition ohne Datenbankzugriff.
+ * <p>
+ * Es gibt genau {@code BoxName × Edition} Boxen. Sie werden einmalig vom {@link pokedex.dataloader.BoxDataLoader}
+ * angelegt, Name und Edition sind unveränderlich. Nach dem Start werden alle Boxen einmal geladen und in einer
+ * {@link EnumMap} je Edition und Boxname vorgehalten; Hinzufügen, Verschieben und die Box-Ansicht lösen ihre
+ * Boxen danach ohne Abfrage auf.
+ * </p>
+ *
+ * <b>Hinweise:</b>
+ * <ul>
+ *   <li>Die gelieferten Boxen sind von keiner Session verwaltet (detached). Verwendet werden dürfen nur
+ *   ID, Name, Edition und Kapazität, z.B. als Ziel einer Zuordnung ({@code pokemon.setBox(box)});
+ *   die Belegung wird immer über das {@link BoxRepository} gelesen bzw. geändert</li>
+ *   <li>Solange nicht alle Boxen existieren (z.B. in Tests), wird nicht gecached, sondern jedes Mal abgefragt
+ *   (wie im {@link PokemonSpeciesCatalog})</li>
+ * </ul>
+ *
+ * @author grubi
+ */
+@Component
+public class BoxRegistry {
+
+    /** Logger für Statusmeldungen. */
+    private static final Logger logger = LoggerFactory.getLogger(BoxRegistry.class);
+
+    /** Anzahl aller Boxen, wenn jede Edition jede Box besitzt. */
+    private static final int BOX_COUNT = BoxName.values().length * Edition.values().length;
+
+    /** Repository für Boxen (nur zum Laden bzw. als Fallback). */
+    private final BoxRepository boxRepo;
+
+    /** Alle Boxen je Edition und Name (null, solange nicht vollständig geladen). */
+    private volatile Map<Edition, Map<BoxName, Box>> boxes;
+
+    /**
+     * Konstruktor für Dependency Injection.
+     * @param boxRepo Repository für Boxen
+     */
+    public BoxRegistry(BoxRepository boxRepo) {
+        this.boxRepo = boxRepo;
+    }
+
+    /**
+     * Lädt alle Boxen, sobald die Anwendung (inkl. {@link pokedex.dataloader.BoxDataLoader}) gestartet ist.
+     * Außerhalb einer Transaktion geladen, sind die Boxen danach von keiner Session mehr verwaltet.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Map<Edition, Map<BoxName, Box>> loaded = load();
+        if (loaded.values().stream().mapToInt(Map::size).sum() == BOX_COUNT) {
+            boxes = loaded;
+            logger.info("{} Boxen im Verzeichnis registriert", BOX_COUNT);
+        } else {
+            logger.warn("Nicht alle Boxen vorhanden, Boxen werden bei jedem Zugriff geladen");
+        }
+    }
+
+    /**
+     * Liefert die Box mit dem angegebenen Namen in der angegebenen Edition.
+     *
+     * @param name    Name der Box
+     * @param edition Edition der Box
+     * @return Die Box (nur ID, Name, Edition und Kapazität verwenden)
+     * @throws NotFoundException Wenn keine passende Box existiert
+     */
+    public Box getBox(BoxName name, Edition edition) {
+        Map<Edition, Map<BoxName, Box>> current = boxes;
+        Box box = current != null
+                ? current.get(edition).get(name)
+                : boxRepo.findByNameAndEdition(name, edition).orElse(null);
+        if (box == null) {
+            throw new NotFoundException("Box nicht gefunden");
+        }
+        return box;
+    }
+
+    /**
+     * Liefert alle Boxen je Edition und Name.
+     *
+     * @return Unveränderliche Zuordnung Edition → Boxname → Box
+     */
+    public Map<Edition, Map<BoxName, Box>> getBoxes() {
+        Map<Edition, Map<BoxName, Box>> current = boxes;
+        return current != null ? current : load();
+    }
+
+    /**
+     * Lädt alle Boxen mit einer Abfrage und ordnet sie nach Edition und Name.
+     */
+    private Map<Edition, Map<BoxName, Box>> load() {
+        Map<Edition, Map<BoxName, Box>> byEdition = new EnumMap<>(Edition.class);
+        for (Box box : boxRepo.findAll()) {
+            byEdition.computeIfAbsent(box.getEdition(), e -> new EnumMap<>(BoxName.class)).put(box.getName(), box);
+        }
+        for (Edition edition : Edition.values()) {
+            byEdition.put(edition, Collections.unmodifiableMap(byEdition.getOrDefault(edition, new EnumMap<>(BoxName.class))));
+        }
+        return Collections.unmodifiableMap(byEdition);
+    }
+}
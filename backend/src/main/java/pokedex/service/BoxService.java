@@ -1,10 +1,18 @@
 package pokedex.service;
 
+import pokedex.dto.BatchMoveDTO;
+import pokedex.dto.BatchMoveResultDTO;
+import pokedex.dto.OwnedPokemonChangeDTO;
+import pokedex.dto.OwnedPokemonDTO;
 import pokedex.exception.BoxFullException;
+import pokedex.exception.InvalidUpdateException;
 import pokedex.exception.SameBoxException;
 import pokedex.exception.NotFoundException;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pokedex.dto.BoxDTO;
 import pokedex.model.Box;
 import pokedex.model.BoxName;
 import pokedex.model.Edition;
@@ -13,6 +21,9 @@ import pokedex.repository.BoxRepository;
 import pokedex.repository.OwnedPokemonRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pokedex.repository.BoxRepository.BoxOccupancy;
+
+import java.util.*;
 
 /**
  * Service-Klasse zur Verwaltung aller Box-bezogenen Operationen.
@@ -24,14 +35,20 @@ import org.slf4j.LoggerFactory;
  *
  * <b>Typische Verwendung:</b>
  * <ul>
- *   <li>Überprüfen, ob eine Box voll ist</li>
+ *   <li>Überprüfen, ob eine Box voll ist (über den Belegungszähler der Box)</li>
  *   <li>Pokémon von einer Box/Edition in eine andere verschieben (inkl. Validierung der Regeln)</li>
+ *   <li>Mehrere Pokémon in einem Aufruf verschieben (atomar oder mit Einzelergebnissen)</li>
+ *   <li>Pokémon innerhalb einer Box auf einen anderen Platz legen oder zwei Plätze tauschen</li>
  *   <li>Suche nach einer bestimmten Box anhand Name + Edition</li>
  * </ul>
  *
  * <b>Besonderheiten:</b>
  * <ul>
  *   <li>Transaktional: Die Verschiebung ist atomic, entweder vollständig oder gar nicht.</li>
+ *   <li>Kapazitätsprüfungen erfolgen per bedingtem Update auf den Belegungszähler und sind damit auch bei
+ *   parallelen Verschiebungen korrekt, ohne globale Sperre.</li>
+ *   <li>Jedes Pokémon liegt auf einem eigenen Platz seiner Box. Wer ein Pokémon in eine Box legt oder darin
+ *   umsortiert, sperrt zuerst den Belegungszähler der Box; die Platzvergabe ist damit je Box serialisiert.</li>
  *   <li>Wirft spezifische Exceptions bei Regelverletzungen (z.B. Box voll, gleiche Box, nicht gefunden).</li>
  *   <li>Nutzt Logging für Nachvollziehbarkeit wichtiger Aktionen.</li>
  * </ul>
@@ -47,21 +64,43 @@ public class BoxService {
     /** Repository für gefangene Pokémon. */
     private final OwnedPokemonRepository ownedRepo;
 
+    /** Verzeichnis aller Boxen (Auflösung über Name und Edition ohne Datenbankzugriff). */
+    private final BoxRegistry boxRegistry;
+
+    /** Veröffentlicht Verschiebungen für den {@link OwnedPokemonChangeFeed}. */
+    private final ApplicationEventPublisher eventPublisher;
+
     /** Logger für Nachvollziehbarkeit und Debugging. */
     private static final Logger logger = LoggerFactory.getLogger(BoxService.class);
 
+    /**
+     * Vorübergehender Platz beim Tausch zweier Pokémon. Der Unique-Constraint auf {@code (box_id, slot)} wird je Zeile
+     * geprüft, ein direkter Tausch würde kurzzeitig einen Platz doppelt belegen. Eindeutig, da Tausche je Box
+     * über den Belegungszähler serialisiert sind.
+     */
+    private static final int PARKING_SLOT = -1;
+
     /**
      * Konstruktor für Dependency Injection.
      * @param boxRepo   Repository für Boxen
-     * @param ownedRepo Repository für gefangene Pokémon
+     * @param ownedRepo      Repository für gefangene Pokémon
+     * @param boxRegistry    Verzeichnis aller Boxen
+     * @param eventPublisher Veröffentlicht Änderungen an der Sammlung
      */
-    public BoxService(BoxRepository boxRepo, OwnedPokemonRepository ownedRepo) {
+    public BoxService(BoxRepository boxRepo, OwnedPokemonRepository ownedRepo, BoxRegistry boxRegistry,
+                      ApplicationEventPublisher eventPublisher) {
         this.boxRepo = boxRepo;
         this.ownedRepo = ownedRepo;
+        this.boxRegistry = boxRegistry;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Sucht eine Box anhand ihres Namens und der zugehörigen Edition.
+     * <p>
+     * Die Box kommt aus dem {@link BoxRegistry} (ohne Datenbankzugriff). Ihre Belegung ist daher nicht aktuell
+     * und muss bei Bedarf über {@link #isFull(BoxName, Edition)} bzw. die Zähler-Methoden gelesen werden.
+     * </p>
      *
      * @param name    Name der Box (TEAM, BOX1, ...)
      * @param edition Edition, zu der die Box gehört
@@ -69,31 +108,100 @@ public class BoxService {
      * @throws NotFoundException Wenn keine passende Box existiert
      */
     public Box getBoxByNameAndEdition(BoxName name, Edition edition) {
-        logger.info("Box mit dem Namen {} aus der Edition {} abgerufen", name, edition);
-        return boxRepo.findByNameAndEdition(name, edition)
-                .orElseThrow(() -> new NotFoundException("Box nicht gefunden"));
+        logger.debug("Box mit dem Namen {} aus der Edition {} abgerufen", name, edition);
+        return boxRegistry.getBox(name, edition);
     }
 
     /**
-     * Prüft, ob eine bestimmte Box voll ist (Kapazitätsgrenze erreicht).
-     * <ul>
-     *   <li>Team-Box: maximal 6 Pokémon</li>
-     *   <li>Normale Box: maximal 20 Pokémon</li>
-     * </ul>
+     * Lädt den Inhalt einer Box für die Anzeige.
+     * <p>
+     * Die enthaltenen Pokémon werden direkt als DTO projiziert, die (lazy) Pokémon-Liste der Box wird nicht geladen.
+     * </p>
+     *
+     * @param name    Name der Box (TEAM, BOX1, ...)
+     * @param edition Edition, zu der die Box gehört
+     * @return Die Box inkl. aller enthaltenen Pokémon als DTO
+     * @throws NotFoundException Wenn keine passende Box existiert
+     */
+    @Transactional(readOnly = true)
+    public BoxDTO getBoxContents(BoxName name, Edition edition) {
+        Box box = getBoxByNameAndEdition(name, edition);
+        return BoxDTO.of(box, ownedRepo.findDTOsByBox(name, edition));
+    }
+
+    /**
+     * Prüft, ob eine bestimmte Box voll ist (Kapazitätsgrenze erreicht, siehe {@link Box#getCapacity()}).
+     * Liest dafür nur den Belegungszähler der Box, die Pokémon selbst werden nicht gezählt.
      *
      * @param name    Name der Box
      * @param edition Edition, zu der die Box gehört
      * @return true, wenn die Box voll ist, sonst false
+     * @throws NotFoundException Wenn keine passende Box existiert
      */
+    @Timed(value = "pokedex.box.full.check", description = "Prüfung, ob eine Box voll ist")
     public boolean isFull(BoxName name, Edition edition) {
-        Box box = getBoxByNameAndEdition(name, edition);
-        Long pokemonCount = ownedRepo.countByBox(box);
+        Box box = boxRegistry.getBox(name, edition);
+        int occupancy = boxRepo.findOccupancyByNameAndEdition(name, edition)
+                .orElseThrow(() -> new NotFoundException("Box nicht gefunden"));
+        return occupancy >= box.getCapacity();
+    }
 
-        if (name == BoxName.TEAM) {
-            return pokemonCount >= 6;
-        } else {
-            return pokemonCount >= 20;
-        }
+    /**
+     * Reserviert atomar einen Platz in der Box (bedingtes Update auf den Belegungszähler).
+     * <p>
+     * Ist die Box bereits voll, bleibt der Zähler unverändert und es wird false geliefert.
+     * Die Box-Zeile bleibt bis zum Ende der Transaktion gesperrt, parallele Reservierungen
+     * für dieselbe Box können die Kapazität daher nicht überschreiten.
+     * Muss in derselben Transaktion wie das Speichern des Pokémon aufgerufen werden.
+     * </p>
+     *
+     * @param box Die Box, in die ein Pokémon gelegt werden soll
+     * @return true, wenn der Platz reserviert wurde; false, wenn die Box voll ist
+     */
+    public boolean tryIncreaseOccupancy(Box box) {
+        return boxRepo.incrementOccupancyIfBelow(box.getId(), box.getCapacity()) == 1;
+    }
+
+    /**
+     * Verringert den Belegungszähler einer Box, nachdem ein Pokémon entfernt wurde.
+     * Muss in derselben Transaktion wie das Löschen/Verschieben des Pokémon aufgerufen werden.
+     *
+     * @param box Die Box, aus der ein Pokémon entfernt wurde
+     */
+    public void decreaseOccupancy(Box box) {
+        boxRepo.adjustOccupancy(box.getId(), -1);
+    }
+
+    /**
+     * Vergibt den ersten freien Platz einer Box für ein hinzukommendes Pokémon.
+     * <p>
+     * Der Belegungszähler der Box muss in derselben Transaktion bereits gesperrt sein
+     * ({@link #tryIncreaseOccupancy(Box)} bzw. {@link #transferOccupancy(Box, Box)}).
+     * </p>
+     *
+     * @param box Die Box, in die das Pokémon gelegt wird
+     * @return Der freie Platz
+     * @throws BoxFullException Wenn kein Platz mehr frei ist (Belegungszähler weicht von den Plätzen ab)
+     */
+    public int allocateSlot(Box box) {
+        return FreeSlots.of(ownedRepo, List.of(box.getId())).next(box)
+                .orElseThrow(() -> new BoxFullException("Die Box " + box.getName() + " hat keinen freien Platz mehr"));
+    }
+
+    /**
+     * Gleicht die Belegungszähler aller Boxen mit der tatsächlichen Anzahl gespeicherter Pokémon ab.
+     * <p>
+     * Sperrt vorher alle Belegungszähler in aufsteigender ID-Reihenfolge, wie die schreibenden Operationen.
+     * Laufende Hinzufügungen, Verschiebungen und Löschungen halten die Sperre ihrer Box bis zum Commit,
+     * gezählt wird daher erst, wenn sie abgeschlossen sind.
+     * </p>
+     *
+     * @return Anzahl der Boxen, deren Zähler korrigiert werden musste
+     */
+    @Transactional
+    public int reconcileOccupancy() {
+        boxRepo.lockAllOccupancies();
+        return boxRepo.reconcileOccupancy();
     }
 
     /**
@@ -119,6 +227,7 @@ public class BoxService {
      * @throws BoxFullException      Wenn die Zielbox voll ist
      */
     @Transactional
+    @Timed(value = "pokedex.box.move", description = "Verschieben eines Pokémon in eine andere Box")
     public void movePokemon(Long pokemonId, BoxName sourceBox, Edition sourceEdition, BoxName targetBox, Edition targetEdition) {
 
         // Validierung: Quell- und Zielbox dürfen nicht gleich sein
@@ -138,16 +247,361 @@ public class BoxService {
         // Ziel-Box laden
         Box target = getBoxByNameAndEdition(targetBox, targetEdition);
 
-        // Validierung: Ziel-Box darf nicht voll sein
-        if (isFull(targetBox, targetEdition)) {
-            throw new BoxFullException("Die Ziel Box " + targetBox + " ist schon voll");
-        }
+        // Belegungszähler anpassen und Platz in der Ziel-Box vergeben
+        transferOccupancy(pokemon.getBox(), target);
+        int slot = allocateSlot(target);
 
         // Verschiebung durchführen
         pokemon.setBox(target);
         pokemon.setEdition(targetEdition);
-        logger.info("Pokemon {} erfolgreich von {} aus der Edition {} nach {} Edition {} verschoben",
+        pokemon.setSlot(slot);
+        logger.debug("Pokemon {} erfolgreich von {} aus der Edition {} nach {} Edition {} verschoben",
                 pokemonId, sourceBox, sourceEdition, targetBox, targetEdition);
-        ownedRepo.save(pokemon);
+        ownedRepo.saveAndFlush(pokemon);
+        eventPublisher.publishEvent(OwnedPokemonChangeDTO.moved(OwnedPokemonDTO.from(pokemon), sourceBox, sourceEdition));
+    }
+
+    /**
+     * Verschiebt einen Platz im Belegungszähler von der Quell- in die Ziel-Box.
+     * <p>
+     * Die Zeilen werden in aufsteigender ID-Reihenfolge gesperrt, damit sich gegenläufige Verschiebungen
+     * (A → B und B → A) nicht gegenseitig blockieren. Die Pokémon-Zeile selbst wird nicht verändert;
+     * der Aufrufer setzt Box und Edition und schreibt sie zusammen mit seinen übrigen Änderungen.
+     * </p>
+     *
+     * @param source Bisherige Box
+     * @param target Neue Box
+     * @throws BoxFullException Wenn die Ziel-Box voll ist
+     */
+    public void transferOccupancy(Box source, Box target) {
+        if (source.getId() < target.getId()) {
+            decreaseOccupancy(source);
+            reserveTarget(target);
+        } else {
+            reserveTarget(target);
+            decreaseOccupancy(source);
+        }
+    }
+
+    /**
+     * Reserviert einen Platz in der Ziel-Box oder bricht die Verschiebung ab.
+     *
+     * @param target Die Ziel-Box
+     * @throws BoxFullException Wenn die Ziel-Box voll ist (die Transaktion wird zurückgerollt)
+     */
+    private void reserveTarget(Box target) {
+        if (!tryIncreaseOccupancy(target)) {
+            throw new BoxFullException("Die Ziel Box " + target.getName() + " ist schon voll");
+        }
+    }
+
+    /**
+     * Verschiebt mehrere Pokémon in einer einzigen Transaktion.
+     * <p>
+     * Die Verschiebungen werden in Anfragereihenfolge so bewertet, als würden sie nacheinander ausgeführt,
+     * es gelten dieselben Regeln wie bei {@link #movePokemon}. Der Aufwand ist dabei unabhängig von der Anzahl:
+     * <ul>
+     *   <li>Alle Pokémon werden mit einer einzigen {@code IN}-Abfrage geladen, die Ziel-Boxen kommen aus dem {@link BoxRegistry}.</li>
+     *   <li>Alle betroffenen Boxen werden einmalig in aufsteigender ID-Reihenfolge gesperrt und ihre Belegung gelesen.</li>
+     *   <li>Die belegten Plätze aller Ziel-Boxen werden mit einer Abfrage gelesen. Plätze, die eine frühere
+     *   Verschiebung derselben Anfrage frei macht, werden wieder vergeben (z.B. volle Box 1 → Box 2 und
+     *   Box 3 → Box 1).</li>
+     *   <li>Die Kapazität wird im Speicher geprüft, danach wird je Box genau ein Zähler-Update geschrieben.</li>
+     *   <li>Die Pokémon-Updates werden in einem einzigen Flush per JDBC-Batching gebündelt. Pokémon, deren
+     *   bisheriger Platz neu vergeben wurde, werden vorher in einem eigenen Flush auf Parkplätze gelegt, da
+     *   Hibernate die Updates nach ID sortiert und der Unique-Constraint je Zeile geprüft wird.</li>
+     * </ul>
+     * Im atomaren Modus bricht der erste Fehler die gesamte Verschiebung ab (Rollback),
+     * sonst werden fehlgeschlagene Verschiebungen im Ergebnis gemeldet.
+     * </p>
+     *
+     * @param request Die auszuführenden Verschiebungen inkl. Modus
+     * @return Ergebnis je Verschiebung in Anfragereihenfolge
+     * @throws NotFoundException       Im atomaren Modus, wenn ein Pokémon oder eine Ziel-Box nicht existiert
+     * @throws SameBoxException        Im atomaren Modus, wenn ein Pokémon bereits in der Ziel-Box liegt
+     * @throws InvalidUpdateException  Im atomaren Modus, wenn ein Pokémon mehrfach angegeben wurde
+     * @throws BoxFullException        Im atomaren Modus, wenn eine Ziel-Box nicht genug Platz hat
+     */
+    @Transactional
+    @Timed(value = "pokedex.box.move.batch", description = "Sammel-Verschiebung mehrerer Pokémon")
+    public BatchMoveResultDTO moveBatch(BatchMoveDTO request) {
+        List<BatchMoveDTO.Move> moves = request.getMoves();
+        boolean atomic = request.isAtomic();
+
+        // Alle Pokémon mit einer Abfrage laden
+        Set<Long> ids = new HashSet<>();
+        for (BatchMoveDTO.Move move : moves) {
+            ids.add(move.getPokemonId());
+        }
+        Map<Long, OwnedPokemon> pokemonById = new HashMap<>();
+        for (OwnedPokemon pokemon : ownedRepo.findAllWithSpeciesAndBoxByIdIn(ids)) {
+            pokemonById.put(pokemon.getId(), pokemon);
+        }
+
+        // Ziel-Boxen aus dem Verzeichnis
+        Map<Edition, Map<BoxName, Box>> boxes = boxRegistry.getBoxes();
+
+        // Verschiebungen validieren
+        String[] failures = new String[moves.size()];
+        Box[] targets = new Box[moves.size()];
+        Set<Long> seen = new HashSet<>();
+        Set<Long> lockIds = new TreeSet<>();
+        for (int i = 0; i < moves.size(); i++) {
+            BatchMoveDTO.Move move = moves.get(i);
+            OwnedPokemon pokemon = pokemonById.get(move.getPokemonId());
+            Box target = boxes.getOrDefault(move.getTargetEdition(), Map.of()).get(move.getTargetBox());
+
+            RuntimeException failure = null;
+            if (!seen.add(move.getPokemonId())) {
+                failure = new InvalidUpdateException("Pokemon mit der ID " + move.getPokemonId() + " wurde mehrfach angegeben");
+            } else if (pokemon == null) {
+                failure = new NotFoundException("Pokemon mit der ID " + move.getPokemonId() + " nicht gefunden");
+            } else if (target == null) {
+                failure = new NotFoundException("Box nicht gefunden");
+            } else if (pokemon.getBox().getId().equals(target.getId())) {
+                failure = new SameBoxException("Pokemon " + move.getPokemonId() + " liegt bereits in der Box " + move.getTargetBox());
+            }
+
+            if (failure != null) {
+                if (atomic) {
+                    throw failure;
+                }
+                failures[i] = failure.getMessage();
+            } else {
+                targets[i] = target;
+                lockIds.add(pokemon.getBox().getId());
+                lockIds.add(target.getId());
+            }
+        }
+
+        // Betroffene Boxen sperren und Kapazität in Anfragereihenfolge prüfen
+        Map<Long, Integer> occupancy = new HashMap<>();
+        if (!lockIds.isEmpty()) {
+            for (BoxOccupancy locked : boxRepo.lockOccupancies(lockIds)) {
+                occupancy.put(locked.getId(), locked.getOccupancy());
+            }
+        }
+        Set<Long> targetIds = new TreeSet<>();
+        for (Box target : targets) {
+            if (target != null) {
+                targetIds.add(target.getId());
+            }
+        }
+        FreeSlots freeSlots = FreeSlots.of(ownedRepo, targetIds);
+        int[] slots = new int[moves.size()];
+        // Durch diese Anfrage frei gewordene Plätze (Box-ID → Platz → Index der Verschiebung) und ob das
+        // jeweilige Pokémon vor dem eigentlichen Schreiben geparkt werden muss
+        Map<Long, Map<Integer, Integer>> released = new HashMap<>();
+        boolean[] park = new boolean[moves.size()];
+        Map<Long, Integer> deltas = new TreeMap<>();
+        List<OwnedPokemon> moved = new ArrayList<>();
+        for (int i = 0; i < moves.size(); i++) {
+            Box target = targets[i];
+            if (target == null) {
+                continue;
+            }
+            OptionalInt slot = occupancy.get(target.getId()) < target.getCapacity()
+                    ? freeSlots.next(target)
+                    : OptionalInt.empty();
+            if (slot.isEmpty()) {
+                BoxFullException failure = new BoxFullException("Die Ziel Box " + target.getName() + " ist schon voll");
+                if (atomic) {
+                    throw failure;
+                }
+                failures[i] = failure.getMessage();
+                targets[i] = null;
+                continue;
+            }
+
+            slots[i] = slot.getAsInt();
+            Integer vacated = released.getOrDefault(target.getId(), Map.of()).get(slots[i]);
+            if (vacated != null) {
+                park[vacated] = true;
+            }
+            OwnedPokemon pokemon = pokemonById.get(moves.get(i).getPokemonId());
+            Long sourceId = pokemon.getBox().getId();
+            freeSlots.release(pokemon.getBox(), pokemon.getSlot());
+            released.computeIfAbsent(sourceId, id -> new HashMap<>()).put(pokemon.getSlot(), i);
+            occupancy.merge(target.getId(), 1, Integer::sum);
+            occupancy.merge(sourceId, -1, Integer::sum);
+            deltas.merge(target.getId(), 1, Integer::sum);
+            deltas.merge(sourceId, -1, Integer::sum);
+        }
+
+        // Je Box genau ein Zähler-Update, danach die Pokémon gesammelt speichern
+        deltas.forEach((boxId, delta) -> {
+            if (delta != 0) {
+                boxRepo.adjustOccupancy(boxId, delta);
+            }
+        });
+        parkVacatedSlots(moves, pokemonById, park);
+        List<BatchMoveResultDTO.ItemResult> results = new ArrayList<>(moves.size());
+        List<Box> sources = new ArrayList<>();
+        for (int i = 0; i < moves.size(); i++) {
+            Long pokemonId = moves.get(i).getPokemonId();
+            if (targets[i] != null) {
+                OwnedPokemon pokemon = pokemonById.get(pokemonId);
+                sources.add(pokemon.getBox());
+                pokemon.setBox(targets[i]);
+                pokemon.setEdition(targets[i].getEdition());
+                pokemon.setSlot(slots[i]);
+                moved.add(pokemon);
+            }
+            results.add(new BatchMoveResultDTO.ItemResult(pokemonId, targets[i] != null, failures[i]));
+        }
+
+        // Gesammelt schreiben; die Events enthalten danach die neue Version der Pokémon
+        ownedRepo.saveAllAndFlush(moved);
+        for (int i = 0; i < moved.size(); i++) {
+            Box source = sources.get(i);
+            eventPublisher.publishEvent(OwnedPokemonChangeDTO.moved(
+                    OwnedPokemonDTO.from(moved.get(i)), source.getName(), source.getEdition()));
+        }
+        logger.info("{} von {} Pokemon per Sammel-Verschiebung verschoben", moved.size(), moves.size());
+        return new BatchMoveResultDTO(moved.size(), results);
+    }
+
+    /**
+     * Legt Pokémon, deren bisheriger Platz innerhalb einer Sammel-Verschiebung neu vergeben wurde, auf eindeutige
+     * Parkplätze ({@code -1, -2, ...}) in ihrer bisherigen Box und schreibt sie sofort.
+     * <p>
+     * Danach kann das eigentliche Update in beliebiger Reihenfolge geschrieben werden, ohne dass ein Platz
+     * kurzzeitig doppelt belegt ist. Eindeutig, da alle betroffenen Boxen bis zum Ende der Transaktion gesperrt sind.
+     * </p>
+     *
+     * @param moves       Die Verschiebungen der Anfrage
+     * @param pokemonById Die geladenen Pokémon
+     * @param park        Je Verschiebung, ob ihr Pokémon geparkt werden muss
+     */
+    private void parkVacatedSlots(List<BatchMoveDTO.Move> moves, Map<Long, OwnedPokemon> pokemonById, boolean[] park) {
+        List<OwnedPokemon> parked = new ArrayList<>();
+        for (int i = 0; i < moves.size(); i++) {
+            if (park[i]) {
+                OwnedPokemon pokemon = pokemonById.get(moves.get(i).getPokemonId());
+                pokemon.setSlot(PARKING_SLOT - i);
+                parked.add(pokemon);
+            }
+        }
+        if (!parked.isEmpty()) {
+            ownedRepo.saveAllAndFlush(parked);
+        }
+    }
+
+    /**
+     * Legt ein Pokémon innerhalb seiner Box auf einen anderen Platz.
+     * <p>
+     * Ist der Platz frei, wird nur das Pokémon selbst geändert. Ist er belegt, tauschen die beiden Pokémon ihre
+     * Plätze (wie bei {@link #swapSlots(Long, Long)}). Es werden also höchstens zwei Zeilen geschrieben, unabhängig
+     * davon, wie voll die Box ist; die übrigen Pokémon behalten ihre Plätze.
+     * </p>
+     *
+     * @param pokemonId ID des Pokémon
+     * @param slot      Neuer Platz (0 bis Kapazität - 1)
+     * @return Die geänderten Pokémon (leer, wenn das Pokémon bereits auf dem Platz liegt)
+     * @throws NotFoundException      Wenn das Pokémon nicht existiert
+     * @throws InvalidUpdateException Wenn es den Platz in der Box nicht gibt
+     */
+    @Transactional
+    @Timed(value = "pokedex.box.slot.move", description = "Umsortieren eines Pokémon innerhalb seiner Box")
+    public List<OwnedPokemon> moveToSlot(Long pokemonId, int slot) {
+        OwnedPokemon pokemon = ownedRepo.findWithSpeciesAndBoxById(pokemonId)
+                .orElseThrow(() -> new NotFoundException("Pokemon mit der ID " + pokemonId + " nicht gefunden"));
+        Box box = pokemon.getBox();
+        if (slot < 0 || slot >= box.getCapacity()) {
+            throw new InvalidUpdateException("Die Box " + box.getName() + " hat keinen Platz " + slot);
+        }
+        if (pokemon.getSlot() == slot) {
+            return List.of();
+        }
+
+        lockBox(box);
+        Optional<OwnedPokemon> occupant = ownedRepo.findWithSpeciesAndBoxByBoxIdAndSlot(box.getId(), slot);
+        if (occupant.isPresent()) {
+            return swap(pokemon, occupant.get());
+        }
+
+        pokemon.setSlot(slot);
+        ownedRepo.saveAndFlush(pokemon);
+        publishUpdated(pokemon);
+        logger.debug("Pokemon {} in der Box {} auf Platz {} gelegt", pokemonId, box.getName(), slot);
+        return List.of(pokemon);
+    }
+
+    /**
+     * Tauscht die Plätze zweier Pokémon derselben Box.
+     * <p>
+     * Schreibt nur die beiden Pokémon (drei Updates, da eines vorübergehend auf einen Parkplatz gelegt wird).
+     * </p>
+     *
+     * @param firstId  ID des ersten Pokémon
+     * @param secondId ID des zweiten Pokémon
+     * @return Die beiden geänderten Pokémon
+     * @throws NotFoundException      Wenn eines der Pokémon nicht existiert
+     * @throws InvalidUpdateException Wenn beide IDs gleich sind oder die Pokémon in verschiedenen Boxen liegen
+     */
+    @Transactional
+    @Timed(value = "pokedex.box.slot.swap", description = "Tausch der Plätze zweier Pokémon einer Box")
+    public List<OwnedPokemon> swapSlots(Long firstId, Long secondId) {
+        if (firstId.equals(secondId)) {
+            throw new InvalidUpdateException("Ein Pokemon kann nicht mit sich selbst getauscht werden");
+        }
+        Map<Long, OwnedPokemon> pokemonById = new HashMap<>();
+        for (OwnedPokemon pokemon : ownedRepo.findAllWithSpeciesAndBoxByIdIn(List.of(firstId, secondId))) {
+            pokemonById.put(pokemon.getId(), pokemon);
+        }
+        OwnedPokemon first = pokemonById.get(firstId);
+        OwnedPokemon second = pokemonById.get(secondId);
+        if (first == null || second == null) {
+            throw new NotFoundException("Pokemon mit der ID " + (first == null ? firstId : secondId) + " nicht gefunden");
+        }
+        if (!first.getBox().getId().equals(second.getBox().getId())) {
+            throw new InvalidUpdateException("Plätze können nur innerhalb einer Box getauscht werden");
+        }
+
+        lockBox(first.getBox());
+        return swap(first, second);
+    }
+
+    /**
+     * Tauscht die Plätze zweier Pokémon derselben, bereits gesperrten Box.
+     *
+     * @param first  Erstes Pokémon
+     * @param second Zweites Pokémon
+     * @return Die beiden geänderten Pokémon
+     */
+    private List<OwnedPokemon> swap(OwnedPokemon first, OwnedPokemon second) {
+        int firstSlot = first.getSlot();
+        int secondSlot = second.getSlot();
+
+        // Der Unique-Constraint wird je Zeile geprüft, daher einzeln und über einen Parkplatz schreiben
+        first.setSlot(PARKING_SLOT);
+        ownedRepo.saveAndFlush(first);
+        second.setSlot(firstSlot);
+        ownedRepo.saveAndFlush(second);
+        first.setSlot(secondSlot);
+        ownedRepo.saveAndFlush(first);
+
+        publishUpdated(first);
+        publishUpdated(second);
+        logger.debug("Pokemon {} und {} haben die Plätze getauscht", first.getId(), second.getId());
+        return List.of(first, second);
+    }
+
+    /**
+     * Sperrt den Belegungszähler einer Box bis zum Ende der Transaktion (serialisiert die Platzvergabe der Box).
+     *
+     * @param box Die Box
+     */
+    private void lockBox(Box box) {
+        boxRepo.lockOccupancies(List.of(box.getId()));
+    }
+
+    /**
+     * Veröffentlicht die Änderung eines Pokémon für den {@link OwnedPokemonChangeFeed}.
+     *
+     * @param pokemon Das geänderte Pokémon
+     */
+    private void publishUpdated(OwnedPokemon pokemon) {
+        eventPublisher.publishEvent(OwnedPokemonChangeDTO.updated(OwnedPokemonDTO.from(pokemon)));
     }
 }
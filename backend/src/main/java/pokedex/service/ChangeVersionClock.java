@@ -0,0 +1,140 @@
+package pokedex.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Vergibt monoton steigende Änderungsversionen für gefangene Pokémon und Löschungen (Delta-Sync).
+ * <p>
+ * Jede Änderung erhält die nächste Version. Clients fragen mit der zuletzt erhaltenen Version nach
+ * allen Änderungen, die seitdem passiert sind ({@code GET /api/pokemon/changes?since=}).
+ * </p>
+ *
+ * <b>Sichere Obergrenze:</b>
+ * Versionen werden beim Flush vergeben, sichtbar werden sie erst mit dem Commit. Eine Transaktion mit Version 10
+ * kann also nach einer Transaktion mit Version 11 committen. Würde ein Client bis 11 synchronisieren, ginge
+ * Version 10 verloren. {@link #safeVersion()} liefert deshalb nur die höchste Version, unter der keine
+ * Transaktion mehr offen ist; Änderungen darüber werden erst beim nächsten Abgleich ausgeliefert.
+ *
+ * <b>Hinweise:</b>
+ * <ul>
+ *   <li>Der Zähler wird beim ersten Zugriff aus der Datenbank initialisiert (höchste vergebene Version)</li>
+ *   <li>Vergabe und Buchführung passieren im Speicher, d.h. ohne zusätzlichen Datenbankzugriff pro Zeile
+ *   (wichtig für den Sammel-Import)</li>
+ *   <li>Setzt (wie der {@link OwnedPokemonChangeFeed}) eine einzelne Anwendungsinstanz voraus</li>
+ *   <li>Sperrt per {@link ReentrantLock} statt {@code synchronized}: Die Initialisierung fragt die Datenbank ab,
+ *   ein virtueller Thread würde in einem {@code synchronized}-Block dabei seinen Trägerthread blockieren</li>
+ * </ul>
+ *
+ * @author grubi
+ */
+@Component
+public class ChangeVersionClock {
+
+    /** Für die einmalige Initialisierung aus der Datenbank. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Zuletzt vergebene Version (-1, solange noch nicht initialisiert). */
+    private long current = -1;
+
+    /** Vergebene Versionen, deren Transaktion noch nicht abgeschlossen ist. */
+    private final TreeSet<Long> pending = new TreeSet<>();
+
+    /** Schützt Zähler und offene Versionen. */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Konstruktor für Dependency Injection.
+     * @param jdbcTemplate JdbcTemplate für die Initialisierung
+     */
+    public ChangeVersionClock(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Vergibt die nächste Version. Innerhalb einer Transaktion gilt sie bis zu deren Abschluss als offen.
+     *
+     * @return Neue, eindeutige Version
+     */
+    public long next() {
+        lock.lock();
+        try {
+            long version = ++initialized().current;
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                pending.add(version);
+                pendingOfTransaction().add(version);
+            }
+            return version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Liefert die höchste Version, bis zu der alle Änderungen abgeschlossen sind.
+     *
+     * @return Sichere Obergrenze für einen Delta-Abgleich
+     */
+    public long safeVersion() {
+        lock.lock();
+        try {
+            initialized();
+            return pending.isEmpty() ? current : pending.first() - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Initialisiert den Zähler einmalig mit der höchsten in der Datenbank vergebenen Version.
+     */
+    private ChangeVersionClock initialized() {
+        if (current < 0) {
+            Long owned = jdbcTemplate.queryForObject("select coalesce(max(change_version), 0) from owned_pokemon", Long.class);
+            Long deleted = jdbcTemplate.queryForObject("select coalesce(max(change_version), 0) from owned_pokemon_tombstone", Long.class);
+            current = Math.max(owned == null ? 0 : owned, deleted == null ? 0 : deleted);
+        }
+        return this;
+    }
+
+    /**
+     * Liefert die offenen Versionen der aktuellen Transaktion und meldet beim ersten Aufruf
+     * eine Synchronisation an, die sie nach Commit bzw. Rollback wieder freigibt.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Long> pendingOfTransaction() {
+        List<Long> versions = (List<Long>) TransactionSynchronizationManager.getResource(this);
+        if (versions == null) {
+            List<Long> created = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeVersionClock.this);
+                    release(created);
+                }
+            });
+            versions = created;
+        }
+        return versions;
+    }
+
+    /**
+     * Gibt die Versionen einer abgeschlossenen Transaktion frei.
+     */
+    private void release(List<Long> versions) {
+        lock.lock();
+        try {
+            versions.forEach(pending::remove);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -2,7 +2,7 @@ package pokedex.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.Data;
+import lombok.Getter;
 import pokedex.exception.InitializationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,8 +10,7 @@ import org.springframework.stereotype.Service;
 import pokedex.exception.InvalidEvolutionException;
 
 import java.io.InputStream;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 /**
  * Service zur Verwaltung und Validierung aller Pokémon-Entwicklungen.
@@ -23,6 +22,9 @@ import java.util.Map;
  * <b>Besonderheiten:</b>
  * <ul>
  *   <li>Lädt und cached die Regeln aus einer externen Datei im Ressourcenpfad ("first_gen/evolutions_rules/evolutions.json")</li>
+ *   <li>Übersetzt die Regeln beim Start in Bitsets (direkte Entwicklungen und transitive Hülle),
+ *   sodass jede Prüfung ohne Boxing und in konstanter Zeit beantwortet wird</li>
+ *   <li>Berechnet die vollständige Entwicklungsreihe jeder Art vorab</li>
  *   <li>Wirft bei Fehlern eine {@link InitializationException} bzw. {@link InvalidEvolutionException}</li>
  *   <li>Das Regelwerk kann leicht erweitert werden, ohne Code-Änderung</li>
  * </ul>
@@ -31,12 +33,12 @@ import java.util.Map;
  * <ul>
  *   <li>Validierung, ob ein Pokémon sich zu einer bestimmten Art entwickeln darf</li>
  *   <li>Anzeige oder Filterung erlaubter Entwicklungen im Frontend</li>
+ *   <li>Anzeige der gesamten Entwicklungsreihe einer Art</li>
  * </ul>
  *
  * @author grubi
  */
 @Service
-@Data
 public class EvolutionService {
 
     /** Logger für Fehlermeldungen und Statusausgaben. */
@@ -47,12 +49,27 @@ public class EvolutionService {
      * Key = aktuelle Pokédex-ID, Value = Liste erlaubter Ziel-Pokédex-IDs.
      * <br>Beispiel: 133 → [134, 135, 136] (Evoli kann sich zu drei Formen entwickeln)
      */
+    @Getter
     private final Map<Integer, List<Integer>> evolutionRules;
 
     /**
-     * Konstruktor, der beim Start die Entwicklungsregeln aus einer JSON-Ressource lädt und cached.
+     * Vollständige Entwicklungsreihe je Art, die Teil einer Entwicklung ist:
+     * Key = Pokédex-ID, Value = alle Arten der Reihe aufsteigend sortiert.
+     * <br>Beispiel: 134 → [133, 134, 135, 136]
+     */
+    @Getter
+    private final Map<Integer, List<Integer>> evolutionChains;
+
+    /** Direkte Entwicklungen, Index = aktuelle Pokédex-ID, gesetztes Bit = erlaubte Ziel-ID. */
+    private final BitSet[] directTargets;
+
+    /** Transitive Hülle der Entwicklungen, Index = aktuelle Pokédex-ID, gesetztes Bit = irgendwann erreichbare Ziel-ID. */
+    private final BitSet[] reachableTargets;
+
+    /**
+     * Konstruktor, der beim Start die Entwicklungsregeln aus einer JSON-Ressource lädt und vorberechnet.
      * <p>
-     * Bei Fehlern (Datei fehlt, Syntaxfehler etc.) wird eine {@link InitializationException} geworfen,
+     * Bei Fehlern (Datei fehlt, Syntaxfehler, zyklische Regeln etc.) wird eine {@link InitializationException} geworfen,
      * damit das System gar nicht erst im fehlerhaften Zustand startet.
      * </p>
      *
@@ -60,6 +77,7 @@ public class EvolutionService {
      * @throws InitializationException Bei Fehlern beim Laden/Parsen der Datei
      */
     public EvolutionService(ObjectMapper objectMapper) {
+        Map<Integer, List<Integer>> rules;
         try {
             // Versucht, die JSON-Datei aus dem Ressourcenpfad zu laden
             InputStream is = getClass().getClassLoader().getResourceAsStream("first_gen/evolutions_rules/evolutions.json");
@@ -68,11 +86,17 @@ public class EvolutionService {
             }
 
             // Parse die JSON-Datei in eine typisierte Map<Integer, List<Integer>>
-            this.evolutionRules = objectMapper.readValue(is, new TypeReference<>() {});
+            rules = objectMapper.readValue(is, new TypeReference<>() {});
         } catch (Exception e) {
             logger.error("Fehler beim Laden der Entwicklungsregeln: {}", e.getMessage(), e);
             throw new InitializationException("Fehler beim initialisieren des EvolutionsService", e);
         }
+
+        this.evolutionRules = Collections.unmodifiableMap(new TreeMap<>(rules));
+        this.directTargets = compileDirectTargets(rules);
+        this.reachableTargets = compileClosure(directTargets);
+        this.evolutionChains = compileChains(directTargets);
+        logger.info("{} Entwicklungsregeln in {} Entwicklungsreihen geladen", rules.size(), new HashSet<>(evolutionChains.values()).size());
     }
 
     /**
@@ -86,10 +110,133 @@ public class EvolutionService {
      * @throws InvalidEvolutionException Wenn die gewünschte Entwicklung laut Regelwerk nicht erlaubt ist
      */
     public void validateEvolution(int currentPokedexId, int targetPokedexId) {
-        List<Integer> allowedTargets = evolutionRules.get(currentPokedexId);
-
-        if (allowedTargets == null || !allowedTargets.contains(targetPokedexId)) {
+        if (!isSet(directTargets, currentPokedexId, targetPokedexId)) {
             throw new InvalidEvolutionException("Die Entwicklung von " + currentPokedexId + " zu " + targetPokedexId + " ist nicht erlaubt");
         }
     }
+
+    /**
+     * Prüft, ob sich eine Art direkt oder über Zwischenstufen zu einer anderen Art entwickeln kann.
+     * <br>Beispiel: Bisasam (1) → Bisaflor (3) über Bisaknosp (2).
+     *
+     * @param currentPokedexId Die aktuelle Pokédex-ID
+     * @param targetPokedexId  Die gewünschte Ziel-Pokédex-ID
+     * @return true, wenn die Ziel-Art irgendwann erreicht werden kann
+     */
+    public boolean canEventuallyEvolve(int currentPokedexId, int targetPokedexId) {
+        return isSet(reachableTargets, currentPokedexId, targetPokedexId);
+    }
+
+    /**
+     * Liefert die vollständige Entwicklungsreihe einer Art (Vorstufen, die Art selbst und alle Entwicklungen).
+     * Arten ohne Entwicklung bilden eine Reihe mit nur sich selbst.
+     *
+     * @param pokedexId Pokédex-ID der Art
+     * @return Unveränderliche, aufsteigend sortierte Liste der Pokédex-IDs der Reihe
+     */
+    public List<Integer> getEvolutionChain(int pokedexId) {
+        return evolutionChains.getOrDefault(pokedexId, List.of(pokedexId));
+    }
+
+    /**
+     * Prüft ein Bit in einer der vorberechneten Tabellen, unbekannte IDs ergeben false.
+     */
+    private static boolean isSet(BitSet[] table, int from, int to) {
+        return from >= 0 && from < table.length && to >= 0 && to < table[from].size() && table[from].get(to);
+    }
+
+    /**
+     * Übersetzt die Regeln in ein Array von Bitsets, indiziert über die Pokédex-ID.
+     *
+     * @param rules Geladene Regeln
+     * @return Direkte Entwicklungen je Art (nie null, ggf. leer)
+     */
+    private static BitSet[] compileDirectTargets(Map<Integer, List<Integer>> rules) {
+        int maxId = 0;
+        for (Map.Entry<Integer, List<Integer>> rule : rules.entrySet()) {
+            maxId = Math.max(maxId, rule.getKey());
+            for (int target : rule.getValue()) {
+                maxId = Math.max(maxId, target);
+            }
+        }
+
+        BitSet[] direct = new BitSet[maxId + 1];
+        for (int id = 0; id <= maxId; id++) {
+            direct[id] = new BitSet(maxId + 1);
+        }
+        rules.forEach((current, targets) -> targets.forEach(direct[current]::set));
+        return direct;
+    }
+
+    /**
+     * Berechnet die transitive Hülle per Tiefensuche mit Memoisierung.
+     *
+     * @param direct Direkte Entwicklungen
+     * @return Alle erreichbaren Arten je Art
+     * @throws InitializationException Wenn die Regeln einen Zyklus enthalten
+     */
+    private static BitSet[] compileClosure(BitSet[] direct) {
+        BitSet[] closure = new BitSet[direct.length];
+        BitSet inProgress = new BitSet(direct.length);
+        for (int id = 0; id < direct.length; id++) {
+            closure(id, direct, closure, inProgress);
+        }
+        return closure;
+    }
+
+    private static BitSet closure(int id, BitSet[] direct, BitSet[] closure, BitSet inProgress) {
+        if (closure[id] != null) {
+            return closure[id];
+        }
+        if (inProgress.get(id)) {
+            throw new InitializationException("Die Entwicklungsregeln enthalten einen Zyklus bei Pokedex-ID " + id);
+        }
+        inProgress.set(id);
+        BitSet reachable = (BitSet) direct[id].clone();
+        for (int target = direct[id].nextSetBit(0); target >= 0; target = direct[id].nextSetBit(target + 1)) {
+            reachable.or(closure(target, direct, closure, inProgress));
+        }
+        inProgress.clear(id);
+        closure[id] = reachable;
+        return reachable;
+    }
+
+    /**
+     * Fasst alle über Entwicklungen verbundenen Arten zu Reihen zusammen (Zusammenhangskomponenten).
+     *
+     * @param direct Direkte Entwicklungen
+     * @return Reihe je beteiligter Art; alle Arten einer Reihe teilen sich dieselbe Liste
+     */
+    private static Map<Integer, List<Integer>> compileChains(BitSet[] direct) {
+        List<BitSet> neighbours = new ArrayList<>(direct.length);
+        for (int id = 0; id < direct.length; id++) {
+            neighbours.add((BitSet) direct[id].clone());
+        }
+        for (int id = 0; id < direct.length; id++) {
+            for (int target = direct[id].nextSetBit(0); target >= 0; target = direct[id].nextSetBit(target + 1)) {
+                neighbours.get(target).set(id);
+            }
+        }
+
+        Map<Integer, List<Integer>> chains = new TreeMap<>();
+        BitSet visited = new BitSet(direct.length);
+        for (int start = 0; start < direct.length; start++) {
+            if (visited.get(start) || neighbours.get(start).isEmpty()) {
+                continue;
+            }
+            BitSet members = new BitSet(direct.length);
+            Deque<Integer> pending = new ArrayDeque<>(List.of(start));
+            while (!pending.isEmpty()) {
+                int id = pending.pop();
+                if (!members.get(id)) {
+                    members.set(id);
+                    neighbours.get(id).stream().forEach(pending::push);
+                }
+            }
+            visited.or(members);
+            List<Integer> chain = members.stream().boxed().toList();
+            chain.forEach(id -> chains.put(id, chain));
+        }
+        return Collections.unmodifiableMap(chains);
+    }
 }
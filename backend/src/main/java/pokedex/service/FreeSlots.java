@@ -0,0 +1,83 @@
+package pokedex.service;
+
+import pokedex.model.Box;
+import pokedex.repository.OwnedPokemonRepository;
+import pokedex.repository.OwnedPokemonRepository.BoxSlot;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+
+/**
+ * Vergibt freie Plätze in einer oder mehreren Boxen.
+ * <p>
+ * Die belegten Plätze aller Boxen werden mit einer einzigen Abfrage gelesen, danach wird je Aufruf von
+ * {@link #next(Box)} der kleinste freie Platz vergeben und als belegt markiert. Plätze, die während derselben
+ * Operation frei werden, gibt {@link #release(Box, int)} wieder frei. Der Aufrufer muss dann dafür sorgen, dass
+ * das bisherige Pokémon den Platz vor dem neuen räumt (Unique-Constraint {@code box_id, slot}).
+ * </p>
+ *
+ * <b>Voraussetzung:</b>
+ * Die Boxen sind über ihren Belegungszähler bis zum Ende der Transaktion gesperrt (bedingtes Update oder
+ * {@code lockOccupancies}). Alle Operationen, die Pokémon in eine Box legen oder darin umsortieren, sperren
+ * zuerst diesen Zähler, daher kann keine parallele Transaktion denselben Platz vergeben.
+ *
+ * @author grubi
+ */
+final class FreeSlots {
+
+    /** Belegte Plätze je Box-ID. */
+    private final Map<Long, BitSet> used = new HashMap<>();
+
+    private FreeSlots() {
+    }
+
+    /**
+     * Liest die belegten Plätze der angegebenen Boxen.
+     *
+     * @param ownedRepo Repository für gefangene Pokémon
+     * @param boxIds    IDs der (bereits gesperrten) Boxen
+     * @return Die freien Plätze dieser Boxen
+     */
+    static FreeSlots of(OwnedPokemonRepository ownedRepo, Collection<Long> boxIds) {
+        FreeSlots slots = new FreeSlots();
+        if (!boxIds.isEmpty()) {
+            for (BoxSlot slot : ownedRepo.findSlotsByBoxIds(boxIds)) {
+                slots.used.computeIfAbsent(slot.getBoxId(), id -> new BitSet()).set(slot.getSlot());
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Vergibt den kleinsten freien Platz der Box.
+     *
+     * @param box Die Box
+     * @return Der vergebene Platz, oder leer, wenn alle Plätze der Box belegt sind
+     */
+    OptionalInt next(Box box) {
+        BitSet slots = used.computeIfAbsent(box.getId(), id -> new BitSet());
+        int slot = slots.nextClearBit(0);
+        if (slot >= box.getCapacity()) {
+            return OptionalInt.empty();
+        }
+        slots.set(slot);
+        return OptionalInt.of(slot);
+    }
+
+    /**
+     * Gibt einen Platz wieder frei, den ein Pokémon während derselben Operation räumt.
+     * Für Boxen, deren Plätze nicht gelesen wurden, ist der Aufruf wirkungslos (dort wird kein Platz vergeben).
+     *
+     * @param box  Die Box, aus der das Pokémon entfernt wird
+     * @param slot Sein bisheriger Platz
+     */
+    void release(Box box, int slot) {
+        BitSet slots = used.get(box.getId());
+        if (slots != null) {
+            slots.clear(slot);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package pokedex.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pokedex.dto.OwnedPokemonChangeDTO;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verteilt Änderungen an der eigenen Sammlung per Server-Sent Events an alle verbundenen Clients.
+ * <p>
+ * Die Services veröffentlichen jede Änderung als {@link OwnedPokemonChangeDTO}. Dieser Feed empfängt sie erst
+ * nach erfolgreichem Commit der Transaktion; zurückgerollte Änderungen werden also nie verschickt.
+ * Jede Änderung wird genau einmal serialisiert und als Event mit dem Namen des Typs
+ * (z.B. {@code moved}) an alle Abonnenten geschrieben.
+ * </p>
+ *
+ * <b>Hinweise:</b>
+ * <ul>
+ *   <li>Jeder Client hat eine eigene, begrenzte Warteschlange. Der Commit legt das Event nur dort ab;
+ *   geschrieben wird von einem kleinen Sender-Pool, je Client von höchstens einem Thread gleichzeitig
+ *   (Reihenfolge der Änderungen bleibt je Client erhalten)</li>
+ *   <li>Ein hängender Client blockiert nur seinen eigenen Sender-Thread, nicht die übrigen Clients.
+ *   Läuft seine Warteschlange über, wird die Verbindung geschlossen; der Browser verbindet sich neu
+ *   und gleicht verpasste Änderungen über den Delta-Sync ({@code /api/pokemon/changes}) ab</li>
+ *   <li>Abgebrochene Verbindungen werden beim nächsten Versand bzw. per Timeout entfernt;
+ *   Browser ({@code EventSource}) verbinden sich danach selbstständig neu</li>
+ *   <li>Konfiguration: <code>pokedex.events.timeout</code> (Standard: 30 Minuten),
+ *   <code>pokedex.events.queue-capacity</code> (Events je Client, Standard: 256) und
+ *   <code>pokedex.events.sender-threads</code> (Standard: 4)</li>
+ *   <li><b>Nur für eine einzelne Instanz:</b> Abonnenten und Events leben im Speicher dieses Prozesses.
+ *   Laufen mehrere Instanzen hinter einem Load-Balancer, erhält ein Client nur die Änderungen der Instanz,
+ *   mit der er verbunden ist. Dafür bräuchte es einen gemeinsamen Kanal (z.B. Message-Broker); bis dahin
+ *   bleibt der Delta-Sync ({@code /api/pokemon/changes}) die instanzübergreifende Quelle</li>
+ * </ul>
+ *
+ * @author grubi
+ */
+@Component
+public class OwnedPokemonChangeFeed {
+
+    /** Logger für Verbindungs- und Fehlermeldungen. */
+    private static final Logger logger = LoggerFactory.getLogger(OwnedPokemonChangeFeed.class);
+
+    /** ObjectMapper zum (einmaligen) Serialisieren jeder Änderung. */
+    private final ObjectMapper objectMapper;
+
+    /** Timeout einer einzelnen SSE-Verbindung. */
+    private final Duration timeout;
+
+    /** Maximale Anzahl noch nicht verschickter Events je Client. */
+    private final int queueCapacity;
+
+    /** Alle aktuell verbundenen Clients. */
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Threads, die die Events an die Clients schreiben. Je Client liegt höchstens ein Auftrag in der
+     * Warteschlange des Pools; sie ist trotzdem begrenzt, damit auch sehr viele Clients den Speicher nicht
+     * füllen (abgelehnte Clients werden getrennt).
+     */
+    private final ThreadPoolExecutor sender;
+
+    /**
+     * Konstruktor für Dependency Injection.
+     *
+     * @param objectMapper  ObjectMapper der Anwendung
+     * @param timeout       Timeout je SSE-Verbindung
+     * @param queueCapacity Maximale Anzahl noch nicht verschickter Events je Client
+     * @param senderThreads Anzahl der Threads, die Events an die Clients schreiben
+     */
+    public OwnedPokemonChangeFeed(ObjectMapper objectMapper,
+                                  @Value("${pokedex.events.timeout:PT30M}") Duration timeout,
+                                  @Value("${pokedex.events.queue-capacity:256}") int queueCapacity,
+                                  @Value("${pokedex.events.sender-threads:4}") int senderThreads) {
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(1024), runnable -> {
+                    Thread thread = new Thread(runnable, "pokemon-change-feed-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.sender.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Meldet einen neuen Client am Feed an.
+     *
+     * @return Emitter, über den der Client die Events erhält
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeout.toMillis()));
+    }
+
+    /**
+     * Meldet einen Client mit dem übergebenen Emitter am Feed an.
+     *
+     * @param emitter Emitter des Clients
+     * @return Der übergebene Emitter
+     */
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(queueCapacity));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        logger.debug("Client für Änderungen angemeldet ({} verbunden)", subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Nimmt eine Änderung nach dem Commit entgegen und legt sie in die Warteschlange jedes Clients.
+     * Außerhalb einer Transaktion veröffentlichte Änderungen werden sofort eingereiht.
+     * Blockiert nie, auch wenn einzelne Clients nicht mehr lesen.
+     *
+     * @param change Die Änderung
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(OwnedPokemonChangeDTO change) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            logger.error("Änderung konnte nicht serialisiert werden: {}", change, e);
+            return;
+        }
+        Event event = new Event(change.getType().name().toLowerCase(Locale.ROOT), data);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * Liefert die Anzahl aktuell verbundener Clients.
+     *
+     * @return Anzahl der Abonnenten
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Beendet beim Herunterfahren alle offenen Verbindungen.
+     */
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * Ein zu verschickendes Event.
+     *
+     * @param name Name des Events (Typ der Änderung)
+     * @param data Serialisierte Änderung
+     */
+    private record Event(String name, String data) {
+    }
+
+    /**
+     * Ein verbundener Client mit seiner Warteschlange.
+     * <p>
+     * Schreiben und Schließen übernimmt immer nur der Thread, der gerade {@link #drain()} ausführt;
+     * so wartet nie ein zweiter Thread auf einen hängenden Emitter.
+     * </p>
+     */
+    private final class Subscriber {
+
+        /** Emitter des Clients. */
+        private final SseEmitter emitter;
+
+        /** Noch nicht verschickte Events. */
+        private final BlockingQueue<Event> pending;
+
+        /** Gesetzt, solange ein Sender-Thread für diesen Client eingeplant ist oder schreibt. */
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        /** Gesetzt, sobald der Client getrennt werden soll. */
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, BlockingQueue<Event> pending) {
+            this.emitter = emitter;
+            this.pending = pending;
+        }
+
+        /**
+         * Reiht ein Event ein; läuft die Warteschlange über, wird der Client getrennt.
+         */
+        private void offer(Event event) {
+            if (closed) {
+                return;
+            }
+            if (!pending.offer(event)) {
+                close("Warteschlange voll");
+            }
+            schedule();
+        }
+
+        /**
+         * Plant einen Sender-Thread ein, falls für diesen Client noch keiner läuft.
+         */
+        private void schedule() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                close("Sender ausgelastet");
+                pending.clear();
+                emitter.complete();
+                draining.set(false);
+            }
+        }
+
+        /**
+         * Schreibt alle wartenden Events an den Client bzw. schließt die Verbindung, falls sie getrennt wurde.
+         */
+        private void drain() {
+            try {
+                Event event;
+                while (!closed && (event = pending.poll()) != null) {
+                    emitter.send(SseEmitter.event().name(event.name()).data(event.data()));
+                }
+                if (closed) {
+                    pending.clear();
+                    emitter.complete();
+                    return;
+                }
+            } catch (IOException | IllegalStateException e) {
+                closed = true;
+                pending.clear();
+                subscribers.remove(this);
+                logger.debug("Client für Änderungen getrennt: {}", e.getMessage());
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!pending.isEmpty()) {
+                schedule();
+            }
+        }
+
+        /**
+         * Markiert den Client als getrennt; geschlossen wird er vom nächsten {@link #drain()}.
+         */
+        private void close(String reason) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            logger.warn("Client für Änderungen getrennt: {}", reason);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package pokedex.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+import pokedex.dto.CreateOwnedDTO;
+import pokedex.dto.ImportResultDTO;
+import pokedex.dto.OwnedPokemonChangeDTO;
+import pokedex.exception.BoxFullException;
+import pokedex.exception.InvalidUpdateException;
+import pokedex.exception.NotFoundException;
+import pokedex.model.*;
+import pokedex.repository.BoxRepository;
+import pokedex.repository.BoxRepository.BoxOccupancy;
+import pokedex.repository.OwnedPokemonRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Service für den Sammel-Import gefangener Pokémon, z.B. beim Übernehmen ganzer Spielstände.
+ * <p>
+ * Der Import liest ein JSON-Array von {@link CreateOwnedDTO}-Einträgen direkt aus dem Eingabestrom.
+ * Die Datei wird dabei nie vollständig im Speicher gehalten, nur die bereits geprüften Einträge. Da keine Box mehr
+ * Einträge aufnehmen kann, als sie Plätze hat, ist deren Anzahl durch die Kapazität aller Boxen begrenzt.
+ * </p>
+ *
+ * <b>Ablauf:</b>
+ * <ul>
+ *   <li>Zuerst wird der Eingabestrom vollständig gelesen, ohne Transaktion und ohne Sperren. Ein langsamer oder
+ *   großer Upload hält daher keine Box gesperrt.</li>
+ *   <li>Arten werden aus dem {@link PokemonSpeciesCatalog} aufgelöst, ohne Datenbankzugriff</li>
+ *   <li>Jeder Eintrag wird wie beim Einzelanlegen validiert (Bean Validation, Art, Box, Kapazität der Box)</li>
+ *   <li>Danach werden in einer Transaktion nur die Boxen gesperrt, in die importiert wird. Gegen ihre aktuelle
+ *   Belegung wird die Kapazität geprüft und die Plätze werden vergeben.</li>
+ *   <li>Gültige Einträge werden in Blöcken gespeichert. Die IDs kommen blockweise aus einer Sequenz,
+ *   dadurch bündelt Hibernate die Inserts per JDBC-Batch. Nach jedem Block wird der Persistence Context geleert.</li>
+ *   <li>Zum Schluss wird der Belegungszähler jeder Box mit genau einem Update angepasst</li>
+ * </ul>
+ *
+ * <b>Hinweis:</b>
+ * Der Import ist atomar: Der erste ungültige Eintrag bricht den gesamten Import ab (Rollback),
+ * die Fehlermeldung nennt die Nummer des Eintrags.
+ *
+ * @author grubi
+ */
+@Service
+public class OwnedPokemonImportService {
+
+    /** Anzahl Einträge, die gemeinsam gespeichert werden, bevor der Persistence Context geleert wird. */
+    static final int CHUNK_SIZE = 500;
+
+    /** Logger für Nachvollziehbarkeit und Debugging. */
+    private static final Logger logger = LoggerFactory.getLogger(OwnedPokemonImportService.class);
+
+    /** In-Memory-Katalog aller Pokémon-Arten. */
+    private final PokemonSpeciesCatalog speciesCatalog;
+
+    /** Repository für Boxen. */
+    private final BoxRepository boxRepo;
+
+    /** Verzeichnis aller Boxen. */
+    private final BoxRegistry boxRegistry;
+
+    /** Repository für gefangene Pokémon. */
+    private final OwnedPokemonRepository ownedRepo;
+
+    /** EntityManager zum Leeren des Persistence Context nach jedem Block. */
+    private final EntityManager entityManager;
+
+    /** JSON-Mapper zum Lesen der einzelnen Einträge. */
+    private final ObjectMapper objectMapper;
+
+    /** Validator für die Bean-Validation-Regeln von {@link CreateOwnedDTO}. */
+    private final Validator validator;
+
+    /** Veröffentlicht den Import für den {@link OwnedPokemonChangeFeed}. */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** Führt das Speichern in einer Transaktion aus (erst nach dem Lesen des Eingabestroms). */
+    private final TransactionOperations transactionOperations;
+
+    /**
+     * Konstruktor für Dependency Injection.
+     * @param speciesCatalog In-Memory-Katalog aller Pokémon-Arten
+     * @param boxRepo        Repository für Boxen
+     * @param boxRegistry    Verzeichnis aller Boxen
+     * @param ownedRepo      Repository für gefangene Pokémon
+     * @param entityManager  JPA EntityManager
+     * @param objectMapper   JSON-Mapper der Anwendung
+     * @param validator      Bean-Validator der Anwendung
+     * @param eventPublisher Veröffentlicht Änderungen an der Sammlung
+     * @param transactionOperations Transaktion für das Speichern
+     */
+    public OwnedPokemonImportService(PokemonSpeciesCatalog speciesCatalog,
+                                     BoxRepository boxRepo,
+                                     BoxRegistry boxRegistry,
+                                     OwnedPokemonRepository ownedRepo,
+                                     EntityManager entityManager,
+                                     ObjectMapper objectMapper,
+                                     Validator validator,
+                                     ApplicationEventPublisher eventPublisher,
+                                     TransactionOperations transactionOperations) {
+        this.speciesCatalog = speciesCatalog;
+        this.boxRepo = boxRepo;
+        this.boxRegistry = boxRegistry;
+        this.ownedRepo = ownedRepo;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.transactionOperations = transactionOperations;
+    }
+
+    /**
+     * Importiert alle Pokémon aus einem JSON-Array im Eingabestrom.
+     *
+     * @param in Eingabestrom mit einem JSON-Array von {@link CreateOwnedDTO}-Einträgen
+     * @return Anzahl importierter Pokémon
+     * @throws InvalidUpdateException Wenn die Eingabe kein gültiges JSON-Array ist oder ein Eintrag ungültig ist
+     * @throws NotFoundException      Wenn eine Art oder Box eines Eintrags nicht existiert
+     * @throws BoxFullException       Wenn eine Box durch den Import ihre Kapazität überschreiten würde
+     */
+    public ImportResultDTO importPokemon(InputStream in) {
+        List<OwnedPokemon> pokemon = readPokemon(in, boxRegistry.getBoxes());
+        return transactionOperations.execute(status -> store(pokemon));
+    }
+
+    /**
+     * Liest und validiert alle Einträge des Eingabestroms, ohne Datenbankzugriff.
+     * <p>
+     * Je Box werden höchstens so viele Einträge angenommen, wie sie Plätze hat. Die Belegung selbst wird erst
+     * beim Speichern unter Sperre geprüft.
+     * </p>
+     *
+     * @param in    Eingabestrom mit einem JSON-Array von {@link CreateOwnedDTO}-Einträgen
+     * @param boxes Alle Boxen, nach Edition und Name
+     * @return Die (noch nicht gespeicherten) Pokémon in Eingabereihenfolge
+     */
+    private List<OwnedPokemon> readPokemon(InputStream in, Map<Edition, Map<BoxName, Box>> boxes) {
+        List<OwnedPokemon> pokemon = new ArrayList<>();
+        Map<Long, Integer> perBox = new HashMap<>();
+        try (JsonParser parser = objectMapper.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidUpdateException("Der Import erwartet ein JSON-Array von Pokemon");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                int entry = pokemon.size() + 1;
+                OwnedPokemon next = toPokemon(entry, parser.readValueAs(CreateOwnedDTO.class), boxes);
+                if (perBox.merge(next.getBox().getId(), 1, Integer::sum) > next.getBox().getCapacity()) {
+                    throw boxFull(entry, next);
+                }
+                pokemon.add(next);
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidUpdateException("Eintrag " + (pokemon.size() + 1) + " konnte nicht gelesen werden: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return pokemon;
+    }
+
+    /**
+     * Speichert die gelesenen Pokémon. Muss in einer Transaktion laufen.
+     * <p>
+     * Sperrt nur die Boxen, in die importiert wird (aufsteigende ID-Reihenfolge), und vergibt gegen deren
+     * aktuelle Belegung die Plätze.
+     * </p>
+     *
+     * @param pokemon Die gelesenen Pokémon in Eingabereihenfolge
+     * @return Anzahl importierter Pokémon
+     * @throws BoxFullException Wenn eine Box durch den Import ihre Kapazität überschreiten würde
+     */
+    private ImportResultDTO store(List<OwnedPokemon> pokemon) {
+        Set<Long> ids = pokemon.stream()
+                .map(p -> p.getBox().getId())
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, Integer> occupancy = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (BoxOccupancy locked : boxRepo.lockOccupancies(ids)) {
+                occupancy.put(locked.getId(), locked.getOccupancy());
+            }
+        }
+        FreeSlots freeSlots = FreeSlots.of(ownedRepo, ids);
+
+        Map<Long, Integer> added = new TreeMap<>();
+        List<OwnedPokemon> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (int i = 0; i < pokemon.size(); i++) {
+            OwnedPokemon next = pokemon.get(i);
+            Long boxId = next.getBox().getId();
+            OptionalInt slot = occupancy.get(boxId) < next.getBox().getCapacity()
+                    ? freeSlots.next(next.getBox())
+                    : OptionalInt.empty();
+            if (slot.isEmpty()) {
+                throw boxFull(i + 1, next);
+            }
+            next.setSlot(slot.getAsInt());
+            occupancy.merge(boxId, 1, Integer::sum);
+            added.merge(boxId, 1, Integer::sum);
+
+            chunk.add(next);
+            if (chunk.size() == CHUNK_SIZE) {
+                saveChunk(chunk);
+            }
+        }
+        saveChunk(chunk);
+
+        // Je Box genau ein Zähler-Update
+        added.forEach(boxRepo::adjustOccupancy);
+
+        logger.info("{} Pokemon per Sammel-Import hinzugefügt", pokemon.size());
+        if (!pokemon.isEmpty()) {
+            // Ein einzelnes Event statt eines je Eintrag: Clients laden ihre Listen einmalig neu
+            eventPublisher.publishEvent(OwnedPokemonChangeDTO.imported());
+        }
+        return new ImportResultDTO(pokemon.size());
+    }
+
+    /**
+     * Erzeugt die Fehlermeldung für einen Eintrag, dessen Box keinen Platz mehr hat.
+     *
+     * @param entry   Laufende Nummer des Eintrags
+     * @param pokemon Das Pokémon des Eintrags
+     * @return Die Exception
+     */
+    private static BoxFullException boxFull(int entry, OwnedPokemon pokemon) {
+        return new BoxFullException("Eintrag " + entry + ": Die Box " + pokemon.getBox().getName()
+                + " der Edition " + pokemon.getEdition() + " ist schon voll");
+    }
+
+    /**
+     * Speichert einen Block von Pokémon (per JDBC-Batch) und leert danach den Persistence Context,
+     * damit der Speicherbedarf auch bei sehr großen Importen konstant bleibt.
+     *
+     * @param chunk Die zu speichernden Pokémon, wird anschließend geleert
+     */
+    private void saveChunk(List<OwnedPokemon> chunk) {
+        ownedRepo.saveAll(chunk);
+        entityManager.flush();
+        entityManager.clear();
+        chunk.clear();
+    }
+
+    /**
+     * Validiert einen Eintrag und löst Art und Box aus dem Speicher auf.
+     *
+     * @param entry   Laufende Nummer des Eintrags (für Fehlermeldungen)
+     * @param request Der gelesene Eintrag
+     * @param boxes   Alle Boxen, nach Edition und Name
+     * @return Das (noch nicht gespeicherte) Pokémon
+     */
+    private OwnedPokemon toPokemon(int entry, CreateOwnedDTO request, Map<Edition, Map<BoxName, Box>> boxes) {
+        Set<ConstraintViolation<CreateOwnedDTO>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new InvalidUpdateException("Eintrag " + entry + ": " + violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+
+        PokemonSpecies species = speciesCatalog.findByPokedexId(request.getPokedexId())
+                .orElseThrow(() -> new NotFoundException("Eintrag " + entry + ": Kein Pokemon mit der Pokedex-ID "
+                        + request.getPokedexId() + " gefunden"));
+        Box box = boxes.getOrDefault(request.getEdition(), Map.of()).get(request.getBox());
+        if (box == null) {
+            throw new NotFoundException("Eintrag " + entry + ": Box nicht gefunden");
+        }
+
+        return new OwnedPokemon(species, request.getNickname(), request.getLevel(), request.getEdition(), box);
+    }
+}
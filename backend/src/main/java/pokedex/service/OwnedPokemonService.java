@@ -3,18 +3,34 @@ package pokedex.service;
 import pokedex.exception.BoxFullException;
 import pokedex.exception.InvalidUpdateException;
 import pokedex.exception.NotFoundException;
+import pokedex.exception.PreconditionFailedException;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import pokedex.dto.CreateOwnedDTO;
+import pokedex.dto.OwnedPokemonChangeDTO;
+import pokedex.dto.OwnedPokemonChangesDTO;
+import pokedex.dto.OwnedPokemonDTO;
+import pokedex.dto.OwnedPokemonPageDTO;
 import pokedex.dto.UpdateOwnedDTO;
 import pokedex.model.Box;
 import pokedex.model.BoxName;
+import pokedex.model.Edition;
 import pokedex.model.OwnedPokemon;
+import pokedex.model.OwnedPokemonTombstone;
 import pokedex.model.PokemonSpecies;
 import pokedex.repository.OwnedPokemonRepository;
+import pokedex.repository.OwnedPokemonTombstoneRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service zur Verwaltung und Validierung aller gefangenen Pokémon des Nutzers.
@@ -28,6 +44,7 @@ import java.util.List;
  * <ul>
  *   <li>Validiert alle Business Rules für gefangene Pokémon</li>
  *   <li>Wirft passende Exceptions (z.B. {@link BoxFullException}, {@link InvalidUpdateException}, {@link NotFoundException})</li>
+ *   <li>Schützt Bearbeitungen per optimistischem Sperren ({@link PreconditionFailedException})</li>
  *   <li>Verwendet Logging für alle wichtigen Aktionen und Fehlerfälle</li>
  *   <li>Nutzen von Service-Klassen für Species, Boxen und Evolutionsregeln</li>
  * </ul>
@@ -43,17 +60,23 @@ import java.util.List;
 @Service
 public class OwnedPokemonService {
 
-    /** Logger für alle wichtigen Aktionen. */
+    /** Logger für alle wichtigen Aktionen (Meldungen je Anfrage auf DEBUG, Abweichungen auf WARN). */
     private static final Logger logger = LoggerFactory.getLogger(OwnedPokemonService.class);
 
     /** Repository für gefangene Pokémon. */
     private final OwnedPokemonRepository ownedRepo;
+    /** Repository für gelöschte Pokémon (Delta-Sync). */
+    private final OwnedPokemonTombstoneRepository tombstoneRepo;
     /** Service für Pokémon-Arten. */
     private final PokemonSpeciesService speciesService;
     /** Service für Boxen/Teams. */
     private final BoxService boxService;
     /** Service für Evolutionsregeln. */
     private final EvolutionService evolutionService;
+    /** Veröffentlicht Änderungen für den {@link OwnedPokemonChangeFeed}. */
+    private final ApplicationEventPublisher eventPublisher;
+    /** Vergibt die Änderungsversionen für den Delta-Sync. */
+    private final ChangeVersionClock changeVersionClock;
 
     /**
      * Konstruktor für Dependency Injection.
@@ -61,25 +84,106 @@ public class OwnedPokemonService {
      * @param speciesService   Service für Arten
      * @param boxService       Service für Boxen/Teams
      * @param evolutionService Service für Evolutionsregeln
+     * @param eventPublisher   Veröffentlicht Änderungen an der Sammlung
+     * @param tombstoneRepo    Repository für gelöschte Pokémon
+     * @param changeVersionClock Vergibt die Änderungsversionen
      */
     public OwnedPokemonService(OwnedPokemonRepository ownedRepo,
                                PokemonSpeciesService speciesService,
                                BoxService boxService,
-                               EvolutionService evolutionService) {
+                               EvolutionService evolutionService,
+                               ApplicationEventPublisher eventPublisher,
+                               OwnedPokemonTombstoneRepository tombstoneRepo,
+                               ChangeVersionClock changeVersionClock) {
 
         this.ownedRepo = ownedRepo;
         this.speciesService = speciesService;
         this.boxService = boxService;
         this.evolutionService = evolutionService;
+        this.eventPublisher = eventPublisher;
+        this.tombstoneRepo = tombstoneRepo;
+        this.changeVersionClock = changeVersionClock;
     }
 
     /**
-     * Gibt eine Liste aller gefangenen Pokémon zurück.
+     * Gibt alle gefangenen Pokémon direkt als {@link OwnedPokemonDTO} zurück.
+     * <p>
+     * Reiner Lesezugriff: Die Daten werden per Konstruktorausdruck projiziert,
+     * es entstehen keine verwalteten Entitäten und kein Dirty-Checking.
+     * </p>
+     *
+     * @return Liste aller eigenen Pokémon als DTO, sortiert nach ID
+     */
+    @Transactional(readOnly = true)
+    public List<OwnedPokemonDTO> getAllPokemonDTOs() {
+        return ownedRepo.findAllDTOs();
+    }
+
+    /**
+     * Lädt eine Seite gefangener Pokémon per Keyset-Paginierung (fortgesetzt über die ID).
+     * <p>
+     * Es wird ein Eintrag mehr als angefordert gelesen, um festzustellen, ob weitere Seiten folgen.
+     * </p>
+     *
+     * @param after     ID des letzten Eintrags der vorherigen Seite (null für die erste Seite)
+     * @param limit     Maximale Anzahl Einträge dieser Seite
+     * @param edition   Optionaler Filter auf die Edition
+     * @param box       Optionaler Filter auf den Boxnamen
+     * @param pokedexId Optionaler Filter auf die Art
+     * @return Die Seite inkl. Cursor für die nächste Seite
+     */
+    @Transactional(readOnly = true)
+    public OwnedPokemonPageDTO getPokemonPage(Long after, int limit, Edition edition, BoxName box, Integer pokedexId) {
+        List<OwnedPokemonDTO> rows = ownedRepo.findPageAfter(
+                after != null ? after : 0L, edition, box, pokedexId, Limit.of(limit + 1));
+
+        if (rows.size() <= limit) {
+            return new OwnedPokemonPageDTO(rows, null);
+        }
+        List<OwnedPokemonDTO> items = rows.subList(0, limit);
+        return new OwnedPokemonPageDTO(List.copyOf(items), (long) items.get(limit - 1).getId());
+    }
+
+    /**
+     * Übergibt alle (gefilterten) gefangenen Pokémon nacheinander an den Consumer, direkt vom JDBC-Cursor.
+     * <p>
+     * Der Speicherbedarf bleibt unabhängig von der Größe der Sammlung konstant.
+     * Die Transaktion (und damit die DB-Verbindung) bleibt bis zum Ende des Streamings offen.
+     * </p>
      *
-     * @return Liste aller eigenen Pokémon
+     * @param edition   Optionaler Filter auf die Edition
+     * @param box       Optionaler Filter auf den Boxnamen
+     * @param pokedexId Optionaler Filter auf die Art
+     * @param consumer  Empfänger der einzelnen Einträge
      */
-    public List<OwnedPokemon> getAllPokemon() {
-        return ownedRepo.findAll();
+    @Transactional(readOnly = true)
+    public void streamPokemon(Edition edition, BoxName box, Integer pokedexId, Consumer<OwnedPokemonDTO> consumer) {
+        try (Stream<OwnedPokemonDTO> stream = ownedRepo.streamDTOs(edition, box, pokedexId)) {
+            stream.forEach(consumer);
+        }
+    }
+
+    /**
+     * Liefert alle Änderungen an der Sammlung seit der angegebenen Version (Delta-Sync).
+     * <p>
+     * Die Obergrenze wird vor den Abfragen über {@link ChangeVersionClock#safeVersion()} bestimmt. Änderungen
+     * noch offener Transaktionen mit kleinerer Version können so nicht übersprungen werden; sie werden spätestens
+     * beim nächsten Abgleich geliefert. Ein Pokémon, das mehrfach geändert wurde, erscheint nur mit seinem
+     * aktuellen Stand.
+     * </p>
+     *
+     * @param since Zuletzt erhaltene Version (0 für einen vollständigen Abgleich)
+     * @return Geänderte Pokémon, gelöschte IDs und die neue Version
+     */
+    @Transactional(readOnly = true)
+    public OwnedPokemonChangesDTO getChangesSince(long since) {
+        long until = changeVersionClock.safeVersion();
+        if (until <= since) {
+            return new OwnedPokemonChangesDTO(since, List.of(), List.of());
+        }
+        return new OwnedPokemonChangesDTO(until,
+                ownedRepo.findDTOsChangedBetween(since, until),
+                tombstoneRepo.findDeletedIds(since, until));
     }
 
     /**
@@ -90,7 +194,7 @@ public class OwnedPokemonService {
      * @throws NotFoundException Wenn das Pokémon nicht existiert
      */
     public OwnedPokemon getPokemonById(Long id) {
-        logger.info("Suche das gefangene Pokemon per dessen ID. {}", id);
+        logger.debug("Suche das gefangene Pokemon per dessen ID. {}", id);
         return ownedRepo.findById(id)
                 .orElseThrow(() -> new NotFoundException("Pokemon mit der ID " + id + " nicht gefunden"));
     }
@@ -99,6 +203,8 @@ public class OwnedPokemonService {
      * Fügt ein neues gefangenes Pokémon hinzu.
      * <p>
      * Validiert, dass die Pokémon-Art existiert, die Box angegeben ist und nicht voll ist.
+     * Der Platz in der Box wird per bedingtem Update auf den Belegungszähler reserviert,
+     * parallele Anfragen können die Kapazität daher nicht überschreiten.
      * </p>
      *
      * @param request Die Eingabedaten für das neue Pokémon
@@ -107,8 +213,10 @@ public class OwnedPokemonService {
      * @throws IllegalStateException Wenn keine Ziel-Box angegeben wurde
      * @throws BoxFullException     Wenn die Ziel-Box bereits voll ist
      */
+    @Transactional
+    @Timed(value = "pokedex.pokemon.add", description = "Hinzufügen eines gefangenen Pokémon")
     public OwnedPokemon addPokemon(CreateOwnedDTO request) {
-        logger.info("Füge ein neues gefangenes Pokemon hinzu: {}", request);
+        logger.debug("Füge ein neues gefangenes Pokemon hinzu: {}", request);
 
         // Lade die Species-Daten des gefangenen Pokémon
         PokemonSpecies species = speciesService.getByPokedexId(request.getPokedexId())
@@ -121,112 +229,156 @@ public class OwnedPokemonService {
             throw new IllegalStateException("Box muss angegeben werden");
         }
 
-        // Prüfung, ob Ziel-Box voll ist.
-        if (boxService.isFull(targetBox, request.getEdition())) {
+        // Ziel-Box einmalig laden und atomar einen Platz reservieren (schlägt fehl, wenn die Box voll ist).
+        Box box = boxService.getBoxByNameAndEdition(targetBox, request.getEdition());
+        if (!boxService.tryIncreaseOccupancy(box)) {
             String message = (targetBox == BoxName.TEAM)
                     ? "Team ist schon voll (max. 6 Pokemon)"
                     : "Zielbox ist schon voll (max. 20 Pokemon)";
             logger.warn(message);
             throw new BoxFullException(message);
         }
+        // Die Box ist durch die Reservierung gesperrt, der erste freie Platz kann gefahrlos vergeben werden
+        int slot = boxService.allocateSlot(box);
 
         // Erstellt einen neuen Pokémon-Eintrag
-        Box box = boxService.getBoxByNameAndEdition(targetBox, request.getEdition());
         OwnedPokemon pokemon = new OwnedPokemon(
                 species,
                 request.getNickname(),
                 request.getLevel(),
                 request.getEdition(),
-                box);
+                box,
+                slot);
 
-        logger.info("Neues Pokemon erfolgreich hinzugefügt: {}", pokemon);
-        return ownedRepo.save(pokemon);
+        OwnedPokemon saved = ownedRepo.save(pokemon);
+        logger.debug("Neues Pokemon erfolgreich hinzugefügt: {}", saved);
+        eventPublisher.publishEvent(OwnedPokemonChangeDTO.created(OwnedPokemonDTO.from(saved)));
+        return saved;
     }
 
     /**
      * Aktualisiert ein gefangenes Pokémon.
      * <p>
-     * Alle Felder (Level, Box, Edition, Nickname, Entwicklung) werden geprüft und ggf. aktualisiert.
+     * Nur gesetzte Felder (Level, Box, Edition, Nickname, Art) werden übernommen ("partial update").
      * Spielregeln (z.B. Level nur erhöhen, erlaubte Evolution) werden geprüft.
      * </p>
+     * <p>
+     * Die Bearbeitung läuft in einer Transaktion als feste Abfolge:
+     * <ol>
+     *   <li>Pokémon inkl. Art und Box mit einer einzigen Abfrage laden; Ziel-Box und neue Art kommen aus
+     *   {@link BoxRegistry} bzw. {@link PokemonSpeciesCatalog} und kosten keinen Datenbankzugriff</li>
+     *   <li>Alle Regeln gegen diesen Stand im Speicher prüfen, bevor irgendetwas geändert wird</li>
+     *   <li>Bei einem Boxwechsel den Platz in der Ziel-Box reservieren (bedingtes Update, siehe
+     *   {@link BoxService#transferOccupancy})</li>
+     *   <li>Alle Änderungen übernehmen und mit einem einzigen Flush schreiben</li>
+     * </ol>
+     * Es wird genau ein Änderungsereignis veröffentlicht ({@code MOVED} bei Box-/Editionswechsel, sonst {@code UPDATED}).
+     * </p>
+     * <p>
+     * Optimistisches Sperren: Werden erwartete Versionen übergeben (ETags aus {@code If-Match}), muss eine davon
+     * der aktuellen Version entsprechen. Ändert eine parallele Transaktion das Pokémon nach dem Laden, schlägt der Commit
+     * über die {@code @Version}-Spalte fehl. In beiden Fällen wird nichts überschrieben.
+     * </p>
      *
-     * @param id      Die ID des Pokémon
-     * @param request Die neuen Daten (nur geänderte Felder werden übernommen)
+     * @param id               Die ID des Pokémon
+     * @param request          Die neuen Daten (nur gesetzte Felder werden übernommen)
+     * @param expectedVersions Erwartete Versionen des Pokémon (null: keine Prüfung; leer: passt nie)
      * @return Das aktualisierte Pokémon
-     * @throws InvalidUpdateException   Wenn Regeln verletzt werden (z.B. Level gesenkt)
-     * @throws NotFoundException        Wenn Pokémon oder neue Species nicht existieren
-     * @throws BoxFullException        Wenn die neue Ziel-Box voll ist
+     * @throws InvalidUpdateException      Wenn Regeln verletzt werden (z.B. Level gesenkt)
+     * @throws NotFoundException           Wenn Pokémon, Ziel-Box oder neue Species nicht existieren
+     * @throws BoxFullException            Wenn die neue Ziel-Box voll ist
+     * @throws PreconditionFailedException Wenn die aktuelle Version keiner der erwarteten Versionen entspricht
      */
-    public OwnedPokemon updatePokemon(Long id, UpdateOwnedDTO request) {
-        OwnedPokemon existing = getPokemonById(id);
-
-        boolean updated = false;
-
-        // Level ändern
-        if (existing.getLevel() != (request.getLevel())) {
-            if (request.getLevel() < existing.getLevel()) {
-                logger.warn("Versuch, das Level eines gefangenen Pokemon zu senken: {}", existing);
-                throw new InvalidUpdateException("Level kann nicht gesenkt werden");
-            }
-            existing.setLevel(request.getLevel());
-            logger.info("Level von Pokemon {} aktualisiert auf {}", id, request.getLevel());
-            updated = true;
+    @Transactional
+    @Timed(value = "pokedex.pokemon.update", description = "Bearbeiten eines gefangenen Pokémon")
+    public OwnedPokemon updatePokemon(Long id, UpdateOwnedDTO request, Set<Long> expectedVersions) {
+        OwnedPokemon existing = ownedRepo.findWithSpeciesAndBoxById(id)
+                .orElseThrow(() -> new NotFoundException("Pokemon mit der ID " + id + " nicht gefunden"));
+        if (expectedVersions != null && !expectedVersions.contains(existing.getVersion())) {
+            logger.warn("Pokemon {} wurde zwischenzeitlich geändert (erwartet Version {}, aktuell {})",
+                    id, expectedVersions, existing.getVersion());
+            throw new PreconditionFailedException("Das Pokemon wurde zwischenzeitlich geändert, bitte neu laden");
         }
 
-        // Box oder Edition ändern
-        boolean boxChanged = !existing.getBox().getName().equals(request.getBox());
-        boolean editionChanged = !existing.getEdition().equals(request.getEdition());
-
-        if (boxChanged || editionChanged) {
-            boxService.movePokemon(
-                    id,
-                    existing.getBox().getName(),
-                    existing.getEdition(),
-                    request.getBox(),
-                    request.getEdition()
-            );
-            logger.info("Box oder Edition von Pokemon {} geändert", id);
-            updated = true;
+        // Level: darf nur steigen
+        int level = request.getLevel() != null ? request.getLevel() : existing.getLevel();
+        if (level < existing.getLevel()) {
+            logger.warn("Versuch, das Level eines gefangenen Pokemon zu senken: {}", existing);
+            throw new InvalidUpdateException("Level kann nicht gesenkt werden");
         }
 
-        // Nickname ändern
-        if (request.getNickname() != null && !request.getNickname().equals(existing.getNickname())) {
-            existing.setNickname(request.getNickname().trim().isEmpty() ? null : request.getNickname());
-            logger.info("Nickname von Pokemon {} aktualisiert auf {}", id, request.getNickname());
-            updated = true;
+        // Box oder Edition: Ziel-Box aus der Registry
+        Box source = existing.getBox();
+        Edition sourceEdition = existing.getEdition();
+        BoxName targetBox = request.getBox() != null ? request.getBox() : source.getName();
+        Edition targetEdition = request.getEdition() != null ? request.getEdition() : sourceEdition;
+        boolean moved = targetBox != source.getName() || targetEdition != sourceEdition;
+        Box target = moved ? boxService.getBoxByNameAndEdition(targetBox, targetEdition) : source;
+
+        // Nickname: leerer Nickname entfernt ihn
+        String nickname = existing.getNickname();
+        if (request.getNickname() != null) {
+            nickname = request.getNickname().trim().isEmpty() ? null : request.getNickname();
         }
 
-        // Evolution versuchen, falls PokedexId anders
-        if (request.getPokedexId() != existing.getSpecies().getPokedexId()) {
-            evolutionService.validateEvolution(existing.getSpecies().getPokedexId(), request.getPokedexId());
-            existing.setSpecies(
-                    speciesService.getByPokedexId(request.getPokedexId())
-                            .orElseThrow(() -> new NotFoundException("Neue Spezies nicht gefunden"))
-            );
-            logger.info("Pokemon {} entwickelt zu Pokedex-ID {}", id, request.getPokedexId());
-            updated = true;
+        // Evolution: nur erlaubte Entwicklungen, neue Art aus dem Katalog
+        PokemonSpecies species = existing.getSpecies();
+        if (request.getPokedexId() != null && request.getPokedexId() != species.getPokedexId()) {
+            evolutionService.validateEvolution(species.getPokedexId(), request.getPokedexId());
+            species = speciesService.getByPokedexId(request.getPokedexId())
+                    .orElseThrow(() -> new NotFoundException("Neue Spezies nicht gefunden"));
         }
 
-        if (updated) {
-            return ownedRepo.save(existing);
-        } else {
-            logger.info("Keine Änderungen für Pokemon {} erforderlich", id);
-            return existing; // Es wurde nichts geändert
+        if (!moved && level == existing.getLevel() && Objects.equals(nickname, existing.getNickname())
+                && species == existing.getSpecies()) {
+            logger.debug("Keine Änderungen für Pokemon {} erforderlich", id);
+            return existing;
         }
+
+        // Platz reservieren, solange das Pokémon noch unverändert ist (die Zähler-Updates lösen so keinen
+        // vorgezogenen Flush der Pokémon-Zeile aus)
+        if (moved) {
+            boxService.transferOccupancy(source, target);
+            existing.setSlot(boxService.allocateSlot(target));
+        }
+
+        existing.setLevel(level);
+        existing.setBox(target);
+        existing.setEdition(targetEdition);
+        existing.setNickname(nickname);
+        existing.setSpecies(species);
+        OwnedPokemon saved = ownedRepo.saveAndFlush(existing);
+        logger.debug("Pokemon {} aktualisiert: Level {}, Box {} ({}), Nickname {}, Pokedex-ID {}",
+                id, level, targetBox, targetEdition, nickname, species.getPokedexId());
+
+        OwnedPokemonDTO dto = OwnedPokemonDTO.from(saved);
+        eventPublisher.publishEvent(moved
+                ? OwnedPokemonChangeDTO.moved(dto, source.getName(), sourceEdition)
+                : OwnedPokemonChangeDTO.updated(dto));
+        return saved;
     }
 
     /**
      * Löscht ein gefangenes Pokémon anhand seiner ID.
+     * Der Belegungszähler der Box wird in derselben Transaktion verringert,
+     * für den Delta-Sync wird ein {@link OwnedPokemonTombstone} angelegt.
      *
      * @param id Die ID des zu löschenden Pokémon
      * @throws NotFoundException Wenn das Pokémon nicht gefunden wird
      */
+    @Transactional
+    @Timed(value = "pokedex.pokemon.delete", description = "Löschen eines gefangenen Pokémon")
     public void deletePokemonById(Long id) {
-        logger.info("Lösche Pokemon anhand der ID {}", id);
+        logger.debug("Lösche Pokemon anhand der ID {}", id);
 
+        // Erst den Belegungszähler, dann die Pokémon-Zeile sperren (gleiche Reihenfolge wie beim Verschieben,
+        // sonst können sich Löschen und Verschieben desselben Pokémon gegenseitig blockieren)
         OwnedPokemon pokemon = getPokemonById(id);
+        boxService.decreaseOccupancy(pokemon.getBox());
         ownedRepo.delete(pokemon);
+        tombstoneRepo.save(new OwnedPokemonTombstone(id, changeVersionClock.next()));
+        eventPublisher.publishEvent(OwnedPokemonChangeDTO.deleted(id, pokemon.getBox().getName(), pokemon.getEdition()));
 
-        logger.info("Pokemon erfolgreich gelöscht: {}", pokemon);
+        logger.debug("Pokemon erfolgreich gelöscht: {}", pokemon);
     }
 }
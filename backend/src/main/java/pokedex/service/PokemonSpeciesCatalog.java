@@ -0,0 +1,189 @@
+package pokedex.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import pokedex.model.PokemonSpecies;
+import pokedex.model.PokemonType;
+import pokedex.repository.PokemonSpeciesRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Unveränderlicher In-Memory-Katalog aller Pokémon-Arten ({@link PokemonSpecies}).
+ * <p>
+ * Die 151 Arten der ersten Generation ändern sich zur Laufzeit nicht. Der Katalog lädt sie deshalb
+ * einmalig aus der Datenbank und beantwortet danach alle Abfragen ohne Datenbankzugriff.
+ * </p>
+ *
+ * <b>Aufbau:</b>
+ * <ul>
+ *   <li>Dichtes Array, indiziert über die Pokédex-ID (O(1)-Zugriff)</li>
+ *   <li>Namensindex (exakter Name → Art)</li>
+ *   <li>Typindex (Typ → alle Arten mit diesem Primär- oder Sekundärtyp)</li>
+ * </ul>
+ *
+ * <b>Hinweis:</b>
+ * Die Arten werden erst durch den {@link pokedex.dataloader.PokemonSpeciesDataLoader} importiert.
+ * Der Katalog wird daher nach dem Start ({@link ApplicationReadyEvent}) befüllt bzw. beim ersten Zugriff
+ * nachgeladen, falls eine Anfrage früher eintrifft. Ein leerer Datenbestand wird nicht gecached.
+ *
+ * @author grubi
+ */
+@Component
+public class PokemonSpeciesCatalog {
+
+    /** Logger für Status- und Fehlermeldungen. */
+    private static final Logger logger = LoggerFactory.getLogger(PokemonSpeciesCatalog.class);
+
+    /** Repository, aus dem der Katalog einmalig geladen wird. */
+    private final PokemonSpeciesRepository speciesRepo;
+
+    /** Aktueller, unveränderlicher Datenstand (null, solange noch nicht geladen). */
+    private volatile Snapshot snapshot;
+
+    /** Verhindert paralleles Laden (Lock statt {@code synchronized}, damit virtuelle Threads beim Laden nicht ihren Trägerthread blockieren). */
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    /**
+     * Konstruktor für Dependency Injection.
+     * @param speciesRepo Repository für alle Pokémon-Arten
+     */
+    public PokemonSpeciesCatalog(PokemonSpeciesRepository speciesRepo) {
+        this.speciesRepo = speciesRepo;
+    }
+
+    /**
+     * Lädt den Katalog, sobald die Anwendung (inkl. aller Data-Loader) vollständig gestartet ist.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        snapshot();
+    }
+
+    /**
+     * Liefert alle Arten, aufsteigend sortiert nach Pokédex-ID.
+     *
+     * @return Unveränderliche Liste aller Arten
+     */
+    public List<PokemonSpecies> getAll() {
+        return snapshot().all;
+    }
+
+    /**
+     * Sucht eine Art anhand ihrer Pokédex-ID.
+     *
+     * @param pokedexId Pokédex-ID der gesuchten Art
+     * @return Optional mit der gefundenen Art, oder leer falls nicht vorhanden
+     */
+    public Optional<PokemonSpecies> findByPokedexId(int pokedexId) {
+        PokemonSpecies[] byPokedexId = snapshot().byPokedexId;
+        if (pokedexId < 0 || pokedexId >= byPokedexId.length) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(byPokedexId[pokedexId]);
+    }
+
+    /**
+     * Sucht eine Art anhand ihres exakten Namens.
+     *
+     * @param name Name der gesuchten Art
+     * @return Optional mit der gefundenen Art, oder leer falls nicht vorhanden
+     */
+    public Optional<PokemonSpecies> findByName(String name) {
+        return Optional.ofNullable(snapshot().byName.get(name));
+    }
+
+    /**
+     * Liefert alle Arten, die den angegebenen Typ als Primär- oder Sekundärtyp besitzen.
+     *
+     * @param type Gesuchter Typ
+     * @return Unveränderliche Liste der passenden Arten (ggf. leer)
+     */
+    public List<PokemonSpecies> findByType(PokemonType type) {
+        return snapshot().byType.getOrDefault(type, List.of());
+    }
+
+    /**
+     * Liefert den aktuellen Datenstand und lädt ihn bei Bedarf (einmalig) aus der Datenbank.
+     *
+     * @return Geladener Datenstand
+     */
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        loadLock.lock();
+        try {
+            if (snapshot == null) {
+                Snapshot loaded = Snapshot.of(speciesRepo.findAll());
+                if (loaded.all.isEmpty()) {
+                    logger.warn("Pokedex ist noch leer, Katalog wird später erneut geladen");
+                    return loaded;
+                }
+                snapshot = loaded;
+                logger.info("Pokemon-Katalog mit {} Arten geladen", loaded.all.size());
+            }
+            return snapshot;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Unveränderlicher Datenstand des Katalogs inkl. aller Indizes.
+     *
+     * @param all         Alle Arten, sortiert nach Pokédex-ID
+     * @param byPokedexId Dichtes Array, Index = Pokédex-ID
+     * @param byName      Namensindex
+     * @param byType      Typindex
+     */
+    private record Snapshot(List<PokemonSpecies> all,
+                            PokemonSpecies[] byPokedexId,
+                            Map<String, PokemonSpecies> byName,
+                            Map<PokemonType, List<PokemonSpecies>> byType) {
+
+        /**
+         * Baut alle Indizes aus der übergebenen Liste von Arten auf.
+         *
+         * @param species Alle geladenen Arten
+         * @return Neuer Datenstand
+         */
+        static Snapshot of(List<PokemonSpecies> species) {
+            List<PokemonSpecies> sorted = new ArrayList<>(species);
+            sorted.sort(Comparator.comparingInt(PokemonSpecies::getPokedexId));
+
+            int maxId = sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1).getPokedexId();
+            PokemonSpecies[] byPokedexId = new PokemonSpecies[maxId + 1];
+            Map<String, PokemonSpecies> byName = new HashMap<>();
+            Map<PokemonType, List<PokemonSpecies>> byType = new EnumMap<>(PokemonType.class);
+
+            for (PokemonSpecies s : sorted) {
+                byPokedexId[s.getPokedexId()] = s;
+                byName.put(s.getName(), s);
+                byType.computeIfAbsent(s.getType1(), t -> new ArrayList<>()).add(s);
+                if (s.getType2() != null && s.getType2() != s.getType1()) {
+                    byType.computeIfAbsent(s.getType2(), t -> new ArrayList<>()).add(s);
+                }
+            }
+            byType.replaceAll((type, list) -> List.copyOf(list));
+
+            return new Snapshot(
+                    Collections.unmodifiableList(sorted),
+                    byPokedexId,
+                    Map.copyOf(byName),
+                    Collections.unmodifiableMap(byType));
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package pokedex.service;
 
+import io.micrometer.core.annotation.Timed;
 import pokedex.exception.NotFoundException;
 import org.springframework.stereotype.Service;
 import pokedex.model.PokemonSpecies;
-import pokedex.repository.PokemonSpeciesRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,6 +15,7 @@ import java.util.Optional;
  * <p>
  * Stellt Methoden zum Suchen und Abrufen einzelner oder aller Pokémon-Arten bereit.
  * Ist als Spring-{@link Service} registriert und kapselt die Geschäftslogik rund um Arten/Species.
+ * Alle Abfragen werden aus dem {@link PokemonSpeciesCatalog} beantwortet und erreichen die Datenbank nicht.
  * </p>
  *
  * <b>Typische Verwendung:</b>
@@ -32,24 +33,24 @@ public class PokemonSpeciesService {
     /** Logger für alle Aktionen rund um Pokémon-Arten. */
     private static final Logger logger = LoggerFactory.getLogger(PokemonSpeciesService.class);
 
-    /** Repository für die persistierten Arten. */
-    private final PokemonSpeciesRepository speciesRepo;
+    /** In-Memory-Katalog aller Arten. */
+    private final PokemonSpeciesCatalog catalog;
 
     /**
      * Konstruktor für Dependency Injection.
-     * @param speciesRepo Repository für alle Pokémon-Arten
+     * @param catalog In-Memory-Katalog aller Pokémon-Arten
      */
-    public PokemonSpeciesService(PokemonSpeciesRepository speciesRepo) {
-        this.speciesRepo = speciesRepo;
+    public PokemonSpeciesService(PokemonSpeciesCatalog catalog) {
+        this.catalog = catalog;
     }
 
     /**
      * Gibt alle verfügbaren Pokémon-Arten zurück.
      *
-     * @return Liste aller gespeicherten Arten ({@link PokemonSpecies}), ggf. leer
+     * @return Liste aller gespeicherten Arten ({@link PokemonSpecies}) sortiert nach Pokédex-ID, ggf. leer
      */
     public List<PokemonSpecies> getAllSpecies() {
-        return speciesRepo.findAll();
+        return catalog.getAll();
     }
 
     /**
@@ -58,9 +59,10 @@ public class PokemonSpeciesService {
      * @param pokedexId Pokédex-ID der gesuchten Art
      * @return Optional mit der gefundenen Art, oder leer falls nicht vorhanden
      */
+    @Timed(value = "pokedex.species.lookup", extraTags = {"by", "id"}, description = "Abfrage einer Pokémon-Art")
     public Optional<PokemonSpecies> getByPokedexId(int pokedexId) {
-        logger.info("Pokemon-Art per Pokedex-ID: {} abgerufen", pokedexId);
-        return speciesRepo.findByPokedexId(pokedexId);
+        logger.debug("Pokemon-Art per Pokedex-ID: {} abgerufen", pokedexId);
+        return catalog.findByPokedexId(pokedexId);
     }
 
     /**
@@ -70,11 +72,12 @@ public class PokemonSpeciesService {
      * </p>
      *
      * @param name Der Name der gesuchten Art
-     * @return Liste aller passenden Arten (meistens eine, selten mehrere bei Namensduplikaten)
+     * @return Liste aller passenden Arten (höchstens eine, da Namen eindeutig sind)
      * @throws NotFoundException Wenn keine Art mit dem Namen gefunden wurde
      */
+    @Timed(value = "pokedex.species.lookup", extraTags = {"by", "name"}, description = "Abfrage einer Pokémon-Art")
     public List<PokemonSpecies> getByName(String name) {
-        List<PokemonSpecies> result = speciesRepo.findByName(name);
+        List<PokemonSpecies> result = catalog.findByName(name).stream().toList();
 
         if (result.isEmpty()) {
             logger.warn("Keine Pokemon-Art mit diesem Namen {} gefunden", name);
@@ -0,0 +1,314 @@
+package pokedex.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import pokedex.exception.InitializationException;
+import pokedex.model.BoxName;
+import pokedex.model.Edition;
+import pokedex.model.PokemonSpecies;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache für die fertig serialisierten Antworten aller unveränderlichen Referenzdaten-Endpunkte.
+ * <p>
+ * Arten, Entwicklungsregeln, Editionen und Boxnamen ändern sich zur Laufzeit nicht. Die JSON-Antwort wird daher
+ * genau einmal erzeugt und als Byte-Array (unkomprimiert und gzip-komprimiert) vorgehalten. Jede Variante
+ * hat ihren eigenen starken ETag (Hash des Inhalts, die gzip-Variante mit Suffix {@code -gzip}), da sich die
+ * Bytes unterscheiden. Die Controller schreiben diese Bytes direkt in die Antwort.
+ * </p>
+ *
+ * <b>Ablauf einer Anfrage:</b>
+ * <ul>
+ *   <li>Passt ein Eintrag aus {@code If-None-Match} zum ETag einer der beiden Varianten, wird sofort 304
+ *   (Not Modified) ohne Body und mit dem passenden ETag geliefert</li>
+ *   <li>Sonst werden die vorberechneten Bytes mit ETag und langer {@code Cache-Control} geschrieben,
+ *   die komprimierte Variante nur, wenn {@code Accept-Encoding} gzip mit q &gt; 0 erlaubt</li>
+ *   <li>In beiden Fällen wird weder Jackson noch die Datenbank benötigt; pro Anfrage entsteht kein neues Objekt
+ *   außer dem Kopieren in den Socket-Puffer</li>
+ * </ul>
+ *
+ * <b>Hinweis:</b>
+ * Die Arten stehen erst nach dem Import durch den {@link pokedex.dataloader.PokemonSpeciesDataLoader} bereit.
+ * Ihre Antwort wird daher nach dem Start ({@link ApplicationReadyEvent}) bzw. beim ersten Zugriff erzeugt;
+ * ein leerer Pokédex wird (wie im {@link PokemonSpeciesCatalog}) nicht gecached.
+ *
+ * @author grubi
+ */
+@Component
+public class ReferenceDataCache {
+
+    /** Logger für Status- und Fehlermeldungen. */
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    /**
+     * Alle Referenzdaten-Endpunkte, deren Antwort gecached wird.
+     */
+    public enum ReferenceData {
+        SPECIES,
+        EVOLUTION_RULES,
+        EVOLUTION_CHAINS,
+        BOX_NAMES,
+        BOX_NAME_MAPPING,
+        EDITIONS,
+        EDITION_MAPPING
+    }
+
+    /**
+     * Fertig serialisierte Antwort.
+     *
+     * @param body     JSON-Body
+     * @param gzip     JSON-Body, gzip-komprimiert
+     * @param etag     Starker ETag des unkomprimierten Bodys (inkl. Anführungszeichen)
+     * @param gzipEtag Starker ETag des komprimierten Bodys (inkl. Anführungszeichen)
+     */
+    private record CachedJson(byte[] body, byte[] gzip, String etag, String gzipEtag) {
+    }
+
+    /** ObjectMapper der Anwendung, damit die Bytes exakt der bisherigen Serialisierung entsprechen. */
+    private final ObjectMapper objectMapper;
+
+    /** Katalog aller Arten (Quelle für {@link ReferenceData#SPECIES}). */
+    private final PokemonSpeciesCatalog catalog;
+
+    /** Cache-Control-Header für alle Referenzdaten (vorab formatiert). */
+    private final String cacheControl;
+
+    /** Serialisierte Antworten aller sofort verfügbaren Referenzdaten (nach dem Konstruktor unverändert). */
+    private final Map<ReferenceData, CachedJson> cache = new EnumMap<>(ReferenceData.class);
+
+    /** Serialisierte Arten-Antwort (null, solange der Pokédex noch nicht geladen ist). */
+    private volatile CachedJson species;
+
+    /**
+     * Konstruktor für Dependency Injection. Serialisiert alle sofort verfügbaren Referenzdaten.
+     *
+     * @param objectMapper     ObjectMapper der Anwendung
+     * @param catalog          Katalog aller Pokémon-Arten
+     * @param evolutionService Service mit den Entwicklungsregeln
+     * @param maxAge           Wie lange Clients die Antworten ohne Rückfrage verwenden dürfen
+     */
+    public ReferenceDataCache(ObjectMapper objectMapper,
+                              PokemonSpeciesCatalog catalog,
+                              EvolutionService evolutionService,
+                              @Value("${pokedex.reference-data.max-age:P1D}") Duration maxAge) {
+        this.objectMapper = objectMapper;
+        this.catalog = catalog;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic().getHeaderValue();
+
+        cache.put(ReferenceData.EVOLUTION_RULES, serialize(evolutionService.getEvolutionRules()));
+        cache.put(ReferenceData.EVOLUTION_CHAINS, serialize(evolutionService.getEvolutionChains()));
+        cache.put(ReferenceData.BOX_NAMES, serialize(BoxName.values()));
+        cache.put(ReferenceData.BOX_NAME_MAPPING, serialize(mapping(BoxName.values(), BoxName::getDisplayName)));
+        cache.put(ReferenceData.EDITIONS, serialize(Edition.values()));
+        cache.put(ReferenceData.EDITION_MAPPING, serialize(mapping(Edition.values(), Edition::getDisplayName)));
+    }
+
+    /**
+     * Serialisiert die Arten, sobald die Anwendung (inkl. aller Data-Loader) vollständig gestartet ist.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        get(ReferenceData.SPECIES);
+    }
+
+    /**
+     * Beantwortet eine Anfrage auf einen Referenzdaten-Endpunkt direkt aus dem Cache.
+     * <p>
+     * Passt {@code If-None-Match} zum ETag einer Variante, wird 304 ohne Body gesetzt. Sonst werden die
+     * vorberechneten Bytes (komprimiert, falls {@code Accept-Encoding} gzip erlaubt) samt ETag der gelieferten
+     * Variante und {@code Cache-Control} geschrieben.
+     * </p>
+     *
+     * @param data     Angefragte Referenzdaten
+     * @param request  Aktuelle Anfrage
+     * @param response Antwort, in die direkt geschrieben wird
+     * @throws IOException Wenn die Antwort nicht geschrieben werden kann (z.B. Client hat abgebrochen)
+     */
+    public void write(ReferenceData data, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        CachedJson cached = get(data);
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        String matched = matchIfNoneMatch(request.getHeader(HttpHeaders.IF_NONE_MATCH), cached, gzip);
+        if (matched != null) {
+            response.setHeader(HttpHeaders.ETAG, matched);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] body = cached.body();
+        response.setHeader(HttpHeaders.ETAG, cached.etag());
+        if (gzip) {
+            body = cached.gzip();
+            response.setHeader(HttpHeaders.ETAG, cached.gzipEtag());
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Prüft, ob {@code Accept-Encoding} gzip erlaubt.
+     * <p>
+     * Ausschlaggebend ist der Eintrag {@code gzip} (bzw. {@code x-gzip}), sonst {@code *}; ein Gewicht von
+     * {@code q=0} schließt die Kodierung aus.
+     * </p>
+     *
+     * @param acceptEncoding Header-Wert (darf null sein)
+     * @return true, wenn die gzip-Variante geliefert werden darf
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double wildcard = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parts);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = quality;
+            } else if (coding.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        Double quality = gzip != null ? gzip : wildcard;
+        return quality != null && quality > 0;
+    }
+
+    /**
+     * Liest das Gewicht {@code q} aus den Parametern eines {@code Accept-Encoding}-Eintrags.
+     * Fehlt es, gilt 1; ein ungültiger Wert gilt als 0.
+     */
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+                    && parameter.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Vergleicht {@code If-None-Match} mit den ETags beider Varianten.
+     * <p>
+     * Der Header ist eine Komma-Liste von ETags; verglichen wird jeder Eintrag exakt, nach RFC 9110 schwach
+     * (ein Präfix {@code W/} wird ignoriert). {@code *} passt immer.
+     * </p>
+     *
+     * @param ifNoneMatch Header-Wert (darf null sein)
+     * @param cached      Serialisierte Antwort
+     * @param gzip        Ob die gzip-Variante ausgeliefert würde (ETag für {@code *})
+     * @return Der passende ETag oder null, wenn keiner passt
+     */
+    private static String matchIfNoneMatch(String ifNoneMatch, CachedJson cached, boolean gzip) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        for (String entry : ifNoneMatch.split(",")) {
+            String tag = entry.trim();
+            if (tag.equals("*")) {
+                return gzip ? cached.gzipEtag() : cached.etag();
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(cached.etag()) || tag.equals(cached.gzipEtag())) {
+                return tag;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Liefert die serialisierte Antwort und erzeugt die Arten-Antwort bei Bedarf (einmalig).
+     */
+    private CachedJson get(ReferenceData data) {
+        if (data != ReferenceData.SPECIES) {
+            return cache.get(data);
+        }
+        CachedJson current = species;
+        if (current != null) {
+            return current;
+        }
+        List<PokemonSpecies> all = catalog.getAll();
+        CachedJson serialized = serialize(all);
+        if (!all.isEmpty()) {
+            species = serialized;
+            logger.info("Antwort für {} Pokemon-Arten gecached ({} Bytes)", all.size(), serialized.body().length);
+        }
+        return serialized;
+    }
+
+    /**
+     * Baut ein Mapping aus Anzeigename und Enum-Name in Deklarationsreihenfolge.
+     */
+    private static <E extends Enum<E>> Map<String, String> mapping(E[] values, Function<E, String> displayName) {
+        Map<String, String> mapping = new LinkedHashMap<>();
+        for (E value : values) {
+            mapping.put(displayName.apply(value), value.name());
+        }
+        return mapping;
+    }
+
+    /**
+     * Serialisiert und komprimiert einen Wert und berechnet den ETag aus dem Inhalt.
+     *
+     * @throws InitializationException Wenn der Wert nicht serialisiert werden kann
+     */
+    private CachedJson serialize(Object value) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(value);
+            String hash = DigestUtils.md5DigestAsHex(body);
+            return new CachedJson(body, gzip(body), "\"" + hash + "\"", "\"" + hash + "-gzip\"");
+        } catch (JsonProcessingException e) {
+            throw new InitializationException("Referenzdaten konnten nicht serialisiert werden", e);
+        }
+    }
+
+    /**
+     * Komprimiert einen Body mit gzip.
+     */
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,42 @@
+package pokedex.perf;
+
+import org.openjdk.jmh.annotations.*;
+import pokedex.dto.BoxDTO;
+import pokedex.dto.OwnedPokemonDTO;
+import pokedex.model.Box;
+import pokedex.model.OwnedPokemon;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst das Mapping von Entitäten auf DTOs ({@link OwnedPokemonDTO#from}, {@link BoxDTO#of}).
+ *
+ * @author grubi
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    private OwnedPokemon pokemon;
+    private Box fullBox;
+
+    @Setup
+    public void setup() {
+        fullBox = PerfFixtures.fullBox();
+        pokemon = fullBox.getPokemons().get(0);
+    }
+
+    @Benchmark
+    public OwnedPokemonDTO ownedPokemonFrom() {
+        return OwnedPokemonDTO.from(pokemon);
+    }
+
+    @Benchmark
+    public BoxDTO boxFromFullBox() {
+        return BoxDTO.of(fullBox, fullBox.getPokemons().stream().map(OwnedPokemonDTO::from).toList());
+    }
+}
@@ -0,0 +1,46 @@
+package pokedex.perf;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.ResponseEntity;
+import pokedex.exception.BoxFullException;
+import pokedex.exception.GlobalExceptionHandler;
+import pokedex.exception.NotFoundException;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die Erzeugung von Fehlerantworten im {@link GlobalExceptionHandler},
+ * inkl. dem Erzeugen der Exception selbst (wie im Service).
+ *
+ * @author grubi
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ErrorResponseBenchmark {
+
+    private GlobalExceptionHandler handler;
+
+    @Setup
+    public void setup() {
+        handler = new GlobalExceptionHandler(new StaticListableBeanFactory(
+                Map.of("meterRegistry", new SimpleMeterRegistry())).getBeanProvider(MeterRegistry.class));
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> boxFull() {
+        return handler.handleBoxFull(new BoxFullException("Die Ziel Box BOX1 ist schon voll"));
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> notFound() {
+        return handler.handleNotFound(new NotFoundException("Pokemon mit der ID 42 nicht gefunden"));
+    }
+}
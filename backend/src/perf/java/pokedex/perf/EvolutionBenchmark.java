@@ -0,0 +1,53 @@
+package pokedex.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import pokedex.exception.InvalidEvolutionException;
+import pokedex.service.EvolutionService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst {@link EvolutionService#validateEvolution} für erlaubte und nicht erlaubte Entwicklungen
+ * sowie die Abfrage mehrstufiger Entwicklungen über {@link EvolutionService#canEventuallyEvolve}.
+ * Die abgelehnte Entwicklung enthält die Kosten der geworfenen Exception (inkl. Stacktrace).
+ *
+ * @author grubi
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EvolutionBenchmark {
+
+    private EvolutionService evolutionService;
+
+    @Setup
+    public void setup() {
+        evolutionService = new EvolutionService(new ObjectMapper());
+    }
+
+    @Benchmark
+    public void validEvolution() {
+        // Evoli (133) → Flamara (136): Art mit mehreren möglichen Entwicklungen
+        evolutionService.validateEvolution(133, 136);
+    }
+
+    @Benchmark
+    public boolean eventualEvolution() {
+        // Bisasam (1) → Bisaflor (3) über die transitive Hülle
+        return evolutionService.canEventuallyEvolve(1, 3);
+    }
+
+    @Benchmark
+    public void invalidEvolution(Blackhole blackhole) {
+        try {
+            evolutionService.validateEvolution(25, 6);
+        } catch (InvalidEvolutionException e) {
+            blackhole.consume(e);
+        }
+    }
+}
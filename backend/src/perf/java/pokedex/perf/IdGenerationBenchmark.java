@@ -0,0 +1,176 @@
+package pokedex.perf;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst den Insert-Durchsatz gefangener Pokémon mit IDENTITY-Schlüsseln (bisher) und mit
+ * blockweise vergebenen Sequenz-IDs (jetzt, siehe {@code PooledSequenceGenerator}).
+ * <p>
+ * Die Messung bildet auf JDBC-Ebene nach, was Hibernate in beiden Fällen an die Datenbank schickt:
+ * <ul>
+ *   <li><b>IDENTITY:</b> Jedes Insert einzeln, danach Auslesen des erzeugten Schlüssels (kein Batching möglich)</li>
+ *   <li><b>Sequenz (pooled):</b> Ein Sequenzaufruf je Block, die Inserts eines Blocks als ein JDBC-Batch</li>
+ * </ul>
+ * Ergebnis ist die mittlere Zeit je eingefügter Zeile.
+ * </p>
+ *
+ * <b>Start:</b>
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="IdGeneration"
+ * mvn -Pbenchmark test-compile exec:exec \
+ *     -Dbenchmark.args="IdGeneration -p url=jdbc:mariadb://localhost:3306/pokeapp_bench -p user=root -p password=root"
+ * </pre>
+ * Ohne Parameter wird eine H2-In-Memory-Datenbank genutzt. Gegen eine echte MariaDB fällt der Unterschied
+ * deutlich größer aus, da dort jeder Roundtrip über das Netzwerk geht.
+ *
+ * @author grubi
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGenerationBenchmark {
+
+    /** Anzahl Zeilen je Aufruf. */
+    private static final int ROWS = 2_000;
+
+    /** Blockgröße der Sequenz bzw. Größe eines JDBC-Batches (wie in application.properties). */
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Param("jdbc:h2:mem:idbench;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+    public String url;
+
+    @Param("sa")
+    public String user;
+
+    @Param("")
+    public String password;
+
+    private Connection connection;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(url, user, password);
+        connection.setAutoCommit(false);
+        createSchema(connection);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        dropSchema(connection);
+        connection.close();
+    }
+
+    /**
+     * Leert die Tabellen nach jedem Aufruf, damit alle Aufrufe auf gleich großen Tabellen arbeiten.
+     */
+    @TearDown(Level.Invocation)
+    public void clearTables() throws SQLException {
+        clear(connection);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void identity() throws SQLException {
+        insertWithIdentity(connection);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void pooledSequence() throws SQLException {
+        insertWithSequence(connection);
+    }
+
+    /**
+     * Bisher: ein Insert je Zeile, danach wird der von der Datenbank erzeugte Schlüssel gelesen.
+     */
+    private static void insertWithIdentity(Connection connection) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into bench_identity (species_id, nickname, level, edition, box_id) values (?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                bind(insert, 1, i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    keys.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+    }
+
+    /**
+     * Jetzt: ein Sequenzaufruf je Block, die IDs werden im Speicher vergeben und die Inserts gebündelt.
+     */
+    private static void insertWithSequence(Connection connection) throws SQLException {
+        try (PreparedStatement nextValue = connection.prepareStatement("select next value for bench_seq");
+             PreparedStatement insert = connection.prepareStatement(
+                     "insert into bench_pooled (id, species_id, nickname, level, edition, box_id) values (?, ?, ?, ?, ?, ?)")) {
+            long next = 0;
+            long high = 0;
+            for (int i = 0; i < ROWS; i++) {
+                if (next == high) {
+                    try (ResultSet result = nextValue.executeQuery()) {
+                        result.next();
+                        high = result.getLong(1);
+                    }
+                    next = high - ALLOCATION_SIZE;
+                }
+                insert.setLong(1, ++next);
+                bind(insert, 2, i);
+                insert.addBatch();
+                if ((i + 1) % ALLOCATION_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    /**
+     * Setzt die fachlichen Spalten ab dem angegebenen Parameterindex.
+     */
+    private static void bind(PreparedStatement insert, int first, int i) throws SQLException {
+        insert.setLong(first, i % 151 + 1);
+        insert.setString(first + 1, i % 3 == 0 ? "Nick" + i % 1000 : null);
+        insert.setInt(first + 2, i % 100 + 1);
+        insert.setString(first + 3, "ROT");
+        insert.setLong(first + 4, i % 13 + 1);
+    }
+
+    private static void createSchema(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            dropSchema(connection);
+            statement.execute("create table bench_identity (id bigint not null auto_increment primary key, species_id bigint not null, "
+                    + "nickname varchar(255), level int not null, edition varchar(255) not null, box_id bigint not null)");
+            statement.execute("create table bench_pooled (id bigint not null primary key, species_id bigint not null, "
+                    + "nickname varchar(255), level int not null, edition varchar(255) not null, box_id bigint not null)");
+            statement.execute("create sequence bench_seq start with " + ALLOCATION_SIZE + " increment by " + ALLOCATION_SIZE);
+        }
+        connection.commit();
+    }
+
+    private static void clear(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("delete from bench_identity");
+            statement.execute("delete from bench_pooled");
+        }
+        connection.commit();
+    }
+
+    private static void dropSchema(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists bench_identity");
+            statement.execute("drop table if exists bench_pooled");
+            statement.execute("drop sequence if exists bench_seq");
+        }
+        connection.commit();
+    }
+}
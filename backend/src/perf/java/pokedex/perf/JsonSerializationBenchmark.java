@@ -0,0 +1,42 @@
+package pokedex.perf;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import pokedex.dto.OwnedPokemonDTO;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die JSON-Serialisierung der Pokémon-Liste ({@code GET /api/pokemon}) mit 10.000 Einträgen,
+ * mit einem ObjectMapper wie ihn Spring Boot konfiguriert.
+ *
+ * @author grubi
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param("10000")
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<OwnedPokemonDTO> ownedList;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        ownedList = PerfFixtures.ownedList(size).stream().map(OwnedPokemonDTO::from).toList();
+    }
+
+    @Benchmark
+    public byte[] serializeOwnedList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ownedList);
+    }
+}
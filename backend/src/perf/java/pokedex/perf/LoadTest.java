@@ -0,0 +1,476 @@
+package pokedex.perf;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import pokedex.PokedexApp;
+import pokedex.model.BoxName;
+import pokedex.model.Edition;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * End-to-End-Lasttest: startet {@link PokedexApp} im Profil {@code loadtest} gegen eine H2-In-Memory-Datenbank,
+ * legt Testdaten an und erzeugt parallel HTTP-Last auf die wichtigsten Endpunkte.
+ * <p>
+ * Je Endpunkt werden Durchsatz sowie p50-/p99-Latenz ausgegeben. Abgelehnte Anfragen (4xx, z.B. Box voll
+ * oder ein Pokémon wurde von einem anderen Thread bereits verschoben) werden getrennt von Fehlern (5xx) gezählt.
+ * </p>
+ *
+ * <b>Optionen</b> (als {@code key=value}, alle optional):
+ * <ul>
+ *   <li>{@code pokemon=600}: Anzahl Pokémon, die vorab importiert werden (max. 70% je Box)</li>
+ *   <li>{@code threads=16}: Anzahl paralleler Clients</li>
+ *   <li>{@code warmup=10}: Aufwärmphase in Sekunden (nicht gemessen)</li>
+ *   <li>{@code duration=30}: Messdauer in Sekunden</li>
+ *   <li>{@code mix=default}: Gewichtung der Operationen, entweder ein Preset ({@code default}, {@code organize})
+ *   oder eine Liste wie {@code box:60,move:30,list:5,patch:5}</li>
+ * </ul>
+ * Das Preset {@code organize} bildet die Drag &amp; Drop-Ansicht ({@code OrganizeView}) nach:
+ * Auf jede Verschiebung kommen zwei Box-Abfragen (Neuladen der beiden angezeigten Boxen).
+ *
+ * <b>Start:</b>
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=pokedex.perf.LoadTest \
+ *     -Dbenchmark.args="pokemon=800 threads=32 duration=60 mix=organize"
+ * </pre>
+ *
+ * @author grubi
+ */
+public class LoadTest {
+
+    /** Vordefinierte Gewichtungen der Operationen. */
+    private static final Map<String, String> PRESETS = Map.of(
+            "default", "list:10,box:30,add:10,patch:15,move:25,delete:10",
+            "organize", "box:60,move:30,list:5,patch:5");
+
+    /** Maximale Füllung je Box beim Anlegen der Testdaten, damit Hinzufügen und Verschieben möglich bleiben. */
+    private static final double SEED_FILL = 0.7;
+
+    /** Die gemessenen Operationen (je Operation ein Endpunkt). */
+    enum Operation {
+        LIST("GET /api/pokemon"),
+        BOX("GET /api/boxes/{edition}/{name}"),
+        ADD("POST /api/pokemon"),
+        PATCH("PATCH /api/pokemon/{id}"),
+        MOVE("PUT /api/boxes/.../move-to/..."),
+        DELETE("DELETE /api/pokemon/{id}");
+
+        private final String endpoint;
+
+        Operation(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+
+    /** Ort eines Pokémon (Box und Edition). */
+    private record Location(BoxName box, Edition edition) {
+    }
+
+    /**
+     * Lokal bekannter Stand eines Pokémon. Das PATCH-Update erwartet den vollständigen Datensatz,
+     * daher werden Art und Level mitgeführt.
+     */
+    private record Known(int pokedexId, int level, Location location) {
+    }
+
+    private final URI baseUri;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Population population = new Population();
+    private final Operation[] weightedOperations;
+    private ThreadFactory clientThreads = Executors.defaultThreadFactory();
+
+    /**
+     * @param baseUri Basisadresse der gestarteten Anwendung
+     * @param mix     Gewichtung der Operationen
+     */
+    LoadTest(URI baseUri, Map<Operation, Integer> mix) {
+        this.baseUri = baseUri;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        List<Operation> weighted = new ArrayList<>();
+        mix.forEach((operation, weight) -> weighted.addAll(Collections.nCopies(weight, operation)));
+        this.weightedOperations = weighted.toArray(Operation[]::new);
+    }
+
+    /**
+     * Lässt die Clients auf virtuellen Threads laufen. Sonst konkurrieren hunderte Client-Threads des Betriebssystems
+     * mit den wenigen Trägerthreads der Anwendung um die CPU, wenn diese selbst virtuelle Threads verwendet.
+     *
+     * @return Dieser Lasttest
+     */
+    LoadTest withVirtualClients() {
+        this.clientThreads = Thread.ofVirtual().name("client-", 0).factory();
+        return this;
+    }
+
+    /**
+     * Startet den Lasttest.
+     *
+     * @param args Optionen als {@code key=value}
+     * @throws Exception Bei Fehlern während Start, Vorbereitung oder Messung
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int pokemon = Integer.parseInt(options.getOrDefault("pokemon", "600"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        String mixOption = options.getOrDefault("mix", "default");
+        Map<Operation, Integer> mix = parseMix(mixOption);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PokedexApp.class)
+                .profiles("loadtest")
+                .run();
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadTest loadTest = new LoadTest(URI.create("http://localhost:" + port), mix);
+
+            int seeded = loadTest.seed(pokemon);
+            System.out.printf("%d Pokemon angelegt, %d Threads, Mix %s%n", seeded, threads, mix);
+
+            loadTest.run(threads, warmup);
+            Map<Operation, Stats> result = loadTest.run(threads, duration);
+            report(result, duration);
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Liest Optionen im Format {@code key=value}.
+     */
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] keyValue = arg.split("=", 2);
+            options.put(keyValue[0], keyValue.length > 1 ? keyValue[1] : "");
+        }
+        return options;
+    }
+
+    /**
+     * Liest eine Gewichtung im Format {@code op:gewicht,op:gewicht} oder den Namen eines Presets.
+     */
+    static Map<Operation, Integer> parseMix(String mix) {
+        mix = PRESETS.getOrDefault(mix, mix);
+        Map<Operation, Integer> result = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] opWeight = part.trim().split(":");
+            result.put(Operation.valueOf(opWeight[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(opWeight[1].trim()));
+        }
+        return result;
+    }
+
+    /**
+     * Importiert die Testdaten über den Sammel-Import und liest danach alle Pokémon ein.
+     *
+     * @param count Gewünschte Anzahl Pokémon
+     * @return Tatsächlich angelegte Anzahl
+     */
+    int seed(int count) throws IOException, InterruptedException {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        Random random = new Random(42);
+        outer:
+        for (int round = 0; ; round++) {
+            boolean added = false;
+            for (Edition edition : Edition.values()) {
+                for (BoxName box : BoxName.values()) {
+                    int capacity = box == BoxName.TEAM ? 6 : 20;
+                    if (round < (int) (capacity * SEED_FILL)) {
+                        entries.add(Map.of("pokedexId", random.nextInt(151) + 1, "level", random.nextInt(100) + 1,
+                                "edition", edition.name(), "box", box.name()));
+                        added = true;
+                        if (entries.size() == count) {
+                            break outer;
+                        }
+                    }
+                }
+            }
+            if (!added) {
+                break;
+            }
+        }
+
+        HttpResponse<byte[]> imported = send(HttpRequest.newBuilder(baseUri.resolve("/api/pokemon/import"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(entries))));
+        if (imported.statusCode() != 201) {
+            throw new IllegalStateException("Import fehlgeschlagen: " + new String(imported.body(), StandardCharsets.UTF_8));
+        }
+
+        HttpResponse<byte[]> all = send(HttpRequest.newBuilder(baseUri.resolve("/api/pokemon")).GET());
+        List<Map<String, Object>> pokemon = objectMapper.readValue(all.body(), new TypeReference<>() {});
+        for (Map<String, Object> p : pokemon) {
+            population.add(((Number) p.get("id")).longValue(), new Known(((Number) p.get("pokedexId")).intValue(),
+                    ((Number) p.get("level")).intValue(),
+                    new Location(BoxName.valueOf((String) p.get("boxName")), Edition.valueOf((String) p.get("edition")))));
+        }
+        return pokemon.size();
+    }
+
+    /**
+     * Erzeugt für die angegebene Dauer parallel Last und sammelt die Messwerte.
+     *
+     * @param threads  Anzahl paralleler Clients
+     * @param duration Dauer
+     * @return Messwerte je Operation
+     */
+    Map<Operation, Stats> run(int threads, Duration duration) throws InterruptedException, ExecutionException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, clientThreads);
+        List<Future<Map<Operation, Stats>>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> work(deadline)));
+        }
+
+        Map<Operation, Stats> total = new EnumMap<>(Operation.class);
+        for (Future<Map<Operation, Stats>> future : futures) {
+            future.get().forEach((operation, stats) -> total.computeIfAbsent(operation, o -> new Stats()).merge(stats));
+        }
+        executor.shutdown();
+        return total;
+    }
+
+    /**
+     * Schleife eines einzelnen Clients bis zum Ablauf der Zeit.
+     */
+    private Map<Operation, Stats> work(long deadline) throws InterruptedException {
+        Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Operation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+            Stats operationStats = stats.computeIfAbsent(operation, o -> new Stats());
+            try {
+                execute(operation, random, operationStats);
+            } catch (IOException e) {
+                operationStats.failed++;
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Führt eine Operation aus und aktualisiert bei Erfolg den lokal bekannten Datenbestand.
+     */
+    private void execute(Operation operation, ThreadLocalRandom random, Stats stats) throws IOException, InterruptedException {
+        switch (operation) {
+            case LIST -> timed(stats, HttpRequest.newBuilder(baseUri.resolve("/api/pokemon")).GET());
+            case BOX -> {
+                Location location = randomLocation(random);
+                timed(stats, HttpRequest.newBuilder(baseUri.resolve(
+                        "/api/boxes/" + path(location.edition()) + "/" + location.box())).GET());
+            }
+            case ADD -> {
+                Known pokemon = new Known(random.nextInt(151) + 1, random.nextInt(100) + 1, randomLocation(random));
+                byte[] body = objectMapper.writeValueAsBytes(Map.of("pokedexId", pokemon.pokedexId(), "level", pokemon.level(),
+                        "edition", pokemon.location().edition().name(), "box", pokemon.location().box().name()));
+                HttpResponse<byte[]> response = timed(stats, HttpRequest.newBuilder(baseUri.resolve("/api/pokemon"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(body)));
+                if (response.statusCode() == 201) {
+                    Map<String, Object> created = objectMapper.readValue(response.body(), new TypeReference<>() {});
+                    population.add(((Number) created.get("id")).longValue(), pokemon);
+                }
+            }
+            case PATCH -> {
+                Long id = population.randomId(random);
+                Known pokemon = id == null ? null : population.get(id);
+                if (pokemon == null) {
+                    return;
+                }
+                byte[] body = objectMapper.writeValueAsBytes(Map.of("pokedexId", pokemon.pokedexId(),
+                        "level", pokemon.level(), "nickname", "Last" + random.nextInt(1000),
+                        "edition", pokemon.location().edition().name(), "box", pokemon.location().box().name()));
+                timed(stats, HttpRequest.newBuilder(baseUri.resolve("/api/pokemon/" + id))
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofByteArray(body)));
+            }
+            case MOVE -> {
+                Long id = population.randomId(random);
+                Known pokemon = id == null ? null : population.get(id);
+                if (pokemon == null) {
+                    return;
+                }
+                Location source = pokemon.location();
+                Location target = randomLocation(random);
+                if (target.equals(source)) {
+                    return;
+                }
+                HttpResponse<byte[]> response = timed(stats, HttpRequest.newBuilder(baseUri.resolve(
+                        "/api/boxes/" + source.box() + "/move-to/" + target.box() + "/" + id + "/"
+                                + path(source.edition()) + "/" + path(target.edition())))
+                        .PUT(HttpRequest.BodyPublishers.noBody()));
+                if (response.statusCode() == 204) {
+                    population.move(id, target);
+                }
+            }
+            case DELETE -> {
+                Long id = population.randomId(random);
+                if (id == null) {
+                    return;
+                }
+                HttpResponse<byte[]> response = timed(stats, HttpRequest.newBuilder(baseUri.resolve("/api/pokemon/" + id)).DELETE());
+                if (response.statusCode() == 204) {
+                    population.remove(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sendet eine Anfrage und erfasst Latenz und Ergebnis.
+     */
+    private HttpResponse<byte[]> timed(Stats stats, HttpRequest.Builder request) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response = send(request);
+        stats.record(System.nanoTime() - start, response.statusCode());
+        return response;
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static Location randomLocation(ThreadLocalRandom random) {
+        Edition[] editions = Edition.values();
+        BoxName[] boxes = BoxName.values();
+        return new Location(boxes[random.nextInt(boxes.length)], editions[random.nextInt(editions.length)]);
+    }
+
+    /**
+     * Kodiert einen Enum-Namen für die Verwendung im Pfad (z.B. GRÜN).
+     */
+    private static String path(Enum<?> value) {
+        return URLEncoder.encode(value.name(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gibt die Messwerte als Tabelle aus.
+     *
+     * @return Gesamtdurchsatz in Anfragen pro Sekunde
+     */
+    static double report(Map<Operation, Stats> result, Duration duration) {
+        double seconds = duration.toMillis() / 1000.0;
+        System.out.printf("%n%-34s %9s %9s %9s %9s %9s %9s %7s%n",
+                "Endpunkt", "Anfragen", "Anfr./s", "p50 ms", "p99 ms", "max ms", "abgelehnt", "Fehler");
+        long totalCount = 0;
+        for (Operation operation : Operation.values()) {
+            Stats stats = result.get(operation);
+            if (stats == null || stats.count() == 0) {
+                continue;
+            }
+            long[] sorted = stats.sortedLatencies();
+            totalCount += sorted.length;
+            System.out.printf("%-34s %9d %9.1f %9.2f %9.2f %9.2f %9d %7d%n",
+                    operation.endpoint, sorted.length, sorted.length / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), sorted[sorted.length - 1] / 1_000_000.0,
+                    stats.rejected, stats.failed);
+        }
+        System.out.printf("%-34s %9d %9.1f%n", "Gesamt", totalCount, totalCount / seconds);
+        return totalCount / seconds;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    /**
+     * Messwerte einer Operation (je Client-Thread, am Ende zusammengeführt).
+     */
+    static final class Stats {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private int rejected;
+        private int failed;
+
+        void record(long nanos, int status) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (status >= 500) {
+                failed++;
+            } else if (status >= 400) {
+                rejected++;
+            }
+        }
+
+        void merge(Stats other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], 200);
+            }
+            rejected += other.rejected;
+            failed += other.failed;
+        }
+
+        int count() {
+            return count;
+        }
+
+        long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    /**
+     * Lokal bekannter Datenbestand: welche Pokémon existieren und wo liegen sie.
+     * Kann durch parallele Clients kurzzeitig veralten, daraus entstehen abgelehnte Anfragen (404/409).
+     */
+    private static final class Population {
+
+        private final List<Long> ids = new ArrayList<>();
+        private final Map<Long, Integer> indexById = new HashMap<>();
+        private final Map<Long, Known> known = new HashMap<>();
+
+        synchronized void add(long id, Known pokemon) {
+            if (known.put(id, pokemon) == null) {
+                indexById.put(id, ids.size());
+                ids.add(id);
+            }
+        }
+
+        synchronized Long randomId(ThreadLocalRandom random) {
+            return ids.isEmpty() ? null : ids.get(random.nextInt(ids.size()));
+        }
+
+        synchronized Known get(long id) {
+            return known.get(id);
+        }
+
+        synchronized void move(long id, Location location) {
+            known.computeIfPresent(id, (key, pokemon) -> new Known(pokemon.pokedexId(), pokemon.level(), location));
+        }
+
+        synchronized void remove(long id) {
+            Integer index = indexById.remove(id);
+            if (index == null) {
+                return;
+            }
+            known.remove(id);
+            Long last = ids.remove(ids.size() - 1);
+            if (index < ids.size()) {
+                ids.set(index, last);
+                indexById.put(last, index);
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package pokedex.perf;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.*;
+import pokedex.model.Box;
+import pokedex.model.OwnedPokemon;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die Kosten der Log-Ausgaben einer typischen Anfrage (Pokémon hinzufügen bzw. suchen).
+ * <p>
+ * Je Aufruf werden die Meldungen des Hot Paths erzeugt: die Eingabedaten, das gespeicherte Pokémon (über
+ * {@code OwnedPokemon.toString()}) und die ID-Suche. Die Ausgabe geht wie im Betrieb über ein Logback-Muster
+ * in eine Datei unter {@code target/}.
+ * </p>
+ *
+ * <b>Varianten:</b>
+ * <ul>
+ *   <li>{@code infoPerRequestBaseline}: Meldungen auf INFO mit dem Pokémon im Format vor der Umstellung
+ *   (Lombok-{@code toString()} einschließlich Art und Box), also die Kosten der Ausgabe vor der Änderung</li>
+ *   <li>{@code infoPerRequest}: dieselben Meldungen auf INFO mit dem heutigen {@code toString()} (ohne Art und Box)</li>
+ *   <li>{@code debugPerRequest}: dieselben Meldungen auf DEBUG bei Log-Level INFO (nicht ausgegeben)</li>
+ *   <li>{@code sqlEcho}: eine SQL-Zeile wie bei {@code spring.jpa.show-sql=true} (synchron auf {@code System.out})</li>
+ * </ul>
+ * Parameter {@code appender}: {@code sync} schreibt im aufrufenden Thread, {@code async} über einen
+ * {@link AsyncAppender} wie im Profil {@code prod}. Gemessen wird die Zeit im aufrufenden Thread. Kommt der
+ * Schreib-Thread nicht hinterher, verwirft der AsyncAppender INFO-Meldungen (wie im Betrieb).
+ *
+ * @author grubi
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    /** Eine typische Insert-Anweisung von Hibernate. */
+    private static final String SQL = "insert into owned_pokemon (box_id,change_version,edition,level,nickname,"
+            + "species_id,version,id) values (?,?,?,?,?,?,?,?)";
+
+    @Param({"sync", "async"})
+    public String appender;
+
+    private LoggerContext context;
+    private Logger logger;
+    private PrintStream sqlOut;
+    private OwnedPokemon pokemon;
+    private BaselineFormat baselinePokemon;
+    private String request;
+
+    @Setup
+    public void setup() throws Exception {
+        Path dir = Files.createDirectories(Path.of("target", "logging-benchmark"));
+
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        // Muster der Konsolenausgabe von Spring Boot
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5level " + ProcessHandle.current().pid()
+                + " --- [%15.15thread] %-40.40logger{39} : %msg%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setName("FILE");
+        file.setFile(dir.resolve(appender + ".log").toString());
+        file.setAppend(false);
+        file.setEncoder(encoder);
+        file.start();
+        if (!file.isStarted()) {
+            throw new IllegalStateException("Log-Datei konnte nicht geöffnet werden: " + context.getStatusManager().getCopyOfStatusList());
+        }
+
+        Appender<ILoggingEvent> target = file;
+        if ("async".equals(appender)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC_FILE");
+            async.setQueueSize(1024);
+            async.addAppender(file);
+            async.start();
+            target = async;
+        }
+
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(target);
+        logger = context.getLogger("pokedex.service.OwnedPokemonService");
+
+        sqlOut = new PrintStream(Files.newOutputStream(dir.resolve(appender + "-sql.log")), true);
+
+        Box box = PerfFixtures.fullBox();
+        pokemon = box.getPokemons().get(2);
+        baselinePokemon = new BaselineFormat(pokemon);
+        request = "CreateOwnedDTO(pokedexId=25, nickname=Pika, level=12, box=BOX1, edition=ROT)";
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+        sqlOut.close();
+    }
+
+    @Benchmark
+    public void infoPerRequestBaseline() {
+        logger.info("Füge ein neues gefangenes Pokemon hinzu: {}", request);
+        logger.info("Neues Pokemon erfolgreich hinzugefügt: {}", baselinePokemon);
+        logger.info("Suche das gefangene Pokemon per dessen ID. {}", pokemon.getId());
+    }
+
+    @Benchmark
+    public void infoPerRequest() {
+        logger.info("Füge ein neues gefangenes Pokemon hinzu: {}", request);
+        logger.info("Neues Pokemon erfolgreich hinzugefügt: {}", pokemon);
+        logger.info("Suche das gefangene Pokemon per dessen ID. {}", pokemon.getId());
+    }
+
+    @Benchmark
+    public void debugPerRequest() {
+        logger.debug("Füge ein neues gefangenes Pokemon hinzu: {}", request);
+        logger.debug("Neues Pokemon erfolgreich hinzugefügt: {}", pokemon);
+        logger.debug("Suche das gefangene Pokemon per dessen ID. {}", pokemon.getId());
+    }
+
+    @Benchmark
+    public void sqlEcho() {
+        // So gibt Hibernate bei show-sql jede Anweisung aus (PrintStream ist synchronisiert)
+        sqlOut.println("Hibernate: " + SQL);
+    }
+
+    /**
+     * Formatiert ein Pokémon wie das frühere, von Lombok erzeugte {@code toString()} von {@code OwnedPokemon}:
+     * alle Felder einschließlich Art ({@code PokemonSpecies.toString()}) und Box. Wie beim echten Objekt wird erst
+     * formatiert, wenn die Meldung tatsächlich ausgegeben wird.
+     *
+     * @param pokemon Das zu formatierende Pokémon
+     */
+    private record BaselineFormat(OwnedPokemon pokemon) {
+
+        @Override
+        public String toString() {
+            return "OwnedPokemon(id=" + pokemon.getId()
+                    + ", species=" + pokemon.getSpecies()
+                    + ", nickname=" + pokemon.getNickname()
+                    + ", level=" + pokemon.getLevel()
+                    + ", box=" + pokemon.getBox()
+                    + ", edition=" + pokemon.getEdition() + ")";
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package pokedex.perf;
+
+import org.springframework.test.util.ReflectionTestUtils;
+import pokedex.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Testdaten für die Benchmarks, unabhängig von einer Datenbank.
+ *
+ * @author grubi
+ */
+final class PerfFixtures {
+
+    /** Ein paar Arten mit und ohne Sekundärtyp. */
+    private static final PokemonSpecies[] SPECIES = {
+            new PokemonSpecies(1, "Bisasam", PokemonType.PFLANZE, PokemonType.GIFT),
+            new PokemonSpecies(4, "Glumanda", PokemonType.FEUER, null),
+            new PokemonSpecies(6, "Glurak", PokemonType.FEUER, PokemonType.FLUG),
+            new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null),
+            new PokemonSpecies(143, "Relaxo", PokemonType.NORMAL, null)
+    };
+
+    private PerfFixtures() {
+    }
+
+    /**
+     * Erzeugt ein gefangenes Pokémon mit gesetzter ID.
+     *
+     * @param id  ID des Pokémon
+     * @param box Box, in der es liegt
+     * @return Das Pokémon
+     */
+    static OwnedPokemon pokemon(long id, Box box) {
+        OwnedPokemon pokemon = new OwnedPokemon(SPECIES[(int) (id % SPECIES.length)],
+                id % 3 == 0 ? "Nick" + id : null, (int) (id % 100) + 1, box.getEdition(), box);
+        pokemon.setId(id);
+        return pokemon;
+    }
+
+    /**
+     * Erzeugt eine volle Box (20 Pokémon), deren Pokémon-Liste wie nach dem Laden aus der Datenbank befüllt ist.
+     *
+     * @return Die Box
+     */
+    @SuppressWarnings("unchecked")
+    static Box fullBox() {
+        Box box = new Box(BoxName.BOX1, Edition.ROT);
+        ReflectionTestUtils.setField(box, "id", 1L);
+        List<OwnedPokemon> pokemons = (List<OwnedPokemon>) ReflectionTestUtils.getField(box, "pokemons");
+        for (int i = 1; i <= box.getCapacity(); i++) {
+            OwnedPokemon pokemon = pokemon(i, box);
+            pokemon.setSlot(i - 1);
+            pokemons.add(pokemon);
+        }
+        return box;
+    }
+
+    /**
+     * Erzeugt eine Liste gefangener Pokémon, verteilt auf mehrere Boxen.
+     *
+     * @param size Anzahl Pokémon
+     * @return Die Pokémon
+     */
+    static List<OwnedPokemon> ownedList(int size) {
+        List<Box> boxes = new ArrayList<>();
+        for (BoxName name : BoxName.values()) {
+            boxes.add(new Box(name, Edition.ROT));
+        }
+        List<OwnedPokemon> result = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            result.add(pokemon(i, boxes.get(i % boxes.size())));
+        }
+        return result;
+    }
+}
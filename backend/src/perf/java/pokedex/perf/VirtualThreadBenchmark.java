@@ -0,0 +1,252 @@
+package pokedex.perf;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import pokedex.PokedexApp;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vergleicht den Durchsatz von Plattform-Threads (Tomcat-Threadpool) und virtuellen Threads
+ * (Profil {@code virtual-threads}) bei vielen parallelen Clients und langsamer Datenbank.
+ * <p>
+ * Beide Varianten laufen nacheinander mit derselben Last aus dem {@link LoadTest} gegen jeweils eine frische
+ * H2-Datenbank, die Clients laufen in beiden Fällen auf virtuellen Threads. Jede JDBC-Ausführung wird dabei
+ * künstlich verzögert (Netzwerk-Latenz zur Datenbank), während die Verbindung belegt ist. So wird sichtbar,
+ * ob Threads oder DB-Verbindungen der Engpass sind.
+ * </p>
+ * <p>
+ * Die zweite Variante profitiert vom bereits übersetzten Code der ersten (JIT); für belastbare Zahlen
+ * beide Reihenfolgen messen ({@code modes=virtual,platform}). Lastgenerator und Anwendung teilen sich
+ * die CPU, auf Maschinen mit wenigen Kernen sind die Ergebnisse daher nur eingeschränkt übertragbar.
+ * </p>
+ * <p>
+ * Während der Messung mit virtuellen Threads werden per JFR alle {@code jdk.VirtualThreadPinned}-Ereignisse
+ * aufgezeichnet, d.h. virtuelle Threads, die in einem {@code synchronized}-Block blockiert haben und dabei ihren
+ * Trägerthread nicht freigeben konnten. Ausgegeben werden die betroffenen Stellen (erste Frames außerhalb des JDK).
+ * </p>
+ *
+ * <b>Optionen</b> (als {@code key=value}, alle optional):
+ * <ul>
+ *   <li>{@code threads=400}: Anzahl paralleler Clients (deutlich über den 200 Tomcat-Threads)</li>
+ *   <li>{@code dbLatency=5}: Zusätzliche Latenz je JDBC-Ausführung in Millisekunden</li>
+ *   <li>{@code pokemon}, {@code warmup=5}, {@code duration=20}, {@code mix}: wie beim {@link LoadTest}</li>
+ *   <li>{@code modes=platform,virtual}: Zu messende Varianten (in dieser Reihenfolge)</li>
+ *   <li>{@code carriers}: Anzahl Trägerthreads für virtuelle Threads (Standard: Anzahl CPU-Kerne)</li>
+ *   <li>Optionen mit Punkt (z.B. {@code spring.datasource.hikari.maximum-pool-size=20}) werden als
+ *   Spring-Properties an beide Varianten weitergegeben, z.B. auch eine MariaDB-URL, um den Treiberpfad
+ *   von MariaDB Connector/J statt H2 auf Pinning zu prüfen</li>
+ * </ul>
+ *
+ * <b>Start:</b>
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=pokedex.perf.VirtualThreadBenchmark \
+ *     -Dbenchmark.args="threads=400 dbLatency=5 duration=20"
+ * </pre>
+ *
+ * @author grubi
+ */
+public class VirtualThreadBenchmark {
+
+    /** Anzahl ausgegebener Pinning-Stellen. */
+    private static final int PINNING_SITES = 10;
+
+    /** Anzahl Frames außerhalb des JDK, die eine Pinning-Stelle beschreiben. */
+    private static final int SITE_FRAMES = 3;
+
+    /** Wartezeit, bis JFR alle Ereignisse der Messung ausgeliefert hat. */
+    private static final Duration JFR_FLUSH = Duration.ofSeconds(2);
+
+    /**
+     * Startet den Vergleich.
+     *
+     * @param args Optionen als {@code key=value}
+     * @throws Exception Bei Fehlern während Start, Vorbereitung oder Messung
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTest.parseOptions(args);
+        if (options.containsKey("carriers")) {
+            // Muss vor dem ersten virtuellen Thread gesetzt sein
+            System.setProperty("jdk.virtualThreadScheduler.parallelism", options.get("carriers"));
+        }
+        int pokemon = Integer.parseInt(options.getOrDefault("pokemon", "600"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "400"));
+        Duration dbLatency = Duration.ofMillis(Long.parseLong(options.getOrDefault("dbLatency", "5")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "5")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "20")));
+        Map<LoadTest.Operation, Integer> mix = LoadTest.parseMix(options.getOrDefault("mix", "default"));
+        List<String> modes = List.of(options.getOrDefault("modes", "platform,virtual").split(","));
+
+        Map<String, String> properties = new HashMap<>();
+        options.forEach((key, value) -> {
+            if (key.contains(".")) {
+                properties.put(key, value);
+            }
+        });
+
+        Map<String, Double> throughput = new LinkedHashMap<>();
+        for (String mode : modes) {
+            boolean virtual = mode.trim().equals("virtual");
+            Map<String, String> modeProperties = new HashMap<>(properties);
+            // Frische Datenbank je Variante (die H2-URL des Profils loadtest bleibt bis zum JVM-Ende bestehen)
+            modeProperties.putIfAbsent("spring.datasource.url",
+                    "jdbc:h2:mem:vt-" + mode.trim() + ";MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+            // Als Kommandozeilenargumente, damit sie Vorrang vor den Profil-Dateien haben
+            String[] springArgs = modeProperties.entrySet().stream()
+                    .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                    .toArray(String[]::new);
+
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(PokedexApp.class)
+                    .profiles(virtual ? new String[]{"loadtest", "virtual-threads"} : new String[]{"loadtest"})
+                    .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(delayingDataSources(dbLatency)))
+                    .run(springArgs);
+            try {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                LoadTest loadTest = new LoadTest(URI.create("http://localhost:" + port), mix).withVirtualClients();
+                int seeded = loadTest.seed(pokemon);
+                System.out.printf("%n=== %s: %d Pokemon, %d Clients, DB-Latenz %d ms, Verbindungspool %s ===%n",
+                        virtual ? "Virtuelle Threads" : "Plattform-Threads", seeded, threads, dbLatency.toMillis(),
+                        context.getEnvironment().getProperty("spring.datasource.hikari.maximum-pool-size", "10"));
+
+                loadTest.run(threads, warmup);
+                if (virtual) {
+                    try (RecordingStream pinning = new RecordingStream()) {
+                        Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+                        pinning.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+                        pinning.onEvent("jdk.VirtualThreadPinned",
+                                event -> sites.computeIfAbsent(site(event), s -> new LongAdder()).increment());
+                        pinning.startAsync();
+                        Map<LoadTest.Operation, LoadTest.Stats> result = loadTest.run(threads, duration);
+                        // JFR liefert die Ereignisse gepuffert (etwa einmal pro Sekunde) aus
+                        Thread.sleep(JFR_FLUSH.toMillis());
+                        throughput.put(mode, LoadTest.report(result, duration));
+                        reportPinning(sites);
+                    }
+                } else {
+                    throughput.put(mode, LoadTest.report(loadTest.run(threads, duration), duration));
+                }
+            } finally {
+                context.close();
+            }
+        }
+
+        System.out.printf("%n%-10s %12s%n", "Variante", "Anfr./s");
+        throughput.forEach((mode, value) -> System.out.printf("%-10s %12.1f%n", mode, value));
+    }
+
+    /**
+     * Beschreibt die Stelle eines Pinning-Ereignisses über die ersten Frames außerhalb des JDK.
+     */
+    private static String site(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "(ohne Stacktrace)";
+        }
+        List<String> frames = new ArrayList<>();
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.")) {
+                continue;
+            }
+            frames.add(type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber());
+            if (frames.size() == SITE_FRAMES) {
+                break;
+            }
+        }
+        return frames.isEmpty() ? "(nur JDK-Frames)" : String.join(" <- ", frames);
+    }
+
+    /**
+     * Gibt die häufigsten Pinning-Stellen aus.
+     */
+    private static void reportPinning(Map<String, LongAdder> sites) {
+        long total = sites.values().stream().mapToLong(LongAdder::sum).sum();
+        System.out.printf("%nPinning (jdk.VirtualThreadPinned): %d Ereignisse%n", total);
+        sites.entrySet().stream()
+                .sorted(Map.Entry.<String, LongAdder>comparingByValue(Comparator.comparingLong(LongAdder::sum)).reversed())
+                .limit(PINNING_SITES)
+                .forEach(entry -> System.out.printf("%8d  %s%n", entry.getValue().sum(), entry.getKey()));
+    }
+
+    /**
+     * Verzögert jede JDBC-Ausführung aller {@link DataSource}-Beans um die angegebene Latenz.
+     */
+    private static BeanPostProcessor delayingDataSources(Duration latency) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !latency.isZero() ? new DelayedDataSource(dataSource, latency) : bean;
+            }
+        };
+    }
+
+    /**
+     * DataSource, deren Statements vor jeder Ausführung die Latenz abwarten (bei belegter Verbindung,
+     * wie ein Round-Trip zur entfernten Datenbank).
+     */
+    static final class DelayedDataSource extends DelegatingDataSource {
+
+        private final Duration latency;
+
+        DelayedDataSource(DataSource target, Duration latency) {
+            super(target);
+            this.latency = latency;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return delayed(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return delayed(super.getConnection(username, password));
+        }
+
+        private Connection delayed(Connection connection) {
+            return proxy(Connection.class, connection, (method, result) ->
+                    result instanceof Statement statement
+                            ? proxy(method.getReturnType(), statement, (statementMethod, statementResult) -> statementResult)
+                            : result);
+        }
+
+        /**
+         * Erzeugt einen Proxy, der Aufrufe weiterreicht und bei {@code execute*}-Methoden vorher die Latenz abwartet.
+         */
+        @SuppressWarnings("unchecked")
+        private <T> T proxy(Class<?> type, Object target, ResultMapper mapper) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                if (method.getName().startsWith("execute") && target instanceof Statement) {
+                    Thread.sleep(latency);
+                }
+                try {
+                    return mapper.map(method, method.invoke(target, args));
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+
+        /** Nachbearbeitung des Ergebnisses eines weitergereichten Aufrufs. */
+        @FunctionalInterface
+        private interface ResultMapper {
+            Object map(Method method, Object result);
+        }
+    }
+}
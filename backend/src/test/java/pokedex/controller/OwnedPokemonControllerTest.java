@@ -6,16 +6,29 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import pokedex.dto.CreateOwnedDTO;
+import pokedex.dto.ImportResultDTO;
 import pokedex.dto.OwnedPokemonDTO;
+import pokedex.dto.OwnedPokemonPageDTO;
+import pokedex.dto.UpdateOwnedDTO;
 import pokedex.exception.NotFoundException;
+import pokedex.exception.PreconditionFailedException;
 import pokedex.model.*;
+import pokedex.service.OwnedPokemonChangeFeed;
+import pokedex.service.OwnedPokemonImportService;
 import pokedex.service.OwnedPokemonService;
 
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -29,6 +42,12 @@ class OwnedPokemonControllerTest {
     @MockBean
     private OwnedPokemonService ownedService;
 
+    @MockBean
+    private OwnedPokemonImportService importService;
+
+    @MockBean
+    private OwnedPokemonChangeFeed changeFeed;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -43,9 +62,9 @@ class OwnedPokemonControllerTest {
         OwnedPokemon mon2 = new OwnedPokemon(species, "Pika", 9, Edition.BLAU, box);
         mon2.setId(2L);
 
-        List<OwnedPokemon> pokemons = List.of(mon1, mon2);
+        List<OwnedPokemonDTO> pokemons = List.of(OwnedPokemonDTO.from(mon1), OwnedPokemonDTO.from(mon2));
 
-        when(ownedService.getAllPokemon()).thenReturn(pokemons);
+        when(ownedService.getAllPokemonDTOs()).thenReturn(pokemons);
 
         mockMvc.perform(get("/api/pokemon"))
                 .andExpect(status().isOk())
@@ -54,6 +73,58 @@ class OwnedPokemonControllerTest {
                 .andExpect(jsonPath("$.length()").value(2));
     }
 
+    @Test
+    void testGetPokemonPage_returnsItemsAndCursor() throws Exception {
+        PokemonSpecies species = new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null);
+        OwnedPokemon mon = new OwnedPokemon(species, "Pika", 9, Edition.BLAU, new Box(BoxName.BOX1, Edition.BLAU));
+        mon.setId(7L);
+
+        when(ownedService.getPokemonPage(null, 1, Edition.BLAU, null, null))
+                .thenReturn(new OwnedPokemonPageDTO(List.of(OwnedPokemonDTO.from(mon)), 7L));
+
+        mockMvc.perform(get("/api/pokemon/page").param("limit", "1").param("edition", "BLAU"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value(7));
+    }
+
+    @Test
+    void testGetPokemonPage_limitTooLarge_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/pokemon/page").param("limit", "100000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamPokemon_writesOneJsonObjectPerLine() throws Exception {
+        PokemonSpecies species = new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null);
+        Box box = new Box(BoxName.BOX1, Edition.ROT);
+        OwnedPokemon mon1 = new OwnedPokemon(species, "A", 5, Edition.ROT, box);
+        mon1.setId(1L);
+        OwnedPokemon mon2 = new OwnedPokemon(species, "B", 6, Edition.ROT, box);
+        mon2.setId(2L);
+
+        doAnswer(invocation -> {
+            Consumer<OwnedPokemonDTO> consumer = invocation.getArgument(3);
+            consumer.accept(OwnedPokemonDTO.from(mon1));
+            consumer.accept(OwnedPokemonDTO.from(mon2));
+            return null;
+        }).when(ownedService).streamPokemon(isNull(), isNull(), isNull(), any());
+
+        MvcResult result = mockMvc.perform(get("/api/pokemon/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.trim().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("B", objectMapper.readTree(lines[1]).get("nickname").asText());
+    }
+
     @Test
     void testAddPokemon_success() throws Exception {
         // Input-DTO für den Request
@@ -101,4 +172,134 @@ class OwnedPokemonControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").exists());
     }
+
+    @Test
+    void testImportPokemon_passesBodyStreamToService() throws Exception {
+        when(importService.importPokemon(any())).thenAnswer(invocation -> {
+            byte[] body = invocation.<java.io.InputStream>getArgument(0).readAllBytes();
+            return new ImportResultDTO(body.length > 0 ? 2 : 0);
+        });
+
+        mockMvc.perform(post("/api/pokemon/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"pokedexId\":25},{\"pokedexId\":1}]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.imported").value(2));
+    }
+
+    @Test
+    void testUpdatePokemon_ifMatch_passesVersionAndReturnsNewETag() throws Exception {
+        OwnedPokemon pokemon = new OwnedPokemon(new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null),
+                "Pika", 10, Edition.ROT, new Box(BoxName.BOX1, Edition.ROT));
+        pokemon.setId(1L);
+        pokemon.setVersion(4L);
+        when(ownedService.updatePokemon(eq(1L), any(UpdateOwnedDTO.class), eq(Set.of(3L)))).thenReturn(pokemon);
+
+        mockMvc.perform(patch("/api/pokemon/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update())))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
+    @Test
+    void testUpdatePokemon_staleETag_returns412() throws Exception {
+        when(ownedService.updatePokemon(eq(1L), any(UpdateOwnedDTO.class), eq(Set.of(2L))))
+                .thenThrow(new PreconditionFailedException("Das Pokemon wurde zwischenzeitlich geändert, bitte neu laden"));
+
+        mockMvc.perform(patch("/api/pokemon/1")
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update())))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void testUpdatePokemon_weakIfMatch_neverMatches() throws Exception {
+        when(ownedService.updatePokemon(eq(1L), any(UpdateOwnedDTO.class), eq(Set.of())))
+                .thenThrow(new PreconditionFailedException("Das Pokemon wurde zwischenzeitlich geändert, bitte neu laden"));
+
+        mockMvc.perform(patch("/api/pokemon/1")
+                        .header("If-Match", "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update())))
+                .andExpect(status().isPreconditionFailed());
+        verify(ownedService).updatePokemon(eq(1L), any(UpdateOwnedDTO.class), eq(Set.of()));
+    }
+
+    @Test
+    void testUpdatePokemon_ifMatchList_passesAllStrongVersions() throws Exception {
+        OwnedPokemon pokemon = new OwnedPokemon(new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null),
+                "Pika", 10, Edition.ROT, new Box(BoxName.BOX1, Edition.ROT));
+        pokemon.setId(1L);
+        pokemon.setVersion(5L);
+        when(ownedService.updatePokemon(eq(1L), any(UpdateOwnedDTO.class), eq(Set.of(3L, 4L)))).thenReturn(pokemon);
+
+        mockMvc.perform(patch("/api/pokemon/1")
+                        .header("If-Match", "\"3\", W/\"7\", \"abc\", \"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update())))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5\""));
+    }
+
+    @Test
+    void testUpdatePokemon_concurrentChangeWithIfMatch_returns412() throws Exception {
+        when(ownedService.updatePokemon(eq(1L), any(UpdateOwnedDTO.class), eq(Set.of(3L))))
+                .thenThrow(new ObjectOptimisticLockingFailureException(OwnedPokemon.class, 1L));
+
+        mockMvc.perform(patch("/api/pokemon/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update())))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void testUpdatePokemon_concurrentChangeWithoutIfMatch_returns409() throws Exception {
+        when(ownedService.updatePokemon(eq(1L), any(UpdateOwnedDTO.class), isNull()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(OwnedPokemon.class, 1L));
+
+        mockMvc.perform(patch("/api/pokemon/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update())))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testUpdatePokemon_withoutIfMatch_skipsVersionCheck() throws Exception {
+        OwnedPokemon pokemon = new OwnedPokemon(new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null),
+                "Pika", 10, Edition.ROT, new Box(BoxName.BOX1, Edition.ROT));
+        pokemon.setId(1L);
+        when(ownedService.updatePokemon(eq(1L), any(UpdateOwnedDTO.class), isNull())).thenReturn(pokemon);
+
+        mockMvc.perform(patch("/api/pokemon/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update())))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testUpdatePokemon_negativePokedexId_returns400() throws Exception {
+        UpdateOwnedDTO request = update();
+        request.setPokedexId(-1);
+
+        mockMvc.perform(patch("/api/pokemon/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+        verify(ownedService, never()).updatePokemon(any(), any(), any());
+    }
+
+    private static UpdateOwnedDTO update() {
+        return UpdateOwnedDTO.builder()
+                .nickname("Pika")
+                .level(10)
+                .box(BoxName.BOX1)
+                .edition(Edition.ROT)
+                .pokedexId(25)
+                .build();
+    }
 }
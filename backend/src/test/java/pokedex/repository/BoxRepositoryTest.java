@@ -0,0 +1,61 @@
+package pokedex.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import pokedex.model.*;
+import pokedex.service.ChangeVersionClock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ChangeVersionClock.class)
+class BoxRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private BoxRepository boxRepo;
+
+    private Box box1;
+    private Box box2;
+
+    @BeforeEach
+    void setup() {
+        PokemonSpecies pikachu = em.persist(new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null));
+        box1 = em.persist(new Box(BoxName.BOX1, Edition.ROT));
+        box2 = em.persist(new Box(BoxName.BOX2, Edition.ROT));
+        em.persist(new OwnedPokemon(pikachu, null, 5, Edition.ROT, box1, 0));
+        em.persist(new OwnedPokemon(pikachu, null, 6, Edition.ROT, box1, 1));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void testAdjustOccupancy_updatesCounter() {
+        boxRepo.adjustOccupancy(box2.getId(), 1);
+        boxRepo.adjustOccupancy(box2.getId(), 1);
+        boxRepo.adjustOccupancy(box2.getId(), -1);
+
+        assertEquals(1, boxRepo.findOccupancyByNameAndEdition(BoxName.BOX2, Edition.ROT).orElseThrow());
+    }
+
+    @Test
+    void testReconcileOccupancy_fixesDrift() {
+        // Zähler von Box 1 steht noch auf 0, obwohl zwei Pokémon darin liegen; Box 2 ist fälschlich belegt
+        boxRepo.adjustOccupancy(box2.getId(), 3);
+
+        assertEquals(2, boxRepo.reconcileOccupancy());
+        assertEquals(2, boxRepo.findOccupancyByNameAndEdition(BoxName.BOX1, Edition.ROT).orElseThrow());
+        assertEquals(0, boxRepo.findOccupancyByNameAndEdition(BoxName.BOX2, Edition.ROT).orElseThrow());
+
+        // Ein zweiter Abgleich findet keine Abweichung mehr
+        assertEquals(0, boxRepo.reconcileOccupancy());
+    }
+}
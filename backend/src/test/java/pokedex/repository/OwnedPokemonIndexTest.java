@@ -0,0 +1,279 @@
+package pokedex.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import pokedex.model.*;
+import pokedex.service.ChangeVersionClock;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft per {@code EXPLAIN}, dass die Abfragen der Repositories auf gefangene Pokémon einen Index nutzen und nicht
+ * die ganze Tabelle lesen (H2 zeigt den gewählten Index als Kommentar im Plan).
+ * <p>
+ * Das Schema entsteht wie bei einer bestehenden Installation: Die H2-Datenbank startet mit den Tabellen von vor
+ * der ersten Migration ({@code db/baseline-schema.sql}), Flyway wendet alle Migrationen an und Hibernate ändert
+ * nichts mehr ({@code ddl-auto=none}). Geprüft werden die Statements, die die Repository-Methoden tatsächlich
+ * ausführen. Die gebundenen Parameter werden dafür als Literale eingesetzt, so wie der MariaDB-Treiber
+ * (clientseitige Prepared Statements) sie an den Server schickt.
+ * </p>
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ChangeVersionClock.class, OwnedPokemonIndexTest.StatementRecorder.class})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pokeapp_migrated;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;"
+                + "INIT=RUNSCRIPT FROM 'classpath:db/baseline-schema.sql'",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+class OwnedPokemonIndexTest {
+
+    /** Anzahl Pokémon je Box, damit der Optimierer mit einer gefüllten Tabelle plant. */
+    private static final int POKEMON_PER_BOX = 200;
+
+    @Autowired
+    private OwnedPokemonRepository ownedRepo;
+
+    @Autowired
+    private BoxRepository boxRepo;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private StatementRecorder recorder;
+
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setup() {
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("insert into pokemon_species (id, pokedex_id, name, type1, type2) values (1, 1, 'Bisasam', 'PFLANZE', 'GIFT')");
+        jdbc.update("insert into pokemon_species (id, pokedex_id, name, type1) values (25, 25, 'Pikachu', 'ELEKTRO')");
+        long boxId = 0;
+        long pokemonId = 0;
+        List<Object[]> rows = new ArrayList<>();
+        for (Edition edition : new Edition[]{Edition.ROT, Edition.BLAU, Edition.GELB}) {
+            for (BoxName name : new BoxName[]{BoxName.BOX1, BoxName.BOX2}) {
+                boxId++;
+                jdbc.update("insert into box (id, name, edition, occupancy) values (?, ?, ?, ?)",
+                        boxId, name.name(), edition.name(), POKEMON_PER_BOX);
+                for (int slot = 0; slot < POKEMON_PER_BOX; slot++) {
+                    rows.add(new Object[]{++pokemonId, slot % 10 == 0 ? 25 : 1, 5, boxId, edition.name(), pokemonId, slot});
+                }
+            }
+        }
+        jdbc.batchUpdate("insert into owned_pokemon (id, species_id, level, box_id, edition, change_version, version, slot) "
+                + "values (?, ?, ?, ?, ?, ?, 0, ?)", rows);
+    }
+
+    @Test
+    void testMigratedSchema_hasIndexesWithoutRedundantBoxIndex() {
+        List<String> indexes = jdbc.queryForList("select lower(index_name) from information_schema.indexes "
+                + "where table_name = 'owned_pokemon'", String.class);
+
+        assertTrue(indexes.contains("idx_owned_pokemon_edition_box"), indexes::toString);
+        assertTrue(indexes.contains("idx_owned_pokemon_species"), indexes::toString);
+        assertTrue(indexes.contains("uk_owned_pokemon_box_slot_index_b"), indexes::toString);
+        assertFalse(indexes.contains("idx_owned_pokemon_box_id"), indexes::toString);
+    }
+
+    @Test
+    void testCountByBox_usesBoxIndex() {
+        Box box = boxRepo.findByNameAndEdition(BoxName.BOX2, Edition.GELB).orElseThrow();
+
+        String plan = explainOwnedPokemonQuery(() -> assertEquals(POKEMON_PER_BOX, ownedRepo.countByBox(box)));
+        assertIndexLookup(plan, "box_id =");
+    }
+
+    @Test
+    void testFindSlotsByBoxIds_usesBoxSlotIndex() {
+        Box first = boxRepo.findByNameAndEdition(BoxName.BOX1, Edition.ROT).orElseThrow();
+        Box second = boxRepo.findByNameAndEdition(BoxName.BOX2, Edition.ROT).orElseThrow();
+
+        String plan = explainOwnedPokemonQuery(() -> ownedRepo.findSlotsByBoxIds(List.of(first.getId(), second.getId())));
+        assertIndexLookup(plan, "box_id IN");
+        assertTrue(plan.contains("uk_owned_pokemon_box_slot"), plan);
+    }
+
+    @Test
+    void testFindDTOsByBox_usesBoxIndex() {
+        String plan = explainOwnedPokemonQuery(() -> ownedRepo.findDTOsByBox(BoxName.BOX1, Edition.BLAU));
+        assertIndexLookup(plan, "box_id =");
+    }
+
+    @Test
+    void testStreamDTOsByEdition_usesEditionIndex() {
+        String plan = explainOwnedPokemonQuery(() -> {
+            try (Stream<?> pokemon = ownedRepo.streamDTOs(Edition.BLAU, null, null)) {
+                assertEquals(2 * POKEMON_PER_BOX, pokemon.count());
+            }
+        });
+        assertIndexLookup(plan, "edition =");
+        assertTrue(plan.contains("idx_owned_pokemon_edition_box"), plan);
+    }
+
+    @Test
+    void testStreamDTOsByPokedexId_usesSpeciesIndex() {
+        String plan = explainOwnedPokemonQuery(() -> {
+            try (Stream<?> pokemon = ownedRepo.streamDTOs(null, null, 25)) {
+                assertEquals(6 * POKEMON_PER_BOX / 10, pokemon.count());
+            }
+        });
+        assertIndexLookup(plan, "species_id =");
+    }
+
+    @Test
+    void testFindPageAfter_usesPrimaryKeyRange() {
+        String plan = explainOwnedPokemonQuery(() -> ownedRepo.findPageAfter(600, null, null, null, Limit.of(100)));
+        assertIndexLookup(plan, "id >");
+    }
+
+    /**
+     * Führt einen Repository-Aufruf aus und liefert den Plan des einzigen Statements, das dabei
+     * {@code owned_pokemon} liest.
+     *
+     * @param repositoryCall Aufruf der zu prüfenden Repository-Methode
+     * @return Plan des Statements mit eingesetzten Parametern
+     */
+    private String explainOwnedPokemonQuery(Runnable repositoryCall) {
+        recorder.statements.clear();
+        repositoryCall.run();
+        List<RecordedStatement> queries = recorder.statements.stream()
+                .filter(statement -> statement.sql().contains("owned_pokemon"))
+                .toList();
+        assertEquals(1, queries.size(), () -> "Erwartet genau eine Abfrage: " + queries);
+        return jdbc.queryForObject("explain " + queries.get(0).inlined(), String.class);
+    }
+
+    /**
+     * Prüft, dass der Plan {@code owned_pokemon} über einen Index mit der erwarteten Bedingung liest.
+     *
+     * @param plan      Der Plan
+     * @param condition Bedingung, die als Index-Zugriff auf {@code owned_pokemon} im Plan stehen muss
+     */
+    private static void assertIndexLookup(String plan, String condition) {
+        assertFalse(plan.contains("tableScan"), "Vollständiger Tabellenscan:\n" + plan);
+        int table = plan.indexOf("\"public\".\"owned_pokemon\"");
+        assertTrue(table >= 0, plan);
+        String access = plan.substring(plan.indexOf("/*", table), plan.indexOf("*/", table));
+        assertTrue(access.contains(condition), "Kein Index-Zugriff über " + condition + ":\n" + plan);
+    }
+
+    /**
+     * Ausgeführtes Statement samt gebundener Parameter.
+     *
+     * @param sql        SQL mit Platzhaltern
+     * @param parameters Parameter je Position (ab 1)
+     */
+    record RecordedStatement(String sql, Map<Integer, Object> parameters) {
+
+        /**
+         * Setzt die Parameter als SQL-Literale in die Platzhalter ein.
+         */
+        String inlined() {
+            StringBuilder inlined = new StringBuilder();
+            int parameter = 1;
+            for (char c : sql.toCharArray()) {
+                if (c == '?') {
+                    inlined.append(literal(parameters.get(parameter++)));
+                } else {
+                    inlined.append(c);
+                }
+            }
+            return inlined.toString();
+        }
+
+        private static String literal(Object value) {
+            if (value == null) {
+                return "null";
+            }
+            if (value instanceof Number || value instanceof Boolean) {
+                return value.toString();
+            }
+            return "'" + value.toString().replace("'", "''") + "'";
+        }
+    }
+
+    /**
+     * Umhüllt die {@link DataSource} und zeichnet alle ausgeführten Prepared Statements samt Parametern auf.
+     */
+    static class StatementRecorder implements BeanPostProcessor {
+
+        final List<RecordedStatement> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return proxy(DataSource.class, dataSource, (method, args, result) ->
+                    result instanceof Connection connection ? recordingConnection(connection) : result);
+        }
+
+        private Connection recordingConnection(Connection connection) {
+            return proxy(Connection.class, connection, (method, args, result) ->
+                    method.getName().equals("prepareStatement")
+                            ? recordingStatement((PreparedStatement) result, (String) args[0])
+                            : result);
+        }
+
+        private PreparedStatement recordingStatement(PreparedStatement statement, String sql) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+            return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    parameters.put(index, name.equals("setNull") ? null : args[1]);
+                } else if (name.startsWith("execute")) {
+                    statements.add(new RecordedStatement(sql, new TreeMap<>(parameters)));
+                }
+                return result;
+            });
+        }
+
+        /**
+         * Erzeugt einen Proxy, der jeden Aufruf weiterreicht und das Ergebnis durch {@code wrap} ersetzen kann.
+         */
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, ResultWrapper wrap) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                try {
+                    return wrap.apply(method, args, method.invoke(target, args));
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            };
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+        /**
+         * Ersetzt das Ergebnis eines weitergereichten Aufrufs.
+         */
+        @FunctionalInterface
+        private interface ResultWrapper {
+            Object apply(Method method, Object[] args, Object result);
+        }
+    }
+}
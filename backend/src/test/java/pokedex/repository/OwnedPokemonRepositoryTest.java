@@ -0,0 +1,146 @@
+package pokedex.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import pokedex.dto.OwnedPokemonDTO;
+import pokedex.model.*;
+import pokedex.service.ChangeVersionClock;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ChangeVersionClock.class)
+class OwnedPokemonRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private OwnedPokemonRepository ownedRepo;
+
+    private Statistics statistics;
+
+    private Box box1;
+
+    @BeforeEach
+    void setup() {
+        PokemonSpecies bisasam = em.persist(new PokemonSpecies(1, "Bisasam", PokemonType.PFLANZE, PokemonType.GIFT));
+        PokemonSpecies glumanda = em.persist(new PokemonSpecies(4, "Glumanda", PokemonType.FEUER, null));
+        PokemonSpecies pikachu = em.persist(new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null));
+        Box team = em.persist(new Box(BoxName.TEAM, Edition.ROT));
+        box1 = em.persist(new Box(BoxName.BOX1, Edition.ROT));
+        Box box2 = em.persist(new Box(BoxName.BOX2, Edition.BLAU));
+
+        em.persist(new OwnedPokemon(bisasam, "Bisa", 5, Edition.ROT, team, 0));
+        em.persist(new OwnedPokemon(glumanda, null, 12, Edition.ROT, box1, 1));
+        em.persist(new OwnedPokemon(pikachu, "Pika", 30, Edition.BLAU, box2, 0));
+        em.persist(new OwnedPokemon(pikachu, null, 7, Edition.ROT, box1, 0));
+        em.persist(new OwnedPokemon(glumanda, "Glu", 9, Edition.ROT, team, 1));
+        em.flush();
+        em.clear();
+
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testFindAllDTOs_projectsWithoutHydratingEntities() {
+        List<OwnedPokemonDTO> dtos = ownedRepo.findAllDTOs();
+
+        assertEquals(5, dtos.size());
+        assertEquals("Bisa", dtos.get(0).getNickname());
+        assertEquals("Gift", dtos.get(0).getType2());
+        assertEquals(BoxName.TEAM, dtos.get(0).getBoxName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount(), "Die Projektion darf keine Entitäten laden");
+    }
+
+    @Test
+    void testFindDTOsByBox_returnsOnlyPokemonOfThatBoxInSlotOrder() {
+        List<OwnedPokemonDTO> dtos = ownedRepo.findDTOsByBox(BoxName.BOX1, Edition.ROT);
+
+        assertEquals(List.of("Pikachu", "Glumanda"), dtos.stream().map(OwnedPokemonDTO::getSpeciesName).toList());
+        assertEquals(List.of(0, 1), dtos.stream().map(OwnedPokemonDTO::getSlot).toList());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getPrepareStatementCount(),
+                "Pokémon und Art einer Box müssen in genau einem SQL-Statement geladen werden");
+    }
+
+    @Test
+    void testFindWithSpeciesAndBoxByBoxIdAndSlot_findsOccupant() {
+        OwnedPokemon occupant = ownedRepo.findWithSpeciesAndBoxByBoxIdAndSlot(box1.getId(), 1).orElseThrow();
+
+        assertEquals("Glumanda", occupant.getSpecies().getName());
+        assertEquals(BoxName.BOX1, occupant.getBox().getName());
+        assertTrue(ownedRepo.findWithSpeciesAndBoxByBoxIdAndSlot(box1.getId(), 2).isEmpty());
+    }
+
+    @Test
+    void testSlot_isUniquePerBox() {
+        OwnedPokemon existing = ownedRepo.findAll().get(0);
+        OwnedPokemon duplicate = new OwnedPokemon(existing.getSpecies(), null, 1, existing.getEdition(),
+                existing.getBox(), existing.getSlot());
+
+        assertThrows(PersistenceException.class, () -> em.persistAndFlush(duplicate));
+    }
+
+    @Test
+    void testFindPageAfter_continuesFromCursorAndAppliesFilters() {
+        List<OwnedPokemonDTO> firstPage = ownedRepo.findPageAfter(0L, null, null, null, Limit.of(2));
+        assertEquals(2, firstPage.size());
+
+        List<OwnedPokemonDTO> secondPage = ownedRepo.findPageAfter(firstPage.get(1).getId(), null, null, null, Limit.of(2));
+        assertEquals(2, secondPage.size());
+        assertTrue(secondPage.get(0).getId() > firstPage.get(1).getId());
+
+        List<OwnedPokemonDTO> filtered = ownedRepo.findPageAfter(0L, Edition.ROT, BoxName.TEAM, null, Limit.of(10));
+        assertEquals(List.of("Bisasam", "Glumanda"), filtered.stream().map(OwnedPokemonDTO::getSpeciesName).toList());
+
+        List<OwnedPokemonDTO> bySpecies = ownedRepo.findPageAfter(0L, null, null, 25, Limit.of(10));
+        assertEquals(2, bySpecies.size());
+    }
+
+    @Test
+    void testStreamDTOs_appliesFilters() {
+        try (Stream<OwnedPokemonDTO> stream = ownedRepo.streamDTOs(Edition.ROT, null, null)) {
+            assertEquals(4, stream.count());
+        }
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testFindDTOsChangedBetween_returnsOnlyChangesInRange() {
+        List<OwnedPokemon> all = ownedRepo.findAll();
+        long before = all.stream().mapToLong(OwnedPokemon::getChangeVersion).max().orElseThrow();
+        assertEquals(5, all.stream().mapToLong(OwnedPokemon::getChangeVersion).distinct().count(),
+                "Jedes Pokémon muss eine eigene Version erhalten");
+
+        OwnedPokemon changed = all.get(1);
+        changed.setLevel(50);
+        em.flush();
+        assertTrue(changed.getChangeVersion() > before, "Eine Änderung muss eine neue Version vergeben");
+
+        List<OwnedPokemonDTO> delta = ownedRepo.findDTOsChangedBetween(before, changed.getChangeVersion());
+        assertEquals(1, delta.size());
+        assertEquals(changed.getId(), delta.get(0).getId());
+        assertEquals(50, delta.get(0).getLevel());
+        assertEquals(5, ownedRepo.findDTOsChangedBetween(0, changed.getChangeVersion()).size());
+    }
+}
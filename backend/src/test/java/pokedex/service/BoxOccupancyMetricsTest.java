@@ -0,0 +1,59 @@
+package pokedex.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import pokedex.model.Box;
+import pokedex.model.BoxName;
+import pokedex.model.Edition;
+import pokedex.repository.BoxRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BoxOccupancyMetricsTest {
+
+    private BoxRepository boxRepo;
+    private SimpleMeterRegistry registry;
+    private BoxOccupancyMetrics metrics;
+
+    @BeforeEach
+    void setup() {
+        boxRepo = mock(BoxRepository.class);
+        registry = new SimpleMeterRegistry();
+        metrics = new BoxOccupancyMetrics(boxRepo, registry);
+    }
+
+    @Test
+    void testRefresh_publishesOccupancyPerBoxAndTotal() {
+        when(boxRepo.findAll()).thenReturn(List.of(box(BoxName.TEAM, Edition.ROT, 6), box(BoxName.BOX1, Edition.BLAU, 13)));
+
+        metrics.refresh();
+
+        assertEquals(6, registry.get("pokedex.box.occupancy").tags("box", "TEAM", "edition", "ROT").gauge().value());
+        assertEquals(13, registry.get("pokedex.box.occupancy").tags("box", "BOX1", "edition", "BLAU").gauge().value());
+        assertEquals(19, registry.get("pokedex.pokemon.owned").gauge().value());
+    }
+
+    @Test
+    void testRefresh_overwritesPreviousValues() {
+        when(boxRepo.findAll())
+                .thenReturn(List.of(box(BoxName.BOX2, Edition.GELB, 20)))
+                .thenReturn(List.of(box(BoxName.BOX2, Edition.GELB, 4)));
+
+        metrics.refresh();
+        metrics.refresh();
+
+        assertEquals(4, registry.get("pokedex.box.occupancy").tags("box", "BOX2", "edition", "GELB").gauge().value());
+        assertEquals(4, registry.get("pokedex.pokemon.owned").gauge().value());
+    }
+
+    private static Box box(BoxName name, Edition edition, int occupancy) {
+        Box box = new Box(name, edition);
+        ReflectionTestUtils.setField(box, "occupancy", occupancy);
+        return box;
+    }
+}
@@ -0,0 +1,64 @@
+package pokedex.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import pokedex.exception.NotFoundException;
+import pokedex.model.Box;
+import pokedex.model.BoxName;
+import pokedex.model.Edition;
+import pokedex.repository.BoxRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BoxRegistryTest {
+
+    private BoxRepository boxRepo;
+    private BoxRegistry registry;
+
+    @BeforeEach
+    void setup() {
+        boxRepo = mock(BoxRepository.class);
+        registry = new BoxRegistry(boxRepo);
+    }
+
+    @Test
+    void testGetBox_allBoxesLoaded_resolvesWithoutRepository() {
+        List<Box> all = new ArrayList<>();
+        long id = 1;
+        for (Edition edition : Edition.values()) {
+            for (BoxName name : BoxName.values()) {
+                Box box = new Box(name, edition);
+                ReflectionTestUtils.setField(box, "id", id++);
+                all.add(box);
+            }
+        }
+        when(boxRepo.findAll()).thenReturn(all);
+        registry.warmUp();
+        clearInvocations(boxRepo);
+
+        Box box = registry.getBox(BoxName.BOX3, Edition.BLAU);
+
+        assertEquals(BoxName.BOX3, box.getName());
+        assertEquals(Edition.BLAU, box.getEdition());
+        assertSame(box, registry.getBoxes().get(Edition.BLAU).get(BoxName.BOX3));
+        verifyNoInteractions(boxRepo);
+    }
+
+    @Test
+    void testGetBox_incomplete_fallsBackToRepository() {
+        Box box = new Box(BoxName.BOX1, Edition.ROT);
+        when(boxRepo.findAll()).thenReturn(List.of(box));
+        when(boxRepo.findByNameAndEdition(BoxName.BOX1, Edition.ROT)).thenReturn(Optional.of(box));
+        registry.warmUp();
+
+        assertSame(box, registry.getBox(BoxName.BOX1, Edition.ROT));
+        assertThrows(NotFoundException.class, () -> registry.getBox(BoxName.BOX2, Edition.ROT));
+        verify(boxRepo).findByNameAndEdition(BoxName.BOX1, Edition.ROT);
+    }
+}
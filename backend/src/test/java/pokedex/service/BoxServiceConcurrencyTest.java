@@ -0,0 +1,263 @@
+package pokedex.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import pokedex.dto.BatchMoveDTO;
+import pokedex.dto.BatchMoveResultDTO;
+import pokedex.dto.OwnedPokemonChangeDTO;
+import pokedex.exception.BoxFullException;
+import pokedex.model.*;
+import pokedex.repository.BoxRepository;
+import pokedex.repository.OwnedPokemonRepository;
+import pokedex.repository.PokemonSpeciesRepository;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stresstest: Viele parallele Verschiebungen in dieselbe Ziel-Box dürfen deren Kapazität nie überschreiten.
+ * Jede Verschiebung läuft in ihrer eigenen Transaktion (kein Test-Rollback).
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({BoxService.class, BoxRegistry.class, ChangeVersionClock.class, BoxServiceConcurrencyTest.RecordingListener.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BoxServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int SOURCE_BOXES = 3;
+    private static final int POKEMON_PER_SOURCE_BOX = 20;
+
+    @Autowired
+    private BoxService boxService;
+
+    @Autowired
+    private BoxRepository boxRepo;
+
+    @Autowired
+    private OwnedPokemonRepository ownedRepo;
+
+    @Autowired
+    private PokemonSpeciesRepository speciesRepo;
+
+    @Autowired
+    private RecordingListener events;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbc;
+
+    private final List<Long> pokemonIds = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        jdbc = new JdbcTemplate(dataSource);
+        cleanup();
+        PokemonSpecies pikachu = speciesRepo.save(new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null));
+        boxRepo.save(new Box(BoxName.BOX1, Edition.ROT));
+
+        BoxName[] sources = {BoxName.BOX2, BoxName.BOX3, BoxName.BOX4};
+        for (int i = 0; i < SOURCE_BOXES; i++) {
+            Box source = boxRepo.save(new Box(sources[i], Edition.ROT));
+            for (int j = 0; j < POKEMON_PER_SOURCE_BOX; j++) {
+                pokemonIds.add(ownedRepo.save(new OwnedPokemon(pikachu, null, 5, Edition.ROT, source, j)).getId());
+            }
+        }
+        boxService.reconcileOccupancy();
+    }
+
+    @AfterEach
+    void cleanup() {
+        ownedRepo.deleteAllInBatch();
+        boxRepo.deleteAllInBatch();
+        speciesRepo.deleteAllInBatch();
+        pokemonIds.clear();
+        if (events != null) {
+            events.changes.clear();
+        }
+    }
+
+    /**
+     * Sammelt alle nach dem Commit veröffentlichten Änderungen.
+     */
+    static class RecordingListener {
+
+        final Queue<OwnedPokemonChangeDTO> changes = new ConcurrentLinkedQueue<>();
+
+        @TransactionalEventListener
+        public void onChange(OwnedPokemonChangeDTO change) {
+            changes.add(change);
+        }
+    }
+
+    @Test
+    void testConcurrentMovesIntoSameBox_neverExceedCapacity() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger moved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        BoxName[] sources = {BoxName.BOX2, BoxName.BOX3, BoxName.BOX4};
+        for (int i = 0; i < pokemonIds.size(); i++) {
+            Long id = pokemonIds.get(i);
+            BoxName source = sources[i / POKEMON_PER_SOURCE_BOX];
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    boxService.movePokemon(id, source, Edition.ROT, BoxName.BOX1, Edition.ROT);
+                    moved.incrementAndGet();
+                } catch (BoxFullException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Box target = boxRepo.findByNameAndEdition(BoxName.BOX1, Edition.ROT).orElseThrow();
+        assertEquals(target.getCapacity(), moved.get());
+        assertEquals(pokemonIds.size() - target.getCapacity(), rejected.get());
+        assertEquals(target.getCapacity(), ownedRepo.countByBox(target));
+        assertEquals(target.getCapacity(), target.getOccupancy());
+
+        // Nur committete Verschiebungen werden veröffentlicht
+        assertEquals(target.getCapacity(), events.changes.size());
+        assertTrue(events.changes.stream().allMatch(change -> change.getType() == OwnedPokemonChangeDTO.Type.MOVED
+                && change.getPokemon().getBoxName() == BoxName.BOX1 && change.getFromBox() != BoxName.BOX1));
+
+        // Die Zähler aller Boxen stimmen nach dem Lauf exakt mit dem Datenbestand überein
+        assertEquals(0, boxService.reconcileOccupancy());
+    }
+
+    @Test
+    void testConcurrentBatchMovesIntoSameBox_neverExceedCapacity() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(SOURCE_BOXES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BatchMoveResultDTO>> futures = new ArrayList<>();
+
+        // Jede Quell-Box wird vollständig in Box 1 verschoben, parallel und im nicht-atomaren Modus
+        for (int i = 0; i < SOURCE_BOXES; i++) {
+            List<BatchMoveDTO.Move> moves = pokemonIds.subList(i * POKEMON_PER_SOURCE_BOX, (i + 1) * POKEMON_PER_SOURCE_BOX)
+                    .stream()
+                    .map(id -> new BatchMoveDTO.Move(id, BoxName.BOX1, Edition.ROT))
+                    .toList();
+            futures.add(executor.submit(() -> {
+                start.await();
+                return boxService.moveBatch(new BatchMoveDTO(moves, false));
+            }));
+        }
+
+        start.countDown();
+        int moved = 0;
+        for (Future<BatchMoveResultDTO> future : futures) {
+            moved += future.get(60, TimeUnit.SECONDS).getMoved();
+        }
+        executor.shutdown();
+
+        Box target = boxRepo.findByNameAndEdition(BoxName.BOX1, Edition.ROT).orElseThrow();
+        assertEquals(target.getCapacity(), moved);
+        assertEquals(target.getCapacity(), ownedRepo.countByBox(target));
+        assertEquals(target.getCapacity(), target.getOccupancy());
+        assertEquals(0, boxService.reconcileOccupancy());
+    }
+
+    @Test
+    void testMoveBatch_chainThroughFullBoxes_reusesFreedSlots() {
+        // Box 2, 3 und 4 sind voll: jede Verschiebung macht den Platz für die nächste frei. Die Pokémon rücken
+        // auf Plätze von Pokémon mit höherer ID nach, die Hibernate erst danach schreiben würde.
+        OwnedPokemon first = ownedRepo.findById(pokemonIds.get(2 * POKEMON_PER_SOURCE_BOX + 9)).orElseThrow();
+        OwnedPokemon second = ownedRepo.findById(pokemonIds.get(POKEMON_PER_SOURCE_BOX + 7)).orElseThrow();
+        OwnedPokemon third = ownedRepo.findById(pokemonIds.get(5)).orElseThrow();
+        BatchMoveResultDTO result = boxService.moveBatch(new BatchMoveDTO(List.of(
+                new BatchMoveDTO.Move(first.getId(), BoxName.BOX1, Edition.ROT),
+                new BatchMoveDTO.Move(second.getId(), BoxName.BOX4, Edition.ROT),
+                new BatchMoveDTO.Move(third.getId(), BoxName.BOX3, Edition.ROT)), true));
+
+        assertEquals(3, result.getMoved());
+        assertEquals(0, ownedRepo.findById(first.getId()).orElseThrow().getSlot());
+        assertEquals(first.getSlot(), ownedRepo.findById(second.getId()).orElseThrow().getSlot());
+        assertEquals(second.getSlot(), ownedRepo.findById(third.getId()).orElseThrow().getSlot());
+        for (BoxName name : new BoxName[]{BoxName.BOX3, BoxName.BOX4}) {
+            Box box = boxRepo.findByNameAndEdition(name, Edition.ROT).orElseThrow();
+            assertEquals(box.getCapacity(), box.getOccupancy());
+        }
+        assertEquals(0, boxService.reconcileOccupancy());
+    }
+
+    @Test
+    void testFindSlotsByBoxIds_locksSlotsUntilCommit() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch slotsRead = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Box source = boxRepo.findByNameAndEdition(BoxName.BOX2, Edition.ROT).orElseThrow();
+
+        // Liest die Plätze wie die Platzvergabe (sperrend) und hält die Transaktion offen
+        Future<?> reader = executor.submit(() -> new TransactionTemplate(transactionManager).execute(status -> {
+            assertEquals(POKEMON_PER_SOURCE_BOX, ownedRepo.findSlotsByBoxIds(List.of(source.getId())).size());
+            slotsRead.countDown();
+            await(release);
+            return null;
+        }));
+        await(slotsRead);
+        Future<Integer> writer = executor.submit(() -> jdbc.update("update owned_pokemon set slot = ? where id = ?",
+                POKEMON_PER_SOURCE_BOX, pokemonIds.get(0)));
+
+        // Auch unter REPEATABLE READ (MariaDB) sieht die Platzvergabe so die zuletzt bestätigten Plätze,
+        // da parallele Änderungen bis zum Commit warten müssen
+        awaitBlockedSession();
+        release.countDown();
+        reader.get(30, TimeUnit.SECONDS);
+        assertEquals(1, writer.get(30, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    /**
+     * Wartet, bis eine Transaktion an einer Sperre einer anderen Transaktion hängt.
+     */
+    private void awaitBlockedSession() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (jdbc.queryForObject("select count(*) from information_schema.sessions where blocker_id is not null",
+                Integer.class) == 0) {
+            if (System.nanoTime() > deadline) {
+                fail("Die Änderung hat nicht auf die gelesenen Plätze gewartet");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -2,15 +2,21 @@ package pokedex.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import pokedex.dto.BatchMoveDTO;
+import pokedex.dto.BatchMoveResultDTO;
 import pokedex.exception.BoxFullException;
+import pokedex.exception.InvalidUpdateException;
 import pokedex.exception.NotFoundException;
 import pokedex.exception.SameBoxException;
 import pokedex.model.*;
 import pokedex.repository.BoxRepository;
 import pokedex.repository.OwnedPokemonRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,7 +32,7 @@ class BoxServiceTest {
     void setup() {
         boxRepo = mock(BoxRepository.class);
         ownedRepo = mock(OwnedPokemonRepository.class);
-        boxService = new BoxService(boxRepo, ownedRepo);
+        boxService = new BoxService(boxRepo, ownedRepo, new BoxRegistry(boxRepo), mock(ApplicationEventPublisher.class));
     }
 
     @Test
@@ -45,17 +51,15 @@ class BoxServiceTest {
 
     @Test
     void testIsFull_returnsTrueIfBoxFull_team() {
-        Box box = new Box(BoxName.TEAM, Edition.ROT);
-        when(boxRepo.findByNameAndEdition(BoxName.TEAM, Edition.ROT)).thenReturn(Optional.of(box));
-        when(ownedRepo.countByBox(box)).thenReturn(6L);
+        when(boxRepo.findByNameAndEdition(BoxName.TEAM, Edition.ROT)).thenReturn(Optional.of(box(BoxName.TEAM, Edition.ROT, 1L)));
+        when(boxRepo.findOccupancyByNameAndEdition(BoxName.TEAM, Edition.ROT)).thenReturn(Optional.of(6));
         assertTrue(boxService.isFull(BoxName.TEAM, Edition.ROT));
     }
 
     @Test
     void testIsFull_returnsFalseIfBoxNotFull_box() {
-        Box box = new Box(BoxName.BOX1, Edition.BLAU);
-        when(boxRepo.findByNameAndEdition(BoxName.BOX1, Edition.BLAU)).thenReturn(Optional.of(box));
-        when(ownedRepo.countByBox(box)).thenReturn(5L);
+        when(boxRepo.findByNameAndEdition(BoxName.BOX1, Edition.BLAU)).thenReturn(Optional.of(box(BoxName.BOX1, Edition.BLAU, 2L)));
+        when(boxRepo.findOccupancyByNameAndEdition(BoxName.BOX1, Edition.BLAU)).thenReturn(Optional.of(5));
         assertFalse(boxService.isFull(BoxName.BOX1, Edition.BLAU));
     }
 
@@ -80,12 +84,15 @@ class BoxServiceTest {
         when(pokemon.getEdition()).thenReturn(Edition.ROT);
         when(ownedRepo.findById(1L)).thenReturn(Optional.of(pokemon));
 
+        ReflectionTestUtils.setField(box, "id", 1L);
         Box targetBox = new Box(BoxName.BOX2, Edition.BLAU);
+        ReflectionTestUtils.setField(targetBox, "id", 2L);
         when(boxRepo.findByNameAndEdition(BoxName.BOX2, Edition.BLAU)).thenReturn(Optional.of(targetBox));
-        when(ownedRepo.countByBox(targetBox)).thenReturn(20L); // Box ist voll!
+        when(boxRepo.incrementOccupancyIfBelow(2L, 20)).thenReturn(0); // Box ist voll!
 
         assertThrows(BoxFullException.class, () -> boxService.movePokemon(
                 1L, BoxName.BOX1, Edition.ROT, BoxName.BOX2, Edition.BLAU));
+        verify(pokemon, never()).setBox(any());
     }
 
     @Test
@@ -96,12 +103,16 @@ class BoxServiceTest {
         Box sourceBox = new Box(BoxName.BOX1, Edition.ROT);
         Box targetBox = new Box(BoxName.BOX2, Edition.BLAU);
 
+        when(pokemon.getId()).thenReturn(1L);
+        when(pokemon.getSpecies()).thenReturn(new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null));
         when(pokemon.getBox()).thenReturn(sourceBox);
         when(pokemon.getEdition()).thenReturn(Edition.ROT);
         when(ownedRepo.findById(1L)).thenReturn(Optional.of(pokemon));
 
+        ReflectionTestUtils.setField(sourceBox, "id", 1L);
+        ReflectionTestUtils.setField(targetBox, "id", 2L);
         when(boxRepo.findByNameAndEdition(BoxName.BOX2, Edition.BLAU)).thenReturn(Optional.of(targetBox));
-        when(ownedRepo.countByBox(targetBox)).thenReturn(0L); // Box NICHT voll
+        when(boxRepo.incrementOccupancyIfBelow(2L, 20)).thenReturn(1); // Box NICHT voll
 
         // Act
         assertDoesNotThrow(() -> boxService.movePokemon(
@@ -112,6 +123,184 @@ class BoxServiceTest {
         verify(pokemon).setBox(targetBox);
         verify(pokemon).setEdition(Edition.BLAU);
         // Pokémon wurde gespeichert
-        verify(ownedRepo).save(pokemon);
+        verify(ownedRepo).saveAndFlush(pokemon);
+        // Belegungszähler beider Boxen wurden angepasst
+        verify(boxRepo).adjustOccupancy(1L, -1);
+        verify(boxRepo).incrementOccupancyIfBelow(2L, 20);
+    }
+
+    @Test
+    void testIsFull_usesCapacityOfBox() {
+        when(boxRepo.findByNameAndEdition(BoxName.BOX2, Edition.ROT)).thenReturn(Optional.of(box(BoxName.BOX2, Edition.ROT, 3L)));
+        when(boxRepo.findOccupancyByNameAndEdition(BoxName.BOX2, Edition.ROT)).thenReturn(Optional.of(19)).thenReturn(Optional.of(20));
+        assertFalse(boxService.isFull(BoxName.BOX2, Edition.ROT));
+        assertTrue(boxService.isFull(BoxName.BOX2, Edition.ROT));
+    }
+
+    @Test
+    void testIsFull_unknownBox_throwsNotFoundException() {
+        when(boxRepo.findOccupancyByNameAndEdition(BoxName.BOX3, Edition.GELB)).thenReturn(Optional.empty());
+        assertThrows(NotFoundException.class, () -> boxService.isFull(BoxName.BOX3, Edition.GELB));
+    }
+
+    @Test
+    void testMoveBatch_partial_reportsFullTargetPerItem() {
+        Box team = box(BoxName.TEAM, Edition.ROT, 1L);
+        Box box1 = box(BoxName.BOX1, Edition.ROT, 2L);
+        when(ownedRepo.findAllWithSpeciesAndBoxByIdIn(any())).thenReturn(List.of(
+                pokemon(10L, box1), pokemon(11L, box1), pokemon(12L, box1)));
+        when(boxRepo.findAll()).thenReturn(List.of(team, box1));
+        when(boxRepo.lockOccupancies(any())).thenReturn(List.of(occupancy(1L, 5), occupancy(2L, 3)));
+
+        BatchMoveResultDTO result = boxService.moveBatch(new BatchMoveDTO(List.of(
+                new BatchMoveDTO.Move(10L, BoxName.TEAM, Edition.ROT),
+                new BatchMoveDTO.Move(11L, BoxName.TEAM, Edition.ROT),
+                new BatchMoveDTO.Move(99L, BoxName.TEAM, Edition.ROT)), false));
+
+        // Nur ein Platz im Team frei: erste Verschiebung klappt, zweite scheitert, dritte Pokémon existiert nicht
+        assertEquals(1, result.getMoved());
+        assertEquals(List.of(true, false, false), result.getResults().stream().map(BatchMoveResultDTO.ItemResult::isMoved).toList());
+        assertEquals("Die Ziel Box TEAM ist schon voll", result.getResults().get(1).getMessage());
+        // Je Box genau ein Zähler-Update
+        verify(boxRepo).adjustOccupancy(1L, 1);
+        verify(boxRepo).adjustOccupancy(2L, -1);
+        verify(ownedRepo).saveAllAndFlush(argThat(moved -> moved.iterator().next().getId() == 10L));
+    }
+
+    @Test
+    void testMoveBatch_atomic_boxFull_writesNothing() {
+        Box team = box(BoxName.TEAM, Edition.ROT, 1L);
+        Box box1 = box(BoxName.BOX1, Edition.ROT, 2L);
+        when(ownedRepo.findAllWithSpeciesAndBoxByIdIn(any())).thenReturn(List.of(pokemon(10L, box1), pokemon(11L, box1)));
+        when(boxRepo.findAll()).thenReturn(List.of(team, box1));
+        when(boxRepo.lockOccupancies(any())).thenReturn(List.of(occupancy(1L, 5), occupancy(2L, 3)));
+
+        assertThrows(BoxFullException.class, () -> boxService.moveBatch(new BatchMoveDTO(List.of(
+                new BatchMoveDTO.Move(10L, BoxName.TEAM, Edition.ROT),
+                new BatchMoveDTO.Move(11L, BoxName.TEAM, Edition.ROT)), true)));
+
+        verify(boxRepo, never()).adjustOccupancy(any(), anyInt());
+        verify(ownedRepo, never()).saveAllAndFlush(any());
+    }
+
+    @Test
+    void testMoveBatch_atomic_sameBox_throwsSameBoxException() {
+        Box box1 = box(BoxName.BOX1, Edition.ROT, 2L);
+        when(ownedRepo.findAllWithSpeciesAndBoxByIdIn(any())).thenReturn(List.of(pokemon(10L, box1)));
+        when(boxRepo.findAll()).thenReturn(List.of(box1));
+
+        assertThrows(SameBoxException.class, () -> boxService.moveBatch(new BatchMoveDTO(List.of(
+                new BatchMoveDTO.Move(10L, BoxName.BOX1, Edition.ROT)), true)));
+        verify(boxRepo, never()).lockOccupancies(any());
+    }
+
+    @Test
+    void testMoveBatch_assignsFirstFreeSlotOfTarget() {
+        Box team = box(BoxName.TEAM, Edition.ROT, 1L);
+        Box box1 = box(BoxName.BOX1, Edition.ROT, 2L);
+        OwnedPokemon pokemon = pokemon(10L, box1);
+        when(ownedRepo.findAllWithSpeciesAndBoxByIdIn(any())).thenReturn(List.of(pokemon));
+        when(boxRepo.findAll()).thenReturn(List.of(team, box1));
+        when(boxRepo.lockOccupancies(any())).thenReturn(List.of(occupancy(1L, 2), occupancy(2L, 3)));
+        when(ownedRepo.findSlotsByBoxIds(any())).thenReturn(List.of(slot(1L, 0), slot(1L, 2)));
+
+        boxService.moveBatch(new BatchMoveDTO(List.of(new BatchMoveDTO.Move(10L, BoxName.TEAM, Edition.ROT)), true));
+
+        assertEquals(team, pokemon.getBox());
+        assertEquals(1, pokemon.getSlot());
+    }
+
+    @Test
+    void testMoveToSlot_freeSlot_writesOnlyThatPokemon() {
+        Box box1 = box(BoxName.BOX1, Edition.ROT, 2L);
+        OwnedPokemon pokemon = pokemon(10L, box1);
+        when(ownedRepo.findWithSpeciesAndBoxById(10L)).thenReturn(Optional.of(pokemon));
+        when(ownedRepo.findWithSpeciesAndBoxByBoxIdAndSlot(2L, 7)).thenReturn(Optional.empty());
+
+        List<OwnedPokemon> changed = boxService.moveToSlot(10L, 7);
+
+        assertEquals(List.of(pokemon), changed);
+        assertEquals(7, pokemon.getSlot());
+        verify(boxRepo).lockOccupancies(List.of(2L));
+        verify(ownedRepo, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    void testMoveToSlot_occupiedSlot_swapsWithOccupant() {
+        Box box1 = box(BoxName.BOX1, Edition.ROT, 2L);
+        OwnedPokemon pokemon = pokemon(10L, box1);
+        OwnedPokemon occupant = pokemon(11L, box1);
+        occupant.setSlot(7);
+        when(ownedRepo.findWithSpeciesAndBoxById(10L)).thenReturn(Optional.of(pokemon));
+        when(ownedRepo.findWithSpeciesAndBoxByBoxIdAndSlot(2L, 7)).thenReturn(Optional.of(occupant));
+
+        List<OwnedPokemon> changed = boxService.moveToSlot(10L, 7);
+
+        assertEquals(List.of(pokemon, occupant), changed);
+        assertEquals(7, pokemon.getSlot());
+        assertEquals(0, occupant.getSlot());
+        // Nur die beiden Pokémon werden geschrieben (eines davon zweimal über den Parkplatz)
+        verify(ownedRepo, times(2)).saveAndFlush(pokemon);
+        verify(ownedRepo, times(1)).saveAndFlush(occupant);
+    }
+
+    @Test
+    void testMoveToSlot_slotOutsideBox_throwsInvalidUpdateException() {
+        Box team = box(BoxName.TEAM, Edition.ROT, 1L);
+        when(ownedRepo.findWithSpeciesAndBoxById(10L)).thenReturn(Optional.of(pokemon(10L, team)));
+
+        assertThrows(InvalidUpdateException.class, () -> boxService.moveToSlot(10L, 6));
+        assertThrows(InvalidUpdateException.class, () -> boxService.moveToSlot(10L, -1));
+        verify(boxRepo, never()).lockOccupancies(any());
+    }
+
+    @Test
+    void testSwapSlots_differentBoxes_throwsInvalidUpdateException() {
+        Box team = box(BoxName.TEAM, Edition.ROT, 1L);
+        Box box1 = box(BoxName.BOX1, Edition.ROT, 2L);
+        when(ownedRepo.findAllWithSpeciesAndBoxByIdIn(any())).thenReturn(List.of(pokemon(10L, team), pokemon(11L, box1)));
+
+        assertThrows(InvalidUpdateException.class, () -> boxService.swapSlots(10L, 11L));
+        verify(ownedRepo, never()).saveAndFlush(any());
+    }
+
+    private static Box box(BoxName name, Edition edition, Long id) {
+        Box box = new Box(name, edition);
+        ReflectionTestUtils.setField(box, "id", id);
+        return box;
+    }
+
+    private static OwnedPokemon pokemon(Long id, Box box) {
+        OwnedPokemon pokemon = new OwnedPokemon(new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null), null, 5, box.getEdition(), box);
+        ReflectionTestUtils.setField(pokemon, "id", id);
+        return pokemon;
+    }
+
+    private static OwnedPokemonRepository.BoxSlot slot(Long boxId, int slot) {
+        return new OwnedPokemonRepository.BoxSlot() {
+            @Override
+            public Long getBoxId() {
+                return boxId;
+            }
+
+            @Override
+            public int getSlot() {
+                return slot;
+            }
+        };
+    }
+
+    private static BoxRepository.BoxOccupancy occupancy(Long id, int occupancy) {
+        return new BoxRepository.BoxOccupancy() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public int getOccupancy() {
+                return occupancy;
+            }
+        };
     }
 }
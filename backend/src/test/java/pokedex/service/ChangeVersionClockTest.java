@@ -0,0 +1,54 @@
+package pokedex.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ChangeVersionClockTest {
+
+    private ChangeVersionClock clock;
+
+    @BeforeEach
+    void setup() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(10L);
+        clock = new ChangeVersionClock(jdbcTemplate);
+    }
+
+    @AfterEach
+    void cleanup() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(clock);
+    }
+
+    @Test
+    void testNext_continuesAfterHighestStoredVersion() {
+        assertEquals(10L, clock.safeVersion());
+        assertEquals(11L, clock.next());
+        assertEquals(12L, clock.next());
+        assertEquals(12L, clock.safeVersion());
+    }
+
+    @Test
+    void testSafeVersion_staysBelowOpenTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(11L, clock.next());
+        assertEquals(12L, clock.next());
+        assertEquals(10L, clock.safeVersion(), "Versionen offener Transaktionen dürfen nicht ausgeliefert werden");
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        assertEquals(12L, clock.safeVersion());
+    }
+}
@@ -0,0 +1,59 @@
+package pokedex.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pokedex.exception.InvalidEvolutionException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvolutionServiceTest {
+
+    private EvolutionService evolutionService;
+
+    @BeforeEach
+    void setup() {
+        evolutionService = new EvolutionService(new ObjectMapper());
+    }
+
+    @Test
+    void testValidateEvolution_allowsOnlyDirectEvolutions() {
+        assertDoesNotThrow(() -> evolutionService.validateEvolution(1, 2));
+        assertDoesNotThrow(() -> evolutionService.validateEvolution(133, 136));
+        assertThrows(InvalidEvolutionException.class, () -> evolutionService.validateEvolution(1, 3));
+        assertThrows(InvalidEvolutionException.class, () -> evolutionService.validateEvolution(2, 1));
+        assertThrows(InvalidEvolutionException.class, () -> evolutionService.validateEvolution(25, 6));
+        assertThrows(InvalidEvolutionException.class, () -> evolutionService.validateEvolution(999, 1));
+        assertThrows(InvalidEvolutionException.class, () -> evolutionService.validateEvolution(-1, 1));
+    }
+
+    @Test
+    void testCanEventuallyEvolve_followsMultipleStages() {
+        assertTrue(evolutionService.canEventuallyEvolve(1, 2));
+        assertTrue(evolutionService.canEventuallyEvolve(1, 3));
+        assertFalse(evolutionService.canEventuallyEvolve(3, 1));
+        assertFalse(evolutionService.canEventuallyEvolve(1, 1));
+        assertFalse(evolutionService.canEventuallyEvolve(134, 135));
+        assertFalse(evolutionService.canEventuallyEvolve(500, 501));
+        assertFalse(evolutionService.canEventuallyEvolve(1, -1));
+    }
+
+    @Test
+    void testValidateEvolution_targetOutOfRange_throwsInvalidEvolutionException() {
+        assertThrows(InvalidEvolutionException.class, () -> evolutionService.validateEvolution(1, -1));
+        assertThrows(InvalidEvolutionException.class, () -> evolutionService.validateEvolution(1, Integer.MIN_VALUE));
+        assertThrows(InvalidEvolutionException.class, () -> evolutionService.validateEvolution(1, 152));
+        assertThrows(InvalidEvolutionException.class, () -> evolutionService.validateEvolution(1, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testGetEvolutionChain_containsWholeFamily() {
+        assertEquals(List.of(1, 2, 3), evolutionService.getEvolutionChain(2));
+        assertEquals(List.of(133, 134, 135, 136), evolutionService.getEvolutionChain(135));
+        assertEquals(List.of(83), evolutionService.getEvolutionChain(83));
+        assertSame(evolutionService.getEvolutionChain(1), evolutionService.getEvolutionChain(3));
+        assertFalse(evolutionService.getEvolutionChains().containsKey(83));
+    }
+}
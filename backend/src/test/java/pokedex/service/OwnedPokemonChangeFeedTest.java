@@ -0,0 +1,106 @@
+package pokedex.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pokedex.dto.OwnedPokemonChangeDTO;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OwnedPokemonChangeFeedTest {
+
+    private OwnedPokemonChangeFeed feed;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setup() {
+        feed = new OwnedPokemonChangeFeed(new ObjectMapper(), Duration.ofMinutes(1), 2, 2);
+    }
+
+    @AfterEach
+    void cleanup() {
+        release.countDown();
+        feed.shutdown();
+    }
+
+    @Test
+    void testOnChange_stalledClientDoesNotBlockOthers() throws InterruptedException {
+        TestEmitter stalled = new TestEmitter(release, 1);
+        TestEmitter healthy = new TestEmitter(new CountDownLatch(0), 2);
+        feed.subscribe(stalled);
+        feed.subscribe(healthy);
+
+        feed.onChange(OwnedPokemonChangeDTO.imported());
+        await(stalled.sending);
+        feed.onChange(OwnedPokemonChangeDTO.imported());
+
+        await(healthy.sent);
+        assertEquals(2, healthy.sendCount.get());
+        assertEquals(0, stalled.sendCount.get(), "Der hängende Client darf noch nichts erhalten haben");
+    }
+
+    @Test
+    void testOnChange_queueOverflow_closesStalledClient() throws InterruptedException {
+        TestEmitter stalled = new TestEmitter(release, 1);
+        feed.subscribe(stalled);
+
+        feed.onChange(OwnedPokemonChangeDTO.imported());
+        await(stalled.sending);
+        // Zwei Events passen in die Warteschlange, das dritte läuft über
+        for (int i = 0; i < 3; i++) {
+            feed.onChange(OwnedPokemonChangeDTO.imported());
+        }
+        assertEquals(0, feed.getSubscriberCount(), "Client mit übergelaufener Warteschlange muss abgemeldet sein");
+
+        release.countDown();
+        await(stalled.completed);
+        assertEquals(1, stalled.sendCount.get(), "Nach dem Überlauf dürfen keine weiteren Events verschickt werden");
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedException {
+        assertTrue(latch.await(10, TimeUnit.SECONDS), "Zeitüberschreitung beim Warten");
+    }
+
+    /**
+     * Emitter, der jedes Senden bis zur Freigabe blockiert und Sendungen sowie das Schließen zählt.
+     */
+    private static class TestEmitter extends SseEmitter {
+
+        private final CountDownLatch release;
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch sent;
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final AtomicInteger sendCount = new AtomicInteger();
+
+        private TestEmitter(CountDownLatch release, int expectedSends) {
+            this.release = release;
+            this.sent = new CountDownLatch(expectedSends);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            sendCount.incrementAndGet();
+            sent.countDown();
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
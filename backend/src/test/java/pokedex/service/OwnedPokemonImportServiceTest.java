@@ -0,0 +1,193 @@
+package pokedex.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validation;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import pokedex.dto.ImportResultDTO;
+import pokedex.exception.BoxFullException;
+import pokedex.exception.InvalidUpdateException;
+import pokedex.exception.NotFoundException;
+import pokedex.model.*;
+import pokedex.repository.BoxRepository;
+import pokedex.repository.OwnedPokemonRepository;
+import pokedex.repository.PokemonSpeciesRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ChangeVersionClock.class)
+class OwnedPokemonImportServiceTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private BoxRepository boxRepo;
+
+    @Autowired
+    private OwnedPokemonRepository ownedRepo;
+
+    @Autowired
+    private PokemonSpeciesRepository speciesRepo;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private OwnedPokemonImportService importService;
+
+    /** Anteil des Eingabestroms, der beim Start der Speicher-Transaktion bereits gelesen war. */
+    private final AtomicLong readWhenTransactionStarted = new AtomicLong(-1);
+
+    /** Bisher gelesene Bytes des aktuellen Eingabestroms. */
+    private final AtomicLong bytesRead = new AtomicLong();
+
+    @BeforeEach
+    void setup() {
+        em.persist(new PokemonSpecies(1, "Bisasam", PokemonType.PFLANZE, PokemonType.GIFT));
+        em.persist(new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null));
+        em.persist(new Box(BoxName.TEAM, Edition.ROT));
+        for (BoxName name : new BoxName[]{BoxName.BOX1, BoxName.BOX2, BoxName.BOX3}) {
+            em.persist(new Box(name, Edition.ROT));
+        }
+        em.flush();
+
+        importService = new OwnedPokemonImportService(
+                new PokemonSpeciesCatalog(speciesRepo),
+                boxRepo,
+                new BoxRegistry(boxRepo),
+                ownedRepo,
+                em.getEntityManager(),
+                new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                mock(ApplicationEventPublisher.class),
+                new TransactionOperations() {
+                    @Override
+                    public <T> T execute(TransactionCallback<T> action) {
+                        // Läuft in der Transaktion des Tests, merkt sich nur den Zeitpunkt
+                        readWhenTransactionStarted.set(bytesRead.get());
+                        return action.doInTransaction(new SimpleTransactionStatus());
+                    }
+                });
+    }
+
+    @Test
+    void testImportPokemon_insertsAllEntriesAndAdjustsOccupancy() {
+        // Mehr Einträge als ein Block, verteilt auf drei volle Boxen plus Team
+        StringJoiner json = new StringJoiner(",", "[", "]");
+        BoxName[] boxes = {BoxName.BOX1, BoxName.BOX2, BoxName.BOX3};
+        for (int i = 0; i < 60; i++) {
+            json.add(entry(i % 2 == 0 ? 1 : 25, 5 + i, boxes[i / 20], i == 0 ? "\"Bisa\"" : "null"));
+        }
+        json.add(entry(25, 30, BoxName.TEAM, "\"Pika\""));
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ImportResultDTO result = importService.importPokemon(stream(json.toString()));
+        em.clear();
+
+        // IDs kommen blockweise aus der Sequenz, die Inserts werden gebündelt statt einzeln ausgeführt
+        assertTrue(statistics.getPrepareStatementCount() < 20,
+                "Zu viele Statements für 61 Einträge: " + statistics.getPrepareStatementCount());
+
+        assertEquals(61, result.getImported());
+        assertEquals(61, ownedRepo.count());
+        Box box1 = boxRepo.findByNameAndEdition(BoxName.BOX1, Edition.ROT).orElseThrow();
+        assertEquals(20, box1.getOccupancy());
+        assertEquals(1, boxRepo.findByNameAndEdition(BoxName.TEAM, Edition.ROT).orElseThrow().getOccupancy());
+        assertEquals("Bisa", ownedRepo.findDTOsByBox(BoxName.BOX1, Edition.ROT).get(0).getNickname());
+    }
+
+    @Test
+    void testImportPokemon_boxOverflow_throwsBoxFullException() {
+        StringJoiner json = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < 7; i++) {
+            json.add(entry(25, 10, BoxName.TEAM, "null"));
+        }
+
+        BoxFullException ex = assertThrows(BoxFullException.class, () -> importService.importPokemon(stream(json.toString())));
+        assertTrue(ex.getMessage().startsWith("Eintrag 7"));
+    }
+
+    @Test
+    void testImportPokemon_readsWholeInputBeforeLockingBoxes() {
+        StringJoiner json = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < 40; i++) {
+            json.add(entry(25, 10, i < 20 ? BoxName.BOX1 : BoxName.BOX2, "null"));
+        }
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(40, importService.importPokemon(countingStream(body)).getImported());
+        assertEquals(body.length, readWhenTransactionStarted.get());
+    }
+
+    @Test
+    void testImportPokemon_boxOverflowInInput_failsBeforeTransaction() {
+        StringJoiner json = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < 21; i++) {
+            json.add(entry(25, 10, BoxName.BOX3, "null"));
+        }
+
+        BoxFullException ex = assertThrows(BoxFullException.class, () -> importService.importPokemon(stream(json.toString())));
+        assertTrue(ex.getMessage().startsWith("Eintrag 21"));
+        assertEquals(-1, readWhenTransactionStarted.get());
+    }
+
+    @Test
+    void testImportPokemon_invalidEntries_reportEntryNumber() {
+        String invalidLevel = "[" + entry(25, 10, BoxName.BOX1, "null") + "," + entry(25, 0, BoxName.BOX1, "null") + "]";
+        assertTrue(assertThrows(InvalidUpdateException.class, () -> importService.importPokemon(stream(invalidLevel)))
+                .getMessage().startsWith("Eintrag 2: level"));
+
+        String unknownSpecies = "[" + entry(151, 10, BoxName.BOX1, "null") + "]";
+        assertThrows(NotFoundException.class, () -> importService.importPokemon(stream(unknownSpecies)));
+
+        assertThrows(InvalidUpdateException.class, () -> importService.importPokemon(stream("{\"level\": 5}")));
+        assertThrows(InvalidUpdateException.class, () -> importService.importPokemon(stream("[{\"edition\": \"LILA\"}]")));
+    }
+
+    private static String entry(int pokedexId, int level, BoxName box, String nickname) {
+        return "{\"pokedexId\":" + pokedexId + ",\"level\":" + level + ",\"edition\":\"ROT\",\"box\":\"" + box
+                + "\",\"nickname\":" + nickname + "}";
+    }
+
+    private InputStream countingStream(byte[] body) {
+        bytesRead.set(0);
+        return new FilterInputStream(new ByteArrayInputStream(body)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                if (n > 0) {
+                    bytesRead.addAndGet(n);
+                }
+                return n;
+            }
+        };
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,181 @@
+package pokedex.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import pokedex.model.*;
+import pokedex.repository.BoxRepository;
+import pokedex.repository.OwnedPokemonRepository;
+import pokedex.repository.OwnedPokemonTombstoneRepository;
+import pokedex.repository.PokemonSpeciesRepository;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Nebenläufigkeitstest: Löschen und eine Transaktion, die wie das Verschieben erst den Belegungszähler der Box
+ * und dann die Pokémon-Zeile sperrt, dürfen sich nicht gegenseitig blockieren. Der Abgleich der Belegungszähler
+ * darf keine laufende Hinzufügung übersehen.
+ * Jede Aktion läuft in ihrer eigenen Transaktion (kein Test-Rollback).
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({OwnedPokemonService.class, BoxService.class, BoxRegistry.class, ChangeVersionClock.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OwnedPokemonServiceConcurrencyTest {
+
+    @Autowired
+    private OwnedPokemonService ownedService;
+
+    @Autowired
+    private BoxService boxService;
+
+    @Autowired
+    private BoxRepository boxRepo;
+
+    @Autowired
+    private OwnedPokemonRepository ownedRepo;
+
+    @Autowired
+    private OwnedPokemonTombstoneRepository tombstoneRepo;
+
+    @Autowired
+    private PokemonSpeciesRepository speciesRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockBean
+    private PokemonSpeciesService speciesService;
+
+    @MockBean
+    private EvolutionService evolutionService;
+
+    private Long boxId;
+    private Long pokemonId;
+    private PokemonSpecies pikachu;
+
+    @BeforeEach
+    void setup() {
+        cleanup();
+        pikachu = speciesRepo.save(new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null));
+        Box box = boxRepo.save(new Box(BoxName.BOX1, Edition.ROT));
+        boxId = box.getId();
+        pokemonId = ownedRepo.save(new OwnedPokemon(pikachu, null, 5, Edition.ROT, box, 0)).getId();
+        boxService.reconcileOccupancy();
+    }
+
+    @AfterEach
+    void cleanup() {
+        tombstoneRepo.deleteAllInBatch();
+        ownedRepo.deleteAllInBatch();
+        boxRepo.deleteAllInBatch();
+        speciesRepo.deleteAllInBatch();
+    }
+
+    @Test
+    void testDeleteWhileBoxIsLocked_waitsForBoxInsteadOfDeadlocking() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch boxLocked = new CountDownLatch(1);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        // Sperrt wie moveToSlot/movePokemon zuerst die Box und ändert danach das Pokémon
+        Future<?> mover = executor.submit(() -> tx.execute(status -> {
+            boxRepo.lockOccupancies(List.of(boxId));
+            boxLocked.countDown();
+            awaitBlockedSession();
+            OwnedPokemon pokemon = ownedRepo.findById(pokemonId).orElseThrow();
+            pokemon.setLevel(6);
+            return ownedRepo.saveAndFlush(pokemon);
+        }));
+        Future<Boolean> deleter = executor.submit(() -> {
+            boxLocked.await();
+            try {
+                ownedService.deletePokemonById(pokemonId);
+                return true;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                // Das Pokémon wurde zwischen Laden und Löschen geändert: sauber abgebrochen
+                return false;
+            }
+        });
+
+        mover.get(30, TimeUnit.SECONDS);
+        boolean deleted = deleter.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(deleted ? 0 : 1, ownedRepo.count());
+        assertEquals(deleted ? 0 : 1, boxRepo.findById(boxId).orElseThrow().getOccupancy());
+        assertEquals(0, boxService.reconcileOccupancy());
+    }
+
+    @Test
+    void testReconcileWhileAddIsRunning_countsCommittedAdd() throws Exception {
+        // Der Zähler ist abgedriftet (3 statt 1), gleichzeitig läuft eine Hinzufügung in dieselbe Box
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("update box set occupancy = 3 where id = ?", boxId);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch added = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        Future<?> adder = executor.submit(() -> tx.execute(status -> {
+            Box box = boxRepo.findById(boxId).orElseThrow();
+            assertTrue(boxService.tryIncreaseOccupancy(box));
+            ownedRepo.saveAndFlush(new OwnedPokemon(pikachu, null, 7, Edition.ROT, box, boxService.allocateSlot(box)));
+            added.countDown();
+            await(commit);
+            return null;
+        }));
+        await(added);
+        Future<Integer> reconciler = executor.submit(() -> boxService.reconcileOccupancy());
+        awaitBlockedSession();
+        commit.countDown();
+
+        adder.get(30, TimeUnit.SECONDS);
+        assertEquals(1, reconciler.get(30, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(2, boxRepo.findById(boxId).orElseThrow().getOccupancy());
+        assertEquals(0, boxService.reconcileOccupancy());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Wartet, bis eine Transaktion an einer Sperre der anderen Transaktion hängt.
+     */
+    private void awaitBlockedSession() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (jdbc.queryForObject("select count(*) from information_schema.sessions where blocker_id is not null",
+                Integer.class) == 0) {
+            if (System.nanoTime() > deadline) {
+                fail("Die Transaktion hat nicht auf die Box gewartet");
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
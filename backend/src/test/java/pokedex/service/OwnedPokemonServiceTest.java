@@ -2,14 +2,22 @@ package pokedex.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import pokedex.dto.CreateOwnedDTO;
+import pokedex.dto.OwnedPokemonChangeDTO;
+import pokedex.dto.OwnedPokemonChangesDTO;
+import pokedex.dto.OwnedPokemonDTO;
 import pokedex.dto.UpdateOwnedDTO;
 import pokedex.exception.BoxFullException;
 import pokedex.exception.NotFoundException;
+import pokedex.exception.PreconditionFailedException;
 import pokedex.model.*;
 import pokedex.repository.OwnedPokemonRepository;
+import pokedex.repository.OwnedPokemonTombstoneRepository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -20,6 +28,9 @@ class OwnedPokemonServiceTest {
     private PokemonSpeciesService speciesService;
     private BoxService boxService;
     private EvolutionService evolutionService;
+    private ApplicationEventPublisher eventPublisher;
+    private OwnedPokemonTombstoneRepository tombstoneRepo;
+    private ChangeVersionClock changeVersionClock;
     private OwnedPokemonService ownedService;
 
     @BeforeEach
@@ -28,7 +39,11 @@ class OwnedPokemonServiceTest {
         speciesService = mock(PokemonSpeciesService.class);
         boxService = mock(BoxService.class);
         evolutionService = mock(EvolutionService.class);
-        ownedService = new OwnedPokemonService(ownedRepo, speciesService, boxService, evolutionService);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        tombstoneRepo = mock(OwnedPokemonTombstoneRepository.class);
+        changeVersionClock = mock(ChangeVersionClock.class);
+        ownedService = new OwnedPokemonService(ownedRepo, speciesService, boxService, evolutionService, eventPublisher,
+                tombstoneRepo, changeVersionClock);
     }
 
     @Test
@@ -45,10 +60,11 @@ class OwnedPokemonServiceTest {
         Box box = new Box(BoxName.BOX1, Edition.ROT);
 
         when(speciesService.getByPokedexId(25)).thenReturn(Optional.of(species));
-        when(boxService.isFull(BoxName.BOX1, Edition.ROT)).thenReturn(false);
         when(boxService.getBoxByNameAndEdition(BoxName.BOX1, Edition.ROT)).thenReturn(box);
+        when(boxService.tryIncreaseOccupancy(box)).thenReturn(true);
 
         OwnedPokemon expected = new OwnedPokemon(species, "Testchu", 7, Edition.ROT, box);
+        expected.setId(1L);
         when(ownedRepo.save(any(OwnedPokemon.class))).thenReturn(expected);
 
         // Act
@@ -59,6 +75,9 @@ class OwnedPokemonServiceTest {
         assertEquals("Testchu", result.getNickname());
         assertEquals(25, result.getSpecies().getPokedexId());
         verify(ownedRepo).save(any(OwnedPokemon.class));
+        verify(boxService).tryIncreaseOccupancy(box);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof OwnedPokemonChangeDTO change
+                && change.getType() == OwnedPokemonChangeDTO.Type.CREATED && change.getPokemonId() == 1L));
     }
 
     @Test
@@ -71,12 +90,16 @@ class OwnedPokemonServiceTest {
         dto.setBox(BoxName.TEAM);
 
         PokemonSpecies species = new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null);
+        Box team = new Box(BoxName.TEAM, Edition.ROT);
 
         when(speciesService.getByPokedexId(25)).thenReturn(Optional.of(species));
-        when(boxService.isFull(BoxName.TEAM, Edition.ROT)).thenReturn(true);
+        when(boxService.getBoxByNameAndEdition(BoxName.TEAM, Edition.ROT)).thenReturn(team);
+        when(boxService.tryIncreaseOccupancy(team)).thenReturn(false);
 
         // Act & Assert
         assertThrows(BoxFullException.class, () -> ownedService.addPokemon(dto));
+        verify(ownedRepo, never()).save(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -98,12 +121,13 @@ class OwnedPokemonServiceTest {
     void testUpdatePokemon_successfulNicknameUpdate() {
         // Arrange
         OwnedPokemon existing = mock(OwnedPokemon.class);
+        when(existing.getId()).thenReturn(1L);
         when(existing.getLevel()).thenReturn(12);
         when(existing.getBox()).thenReturn(new Box(BoxName.BOX1, Edition.ROT));
         when(existing.getEdition()).thenReturn(Edition.ROT);
         when(existing.getSpecies()).thenReturn(new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null));
-        when(ownedRepo.findById(1L)).thenReturn(Optional.of(existing));
-        when(ownedRepo.save(any())).thenReturn(existing);
+        when(ownedRepo.findWithSpeciesAndBoxById(1L)).thenReturn(Optional.of(existing));
+        when(ownedRepo.saveAndFlush(any())).thenReturn(existing);
 
         UpdateOwnedDTO update = UpdateOwnedDTO.builder()
                 .nickname("NeuerName")
@@ -113,11 +137,33 @@ class OwnedPokemonServiceTest {
                 .pokedexId(25)
                 .build();
 
-        OwnedPokemon updated = ownedService.updatePokemon(1L, update);
+        OwnedPokemon updated = ownedService.updatePokemon(1L, update, null);
 
         assertNotNull(updated);
         verify(existing).setNickname("NeuerName");
-        verify(ownedRepo).save(existing);
+        verify(ownedRepo).saveAndFlush(existing);
+    }
+
+    @Test
+    void testUpdatePokemon_staleVersion_throwsPreconditionFailed() {
+        OwnedPokemon existing = new OwnedPokemon(new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null),
+                null, 12, Edition.ROT, new Box(BoxName.BOX1, Edition.ROT));
+        existing.setId(1L);
+        existing.setVersion(3L);
+        when(ownedRepo.findWithSpeciesAndBoxById(1L)).thenReturn(Optional.of(existing));
+
+        UpdateOwnedDTO update = UpdateOwnedDTO.builder()
+                .nickname("NeuerName")
+                .level(12)
+                .box(BoxName.BOX1)
+                .edition(Edition.ROT)
+                .pokedexId(25)
+                .build();
+
+        assertThrows(PreconditionFailedException.class, () -> ownedService.updatePokemon(1L, update, Set.of(2L)));
+        assertThrows(PreconditionFailedException.class, () -> ownedService.updatePokemon(1L, update, Set.of()));
+        assertNull(existing.getNickname(), "Bei veralteter Version darf nichts geändert werden");
+        verify(ownedRepo, never()).saveAndFlush(any());
     }
 
     @Test
@@ -128,7 +174,7 @@ class OwnedPokemonServiceTest {
         when(existing.getBox()).thenReturn(new Box(BoxName.BOX1, Edition.ROT));
         when(existing.getEdition()).thenReturn(Edition.ROT);
         when(existing.getSpecies()).thenReturn(new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null));
-        when(ownedRepo.findById(1L)).thenReturn(Optional.of(existing));
+        when(ownedRepo.findWithSpeciesAndBoxById(1L)).thenReturn(Optional.of(existing));
 
         UpdateOwnedDTO update = UpdateOwnedDTO.builder()
                 .nickname("Name")
@@ -138,6 +184,118 @@ class OwnedPokemonServiceTest {
                 .pokedexId(25)
                 .build();
 
-        assertThrows(pokedex.exception.InvalidUpdateException.class, () -> ownedService.updatePokemon(1L, update));
+        assertThrows(pokedex.exception.InvalidUpdateException.class, () -> ownedService.updatePokemon(1L, update, null));
+    }
+
+    @Test
+    void testUpdatePokemon_moveRenameAndEvolve_singleFlushAndSingleEvent() {
+        Box box1 = new Box(BoxName.BOX1, Edition.ROT);
+        Box box2 = new Box(BoxName.BOX2, Edition.ROT);
+        OwnedPokemon existing = new OwnedPokemon(new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null),
+                null, 20, Edition.ROT, box1);
+        existing.setId(1L);
+        PokemonSpecies raichu = new PokemonSpecies(26, "Raichu", PokemonType.ELEKTRO, null);
+        when(ownedRepo.findWithSpeciesAndBoxById(1L)).thenReturn(Optional.of(existing));
+        when(boxService.getBoxByNameAndEdition(BoxName.BOX2, Edition.ROT)).thenReturn(box2);
+        when(speciesService.getByPokedexId(26)).thenReturn(Optional.of(raichu));
+        when(ownedRepo.saveAndFlush(existing)).thenReturn(existing);
+
+        UpdateOwnedDTO update = UpdateOwnedDTO.builder()
+                .nickname("Blitz")
+                .level(22)
+                .box(BoxName.BOX2)
+                .pokedexId(26)
+                .build();
+
+        OwnedPokemon updated = ownedService.updatePokemon(1L, update, null);
+
+        assertEquals(box2, updated.getBox());
+        assertEquals(Edition.ROT, updated.getEdition(), "Nicht gesetzte Edition bleibt erhalten");
+        assertEquals(raichu, updated.getSpecies());
+        assertEquals(22, updated.getLevel());
+        verify(boxService).transferOccupancy(box1, box2);
+        verify(ownedRepo).saveAndFlush(existing);
+        verify(ownedRepo, never()).findById(any());
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof OwnedPokemonChangeDTO change
+                && change.getType() == OwnedPokemonChangeDTO.Type.MOVED && change.getFromBox() == BoxName.BOX1));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    void testUpdatePokemon_invalidEvolution_changesNothing() {
+        Box box1 = new Box(BoxName.BOX1, Edition.ROT);
+        OwnedPokemon existing = new OwnedPokemon(new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null),
+                null, 20, Edition.ROT, box1);
+        existing.setId(1L);
+        when(ownedRepo.findWithSpeciesAndBoxById(1L)).thenReturn(Optional.of(existing));
+        when(boxService.getBoxByNameAndEdition(BoxName.BOX2, Edition.ROT)).thenReturn(new Box(BoxName.BOX2, Edition.ROT));
+        doThrow(new pokedex.exception.InvalidUpdateException("Ungültige Entwicklung"))
+                .when(evolutionService).validateEvolution(25, 1);
+
+        UpdateOwnedDTO update = UpdateOwnedDTO.builder()
+                .nickname("Blitz")
+                .level(30)
+                .box(BoxName.BOX2)
+                .pokedexId(1)
+                .build();
+
+        assertThrows(pokedex.exception.InvalidUpdateException.class, () -> ownedService.updatePokemon(1L, update, null));
+        assertEquals(20, existing.getLevel());
+        assertNull(existing.getNickname());
+        assertEquals(box1, existing.getBox());
+        verify(boxService, never()).transferOccupancy(any(), any());
+        verify(ownedRepo, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testUpdatePokemon_emptyRequest_writesNothing() {
+        OwnedPokemon existing = new OwnedPokemon(new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null),
+                "Pika", 20, Edition.ROT, new Box(BoxName.BOX1, Edition.ROT));
+        existing.setId(1L);
+        when(ownedRepo.findWithSpeciesAndBoxById(1L)).thenReturn(Optional.of(existing));
+
+        assertSame(existing, ownedService.updatePokemon(1L, UpdateOwnedDTO.builder().build(), null));
+        assertEquals("Pika", existing.getNickname());
+        verify(ownedRepo, never()).saveAndFlush(any());
+        verifyNoInteractions(boxService, eventPublisher);
+    }
+
+    @Test
+    void testGetChangesSince_queriesUpToSafeVersion() {
+        OwnedPokemonDTO changed = new OwnedPokemonDTO(5L, null, 9, Edition.ROT, BoxName.BOX1, 0, 25, "Pikachu", PokemonType.ELEKTRO, null, 0L);
+        when(changeVersionClock.safeVersion()).thenReturn(12L);
+        when(ownedRepo.findDTOsChangedBetween(10L, 12L)).thenReturn(List.of(changed));
+        when(tombstoneRepo.findDeletedIds(10L, 12L)).thenReturn(List.of(7L));
+
+        OwnedPokemonChangesDTO changes = ownedService.getChangesSince(10L);
+
+        assertEquals(12L, changes.getVersion());
+        assertEquals(List.of(changed), changes.getChanged());
+        assertEquals(List.of(7L), changes.getDeleted());
+    }
+
+    @Test
+    void testGetChangesSince_nothingNew_skipsQueries() {
+        when(changeVersionClock.safeVersion()).thenReturn(12L);
+
+        OwnedPokemonChangesDTO changes = ownedService.getChangesSince(12L);
+
+        assertEquals(12L, changes.getVersion());
+        assertTrue(changes.getChanged().isEmpty());
+        verifyNoInteractions(ownedRepo, tombstoneRepo);
+    }
+
+    @Test
+    void testDeletePokemon_writesTombstone() {
+        OwnedPokemon existing = new OwnedPokemon(new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null),
+                null, 5, Edition.ROT, new Box(BoxName.BOX1, Edition.ROT));
+        existing.setId(3L);
+        when(ownedRepo.findById(3L)).thenReturn(Optional.of(existing));
+        when(changeVersionClock.next()).thenReturn(42L);
+
+        ownedService.deletePokemonById(3L);
+
+        verify(ownedRepo).delete(existing);
+        verify(tombstoneRepo).save(argThat(t -> t.getPokemonId() == 3L && t.getChangeVersion() == 42L));
     }
 }
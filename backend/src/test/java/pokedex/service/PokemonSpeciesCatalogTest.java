@@ -0,0 +1,61 @@
+package pokedex.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pokedex.model.PokemonSpecies;
+import pokedex.model.PokemonType;
+import pokedex.repository.PokemonSpeciesRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PokemonSpeciesCatalogTest {
+
+    private PokemonSpeciesRepository speciesRepo;
+    private PokemonSpeciesCatalog catalog;
+
+    @BeforeEach
+    void setup() {
+        speciesRepo = mock(PokemonSpeciesRepository.class);
+        catalog = new PokemonSpeciesCatalog(speciesRepo);
+    }
+
+    @Test
+    void testLookups_areServedFromMemory() {
+        when(speciesRepo.findAll()).thenReturn(List.of(
+                new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null),
+                new PokemonSpecies(6, "Glurak", PokemonType.FEUER, PokemonType.FLUG),
+                new PokemonSpecies(4, "Glumanda", PokemonType.FEUER, null)));
+
+        assertEquals("Pikachu", catalog.findByPokedexId(25).orElseThrow().getName());
+        assertEquals(6, catalog.findByName("Glurak").orElseThrow().getPokedexId());
+        assertEquals(List.of(4, 6), catalog.findByType(PokemonType.FEUER).stream().map(PokemonSpecies::getPokedexId).toList());
+        assertEquals(1, catalog.findByType(PokemonType.FLUG).size());
+        assertTrue(catalog.findByType(PokemonType.GEIST).isEmpty());
+        assertEquals(List.of(4, 6, 25), catalog.getAll().stream().map(PokemonSpecies::getPokedexId).toList());
+
+        // Der Katalog wird genau einmal geladen
+        verify(speciesRepo, times(1)).findAll();
+    }
+
+    @Test
+    void testFindByPokedexId_unknownId_returnsEmpty() {
+        when(speciesRepo.findAll()).thenReturn(List.of(new PokemonSpecies(1, "Bisasam", PokemonType.PFLANZE, PokemonType.GIFT)));
+
+        assertTrue(catalog.findByPokedexId(0).isEmpty());
+        assertTrue(catalog.findByPokedexId(-3).isEmpty());
+        assertTrue(catalog.findByPokedexId(999).isEmpty());
+    }
+
+    @Test
+    void testEmptyPokedex_isNotCached() {
+        when(speciesRepo.findAll())
+                .thenReturn(List.of())
+                .thenReturn(List.of(new PokemonSpecies(1, "Bisasam", PokemonType.PFLANZE, PokemonType.GIFT)));
+
+        assertTrue(catalog.getAll().isEmpty());
+        assertEquals(1, catalog.getAll().size());
+    }
+}
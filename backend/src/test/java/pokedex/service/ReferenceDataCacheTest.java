@@ -0,0 +1,160 @@
+package pokedex.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import pokedex.model.PokemonSpecies;
+import pokedex.model.PokemonType;
+import pokedex.service.ReferenceDataCache.ReferenceData;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReferenceDataCacheTest {
+
+    private PokemonSpeciesCatalog catalog;
+    private ReferenceDataCache cache;
+
+    @BeforeEach
+    void setup() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        catalog = mock(PokemonSpeciesCatalog.class);
+        cache = new ReferenceDataCache(objectMapper, catalog, new EvolutionService(objectMapper), Duration.ofDays(1));
+    }
+
+    @Test
+    void testWrite_servesPrecomputedBodyWithEtag() throws IOException {
+        MockHttpServletResponse response = write(ReferenceData.BOX_NAME_MAPPING, request());
+
+        assertEquals(200, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertTrue(response.getContentAsString(StandardCharsets.UTF_8).startsWith("{\"Team\":\"TEAM\",\"Box 1\":\"BOX1\""));
+        assertNotNull(response.getHeader(HttpHeaders.ETAG));
+        assertEquals("max-age=86400, public", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void testWrite_matchingIfNoneMatch_returnsNotModified() throws IOException {
+        String etag = write(ReferenceData.EDITIONS, request()).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest conditional = request();
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse notModified = write(ReferenceData.EDITIONS, conditional);
+        assertEquals(304, notModified.getStatus());
+        assertEquals(0, notModified.getContentAsByteArray().length);
+        assertEquals(etag, notModified.getHeader(HttpHeaders.ETAG));
+
+        MockHttpServletRequest otherResource = request();
+        otherResource.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        assertEquals(200, write(ReferenceData.BOX_NAMES, otherResource).getStatus());
+    }
+
+    @Test
+    void testWrite_acceptsGzip_servesCompressedVariant() throws IOException {
+        String plain = write(ReferenceData.EVOLUTION_CHAINS, request()).getContentAsString(StandardCharsets.UTF_8);
+
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+        MockHttpServletResponse response = write(ReferenceData.EVOLUTION_CHAINS, request);
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertTrue(response.getContentLength() < plain.length());
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals(plain, new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testWrite_gzipVariant_hasOwnEtag() throws IOException {
+        String plainEtag = write(ReferenceData.EDITIONS, request()).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        String gzipEtag = write(ReferenceData.EDITIONS, request).getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(plainEtag, gzipEtag);
+        assertEquals(plainEtag.substring(0, plainEtag.length() - 1) + "-gzip\"", gzipEtag);
+
+        MockHttpServletRequest conditional = request();
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, gzipEtag);
+        MockHttpServletResponse notModified = write(ReferenceData.EDITIONS, conditional);
+        assertEquals(304, notModified.getStatus());
+        assertEquals(gzipEtag, notModified.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testWrite_ifNoneMatchList_comparesEachTagExactly() throws IOException {
+        String etag = write(ReferenceData.EDITIONS, request()).getHeader(HttpHeaders.ETAG);
+        String hash = etag.substring(1, etag.length() - 1);
+
+        MockHttpServletRequest list = request();
+        list.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag);
+        assertEquals(304, write(ReferenceData.EDITIONS, list).getStatus());
+
+        MockHttpServletRequest substring = request();
+        substring.addHeader(HttpHeaders.IF_NONE_MATCH, "\"x" + hash + "\"");
+        assertEquals(200, write(ReferenceData.EDITIONS, substring).getStatus());
+
+        MockHttpServletRequest wildcard = request();
+        wildcard.addHeader(HttpHeaders.IF_NONE_MATCH, "*");
+        assertEquals(304, write(ReferenceData.EDITIONS, wildcard).getStatus());
+    }
+
+    @Test
+    void testAcceptsGzip_respectsQualityValues() {
+        assertTrue(ReferenceDataCache.acceptsGzip("gzip, deflate, br"));
+        assertTrue(ReferenceDataCache.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(ReferenceDataCache.acceptsGzip("*"));
+        assertFalse(ReferenceDataCache.acceptsGzip(null));
+        assertFalse(ReferenceDataCache.acceptsGzip("gzip;q=0"));
+        assertFalse(ReferenceDataCache.acceptsGzip("gzip; q=0.000, *"));
+        assertFalse(ReferenceDataCache.acceptsGzip("identity, *;q=0"));
+        assertFalse(ReferenceDataCache.acceptsGzip("deflate, br"));
+    }
+
+    @Test
+    void testWrite_gzipWithQualityZero_servesPlainBody() throws IOException {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate");
+        MockHttpServletResponse response = write(ReferenceData.BOX_NAMES, request);
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(response.getContentAsString(StandardCharsets.UTF_8).startsWith("[\"TEAM\""));
+    }
+
+    @Test
+    void testWrite_species_serializedOnceAndEmptyPokedexNotCached() throws IOException {
+        when(catalog.getAll())
+                .thenReturn(List.of())
+                .thenReturn(List.of(new PokemonSpecies(25, "Pikachu", PokemonType.ELEKTRO, null)));
+
+        assertEquals("[]", write(ReferenceData.SPECIES, request()).getContentAsString(StandardCharsets.UTF_8));
+        cache.warmUp();
+        assertTrue(write(ReferenceData.SPECIES, request()).getContentAsString(StandardCharsets.UTF_8).contains("Pikachu"));
+        write(ReferenceData.SPECIES, request());
+
+        verify(catalog, times(2)).getAll();
+    }
+
+    private MockHttpServletResponse write(ReferenceData data, MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        cache.write(data, request, response);
+        return response;
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/api/test");
+    }
+}
@@ -0,0 +1,25 @@
+-- Schema vor der ersten Flyway-Migration (damals per ddl-auto=update angelegt, ohne eigene Indizes).
+-- Wird bei jeder neuen H2-Verbindung ausgeführt (INIT), daher nur "if not exists".
+create table if not exists pokemon_species (
+    id bigint auto_increment primary key,
+    pokedex_id integer not null unique,
+    name varchar(255) unique,
+    type1 varchar(255) not null,
+    type2 varchar(255)
+);
+create table if not exists box (
+    id bigint auto_increment primary key,
+    name varchar(255) not null,
+    edition varchar(255) not null,
+    unique (name, edition)
+);
+create table if not exists owned_pokemon (
+    id bigint auto_increment primary key,
+    species_id bigint not null,
+    nickname varchar(255),
+    level integer not null,
+    box_id bigint not null,
+    edition varchar(255) not null,
+    foreign key (species_id) references pokemon_species (id),
+    foreign key (box_id) references box (id)
+);
@@ -20,7 +20,12 @@ import { apiEnum, apiBoxName } from "../utils/enumHelper";
  * Besonderheiten:
  * - Nutzt interne Helper (apiEnum, apiBoxName) zur Umwandlung der UI-Strings in die erwarteten API-Enumwerte.
  * - Lädt automatisch beim Wechsel der Auswahl jeweils die Pokémon der gewählten Box/Edition.
- * - Drag & Drop ist zwischen beiden Panels möglich. Die Verschiebung löst einen API-Call aus und aktualisiert anschließend beide Seiten.
+ * - Drag & Drop ist zwischen beiden Panels möglich. Die Verschiebung löst einen API-Call aus; das Ergebnis kommt als
+ *   Event `moved` über `/api/pokemon/events` und wird direkt in die beiden offenen Boxen übernommen (kein erneutes Laden).
+ * - Wird ein Pokémon auf ein anderes Pokémon derselben Box/Edition gezogen, tauschen beide ihre Plätze
+ *   (die Antwort enthält die beiden geänderten Pokémon und wird lokal übernommen).
+ * - Änderungen aus anderen Tabs/Clients (`created`, `updated`, `moved`, `deleted`) betreffen die offenen Boxen ebenfalls
+ *   nur lokal; nach einem Import werden beide Boxen neu geladen.
  * - Fehler und Ladezustände werden je Panel separat behandelt.
  *
  * Typische Verwendung:
@@ -69,6 +74,21 @@ export default function OrganizeView({ editions, boxes, onBack }) {
         }
     }, [rightEdition, rightBox]);
 
+    // Live-Aktualisierung der beiden offenen Boxen (eigene Verschiebungen und Änderungen aus anderen Tabs).
+    // Ohne EventSource (z.B. in Tests) bleibt nur das Neuladen nach einer Verschiebung.
+    useEffect(() => {
+        if (typeof EventSource === "undefined") return;
+        const source = new EventSource("http://localhost:8080/api/pokemon/events");
+        const upsert = e => applyPokemon(JSON.parse(e.data).pokemon);
+        const remove = e => removePokemon(JSON.parse(e.data).pokemonId);
+        source.addEventListener("created", upsert);
+        source.addEventListener("updated", upsert);
+        source.addEventListener("moved", upsert);
+        source.addEventListener("deleted", remove);
+        source.addEventListener("imported", reloadBoth);
+        return () => source.close();
+    }, [leftEdition, leftBox, rightEdition, rightBox]);
+
     const fetchData = async (url, setData, setLoadingState) => {
         setLoadingState(true);
         try {
@@ -106,17 +126,8 @@ export default function OrganizeView({ editions, boxes, onBack }) {
 
             if (!response.ok) throw new Error("Verschieben fehlgeschlagen");
 
-            // Aktualisiere beide Boxen (mit Mapping!)
-            fetchData(
-                `http://localhost:8080/api/boxes/${apiEnum(leftEdition)}/${apiBoxName(leftBox)}`,
-                setLeftData,
-                setLoadingLeft
-            );
-            fetchData(
-                `http://localhost:8080/api/boxes/${apiEnum(rightEdition)}/${apiBoxName(rightBox)}`,
-                setRightData,
-                setLoadingRight
-            );
+            // Das neue Ziel (inkl. Platz) kommt per Event "moved"
+            if (typeof EventSource === "undefined") reloadBoth();
         } catch (err) {
             setError("Fehler beim Verschieben: " + err.message);
         } finally {
@@ -124,6 +135,78 @@ export default function OrganizeView({ editions, boxes, onBack }) {
         }
     };
 
+    // --- Platztausch zweier Pokémon derselben Box ---
+    const swapPokemon = async (targetMon) => {
+        try {
+            const response = await fetch(
+                `http://localhost:8080/api/boxes/pokemon/${draggedPokemon.id}/swap/${targetMon.id}`,
+                {
+                    method: "PUT",
+                    headers: { "Content-Type": "application/json" },
+                }
+            );
+
+            if (!response.ok) throw new Error("Tauschen fehlgeschlagen");
+
+            (await response.json()).forEach(applyPokemon);
+        } catch (err) {
+            setError("Fehler beim Tauschen: " + err.message);
+        } finally {
+            handleDragEnd();
+        }
+    };
+
+    // Gehört das Pokémon in die gewählte Box/Edition? (API liefert Enum-Werte, die Auswahl Anzeigenamen)
+    const isIn = (mon, edition, box) =>
+        apiEnum(mon.edition) === apiEnum(edition) && apiBoxName(mon.boxName) === apiBoxName(box);
+
+    // Neuer Stand eines Pokémon für eine Box: aus der Box entfernen bzw. (nach Platz sortiert) einfügen.
+    // Ältere Stände (z.B. verspätete Events) werden ignoriert.
+    const withPokemon = (data, mon, edition, box) => {
+        if (!data) return data;
+        const current = data.pokemons.find(p => p.id === mon.id);
+        if (current && current.version > mon.version) return data;
+        const others = data.pokemons.filter(p => p.id !== mon.id);
+        const pokemons = isIn(mon, edition, box)
+            ? [...others, mon].sort((a, b) => a.slot - b.slot)
+            : others;
+        return { ...data, pokemons };
+    };
+
+    const applyPokemon = (mon) => {
+        setLeftData(data => withPokemon(data, mon, leftEdition, leftBox));
+        setRightData(data => withPokemon(data, mon, rightEdition, rightBox));
+    };
+
+    const removePokemon = (pokemonId) => {
+        const without = data => (data ? { ...data, pokemons: data.pokemons.filter(p => p.id !== pokemonId) } : data);
+        setLeftData(without);
+        setRightData(without);
+    };
+
+    // Aktualisiere beide Boxen (mit Mapping!)
+    const reloadBoth = () => {
+        fetchData(
+            `http://localhost:8080/api/boxes/${apiEnum(leftEdition)}/${apiBoxName(leftBox)}`,
+            setLeftData,
+            setLoadingLeft
+        );
+        fetchData(
+            `http://localhost:8080/api/boxes/${apiEnum(rightEdition)}/${apiBoxName(rightBox)}`,
+            setRightData,
+            setLoadingRight
+        );
+    };
+
+    // Drop auf eine Karte: gleiche Box/Edition -> Plätze tauschen, sonst normale Verschiebung über das Panel
+    const handleDropOnCard = (e, targetMon) => {
+        if (!draggedPokemon || draggedPokemon.id === targetMon.id) return;
+        if (draggedPokemon.boxName === targetMon.boxName && draggedPokemon.edition === targetMon.edition) {
+            e.stopPropagation();
+            swapPokemon(targetMon);
+        }
+    };
+
     const handleDrop = (side) => {
         if (!draggedPokemon) return;
 
@@ -176,6 +259,7 @@ export default function OrganizeView({ editions, boxes, onBack }) {
                                 draggable
                                 onDragStart={() => handleDragStart(mon)}
                                 onDragEnd={handleDragEnd}
+                                onDrop={(e) => handleDropOnCard(e, mon)}
                                 className="draggable-card"
                             >
                                 <PokemonCard mon={mon} />
@@ -225,6 +309,7 @@ export default function OrganizeView({ editions, boxes, onBack }) {
                                 draggable
                                 onDragStart={() => handleDragStart(mon)}
                                 onDragEnd={handleDragEnd}
+                                onDrop={(e) => handleDropOnCard(e, mon)}
                                 className="draggable-card"
                             >
                                 <PokemonCard mon={mon} />
@@ -17,7 +17,8 @@ import { useState } from "react";
  * @param {Array<Object>} [props.species] - Liste aller Pokémon-Arten (für Entwicklungsanzeige)
  * @param {"add"|"update"} [props.mode="update"] - Steuert Layout und Logik des Overlays
  * @param {Function} [props.onSave] - Wird beim Speichern im "add"-Modus aufgerufen
- * @param {Function} [props.onUpdate] - Wird beim Speichern im "update"-Modus aufgerufen
+ * @param {Function} [props.onUpdate] - Wird beim Speichern im "update"-Modus aufgerufen (erhält auch die Version,
+ *   liefert optional das aktualisierte Pokémon zurück)
  * @param {Function} [props.onDelete] - Wird beim Löschen aufgerufen (nur im "update"-Modus)
  * @param {Function} [props.onEvolve] - Wird beim Entwickeln aufgerufen (nur im "update"-Modus)
  * @param {Function} props.onClose - Wird beim Schließen des Overlays aufgerufen (Pflicht)
@@ -129,11 +130,13 @@ export default function PokemonOverlay({
         updateData[editField === "boxName" ? "box" : editField] = fieldValue;
 
         try {
-            await onUpdate({
+            // Version mitschicken, damit parallele Änderungen nicht überschrieben werden (If-Match)
+            const updatedMon = await onUpdate({
                 id: localMon.id,
+                version: localMon.version,
                 ...updateData
             });
-            setLocalMon({ ...localMon, [editField]: fieldValue, ...(editField === "box" && { boxName: fieldValue }) });
+            setLocalMon(updatedMon ?? { ...localMon, [editField]: fieldValue, ...(editField === "box" && { boxName: fieldValue }) });
             setEditField(null);
         } catch (err) {
             setError(err.message);
@@ -156,10 +159,14 @@ export default function PokemonOverlay({
         try {
             const resp = await fetch(`http://localhost:8080/api/pokemon/${localMon.id}`, {
                 method: "PATCH",
-                headers: { "Content-Type": "application/json" },
+                headers: {
+                    "Content-Type": "application/json",
+                    ...(localMon.version !== undefined && { "If-Match": `"${localMon.version}"` })
+                },
                 body: JSON.stringify(body)
             });
 
+            if (resp.status === 412) throw new Error("Das Pokémon wurde zwischenzeitlich geändert. Bitte neu laden.");
             if (!resp.ok) throw new Error("Entwicklung fehlgeschlagen");
 
             const updatedMon = await resp.json();
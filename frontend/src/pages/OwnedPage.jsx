@@ -11,7 +11,9 @@ import PokemonOverlay from "../components/PokemonOverlay";
  *
  * Besonderheiten:
  * - Per Klick auf ein Pokémon öffnet sich ein Overlay ({@link PokemonOverlay}) zum Bearbeiten, Entwickeln oder Löschen.
- * - Nach Änderungen wird die Liste automatisch neu geladen.
+ * - Eigene Änderungen werden aus der Antwort des Servers direkt in die Liste übernommen (kein erneutes Laden).
+ * - Änderungen aus anderen Tabs/Clients kommen per Server-Sent Events (`/api/pokemon/events`) und werden
+ *   direkt in die Liste übernommen; nach einem Import wird die Liste neu geladen.
  * - Fehler- und Ladezustände werden behandelt.
  * - Edition und Box werden jeweils als Text und für die Farblogik (per CSS-Klasse) verwendet.
  *
@@ -60,6 +62,32 @@ export default function OwnedPage() {
             .then(setPokemons);
     };
 
+    // Übernimmt einen neuen Stand in die Liste; ältere Stände (z.B. verspätete Events) werden ignoriert.
+    const upsertPokemon = pokemon => {
+        setPokemons(list => list.some(mon => mon.id === pokemon.id)
+            ? list.map(mon => (mon.id === pokemon.id && !(mon.version > pokemon.version) ? pokemon : mon))
+            : [...list, pokemon]);
+    };
+
+    const removePokemon = pokemonId => {
+        setPokemons(list => list.filter(mon => mon.id !== pokemonId));
+    };
+
+    // Live-Aktualisierung: Änderungen (auch aus anderen Tabs) direkt in die Liste übernehmen.
+    // EventSource verbindet sich nach Abbrüchen selbstständig neu.
+    useEffect(() => {
+        if (typeof EventSource === "undefined") return;
+        const source = new EventSource("http://localhost:8080/api/pokemon/events");
+        const upsert = e => upsertPokemon(JSON.parse(e.data).pokemon);
+        const remove = e => removePokemon(JSON.parse(e.data).pokemonId);
+        source.addEventListener("created", upsert);
+        source.addEventListener("updated", upsert);
+        source.addEventListener("moved", upsert);
+        source.addEventListener("deleted", remove);
+        source.addEventListener("imported", reloadList);
+        return () => source.close();
+    }, []);
+
     // Mapping von Edition auf CSS-Klasse (groß/klein sicherstellen)
     const editionToClass = ed =>
         ed ? "edition-" + ed.toLowerCase().replace("ü", "u").replace("ä", "a").replace("ö", "o") : "";
@@ -136,25 +164,36 @@ export default function OwnedPage() {
                     evolutionRules={evolutionRules}
                     species={species}
                     mode="update"
-                    onUpdate={async (updatedData) => {
-                        await fetch(`http://localhost:8080/api/pokemon/${updatedData.id}`, {
+                    onUpdate={async ({ version, ...updatedData }) => {
+                        const resp = await fetch(`http://localhost:8080/api/pokemon/${updatedData.id}`, {
                             method: "PATCH",
-                            headers: { "Content-Type": "application/json" },
+                            headers: {
+                                "Content-Type": "application/json",
+                                // Nur speichern, wenn niemand das Pokémon zwischenzeitlich geändert hat
+                                ...(version !== undefined && { "If-Match": `"${version}"` })
+                            },
                             body: JSON.stringify(updatedData)
                         });
-                        reloadList(); // Das Overlay bleibt offen!
+                        if (resp.status === 412) {
+                            reloadList();
+                            throw new Error("Das Pokémon wurde zwischenzeitlich geändert. Bitte neu laden.");
+                        }
+                        if (!resp.ok) throw new Error("Speichern fehlgeschlagen");
+                        const saved = await resp.json();
+                        upsertPokemon(saved); // Das Overlay bleibt offen!
+                        return saved;
                     }}
                     onDelete={async () => {
                         if (window.confirm("Löschen?")) {
-                            await fetch(`http://localhost:8080/api/pokemon/${activeMon.id}`, {
+                            const resp = await fetch(`http://localhost:8080/api/pokemon/${activeMon.id}`, {
                                 method: "DELETE"
                             });
-                            reloadList();
+                            if (resp.ok) removePokemon(activeMon.id);
                             setActiveMon(null); // Nach Löschen Overlay schließen!
                         }
                     }}
                     onEvolve={async (targetPokedexId, body) => {
-                        await fetch(`http://localhost:8080/api/pokemon/${activeMon.id}`, {
+                        const resp = await fetch(`http://localhost:8080/api/pokemon/${activeMon.id}`, {
                             method: "PATCH",
                             headers: { "Content-Type": "application/json" },
                             body: JSON.stringify({
@@ -162,7 +201,7 @@ export default function OwnedPage() {
                                 pokedexId: targetPokedexId
                             })
                         });
-                        reloadList();
+                        if (resp.ok) upsertPokemon(await resp.json());
                     }}
                     onClose={() => setActiveMon(null)}
                 />